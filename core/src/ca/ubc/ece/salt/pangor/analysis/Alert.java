@@ -7,11 +7,8 @@ import ca.ubc.ece.salt.pangor.batch.AnalysisMetaInformation;
  */
 public abstract class Alert {
 
-	/** A counter to produce unique IDs for each alert. **/
-	private static int idCounter;
-
-	/** The unique ID for the alert. **/
-	public int id;
+	/** The unique ID for the alert (see {@code AlertIDGenerator}). **/
+	public long id;
 
 	/** The name of the function that was analyzed. **/
 	public String functionName;
@@ -26,7 +23,7 @@ public abstract class Alert {
 	public Alert(AnalysisMetaInformation ami, String functionName) {
 		this.ami = ami;
 		this.functionName = functionName;
-		this.id = getNextID();
+		this.id = AlertIDGenerator.getRun().nextID();
 	}
 
 	/**
@@ -34,21 +31,10 @@ public abstract class Alert {
 	 * @param ami The meta information from a bulk analysis.
 	 * @param functionName The name of the function that was analyzed.
 	 **/
-	public Alert(AnalysisMetaInformation ami, String functionName, int id) {
+	public Alert(AnalysisMetaInformation ami, String functionName, long id) {
 		this.ami = ami;
 		this.functionName = functionName;
 		this.id = id;
 	}
 
-	/**
-	 * Generates unique IDs for alerts. Synchronized because it may be
-	 * called by several GitProjectAnalysis threads.
-	 *
-	 * @return The next unique ID for an alert.
-	 */
-	private synchronized static int getNextID() {
-		idCounter++;
-		return idCounter;
-	}
-
 }
@@ -0,0 +1,168 @@
+package ca.ubc.ece.salt.pangor.analysis;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Generates unique IDs for the alerts created during a run.
+ *
+ * An ID has two parts: the run ID (the upper bits) and a sequence number
+ * (the lower 32 bits). Each thread reserves a block of sequence numbers at a
+ * time, so threads do not need to synchronize for each alert. Runs that
+ * append to the same data set use different run IDs, so their alert IDs do
+ * not collide.
+ *
+ * The IDs of run 0 are 1, 2, 3, ... when there is one thread.
+ */
+public class AlertIDGenerator {
+
+	/** The number of sequence numbers a thread reserves at a time. **/
+	private static final int BLOCK_SIZE = 1024;
+
+	/** The number of bytes read at a time from the end of a data set. **/
+	private static final int TAIL_BUFFER_SIZE = 8192;
+
+	/** The most characters an ID can have (i.e., the digits of a long). **/
+	private static final int MAX_ID_LENGTH = 20;
+
+	/** The number of bits in the sequence number. **/
+	private static final int SEQUENCE_BITS = 32;
+
+	/** The largest run ID. IDs are stored as doubles by Weka, so they must
+	 * be smaller than 2^53. **/
+	public static final int MAX_RUN_ID = (1 << (53 - SEQUENCE_BITS)) - 1;
+
+	/** The generator for the current run. **/
+	private static volatile AlertIDGenerator run = new AlertIDGenerator(0);
+
+	/** The run ID (the upper bits of each alert ID). **/
+	private final long runID;
+
+	/** The first sequence number of the next unreserved block. **/
+	private final AtomicLong nextBlock = new AtomicLong(1);
+
+	/** Each thread's current block: {next sequence number, end of block}. **/
+	private final ThreadLocal<long[]> block = ThreadLocal.withInitial(() -> new long[] { 0, 0 });
+
+	/**
+	 * @param runID The run ID (between 0 and {@code MAX_RUN_ID}).
+	 */
+	public AlertIDGenerator(int runID) {
+		if(runID < 0 || runID > MAX_RUN_ID) throw new IllegalArgumentException("Run ID out of range: " + runID);
+		this.runID = (long) runID << SEQUENCE_BITS;
+	}
+
+	/**
+	 * @return The next unique ID in this run.
+	 */
+	public long nextID() {
+
+		long[] block = this.block.get();
+
+		/* Reserve a new block of sequence numbers. */
+		if(block[0] == block[1]) {
+			block[0] = this.nextBlock.getAndAdd(BLOCK_SIZE);
+			block[1] = block[0] + BLOCK_SIZE;
+			if(block[1] > (1L << SEQUENCE_BITS)) throw new IllegalStateException("Too many alerts in one run.");
+		}
+
+		return this.runID | block[0]++;
+
+	}
+
+	/**
+	 * @return The generator for the current run.
+	 */
+	public static AlertIDGenerator getRun() {
+		return run;
+	}
+
+	/**
+	 * Starts a new run. Alerts created from now on use the run ID.
+	 * @param runID The run ID (between 0 and {@code MAX_RUN_ID}).
+	 */
+	public static void startRun(int runID) {
+		run = new AlertIDGenerator(runID);
+	}
+
+	/**
+	 * @param id An alert ID.
+	 * @return The ID of the run that created the alert.
+	 */
+	public static int getRunID(long id) {
+		return (int) (id >>> SEQUENCE_BITS);
+	}
+
+	/**
+	 * Finds a run ID that is not used in a data set, so that alerts can be
+	 * appended to the data set without ID collisions. The ID is the first
+	 * column of each row.
+	 *
+	 * Each run appends its rows to the end of the data set, so the last row
+	 * has the largest run ID. Only the end of the data set is read, up to the
+	 * last row that starts with an ID.
+	 * @param dataSetPath The path to the data set (which may not exist).
+	 * @return One more than the run ID of the last row in the data set, or 0
+	 * 		   if the data set does not exist or has no rows.
+	 * @throws IOException if the data set cannot be read.
+	 */
+	public static int getNextRunID(String dataSetPath) throws IOException {
+
+		if(dataSetPath == null || !new File(dataSetPath).exists()) return 0;
+
+		try(RandomAccessFile file = new RandomAccessFile(dataSetPath, "r")) {
+
+			/* Read the file backwards and check each row that starts after a
+			 * line break. */
+			byte[] buffer = new byte[TAIL_BUFFER_SIZE];
+			long position = file.length();
+			while(position > 0) {
+				int size = (int) Math.min(buffer.length, position);
+				position -= size;
+				file.seek(position);
+				file.readFully(buffer, 0, size);
+
+				for(int i = size - 1; i >= 0; i--) {
+					if(buffer[i] != '\n') continue;
+					Long id = readID(file, position + i + 1);
+					if(id != null) return getRunID(id) + 1;
+				}
+			}
+
+			/* The first row. */
+			Long id = readID(file, 0);
+			return id == null ? 0 : getRunID(id) + 1;
+
+		}
+
+	}
+
+	/**
+	 * @param file The data set.
+	 * @param start The position of the first character of a row.
+	 * @return The ID in the row's first column, or null if the row does not
+	 * 		   start with an ID (e.g., a blank line or the end of the file).
+	 * @throws IOException if the data set cannot be read.
+	 */
+	private static Long readID(RandomAccessFile file, long start) throws IOException {
+
+		byte[] buffer = new byte[MAX_ID_LENGTH + 1];
+		file.seek(start);
+		int size = file.read(buffer);
+
+		int end = 0;
+		while(end < size && buffer[end] != ',' && buffer[end] != '\r' && buffer[end] != '\n') end++;
+		if(end == 0 || end > MAX_ID_LENGTH) return null;
+
+		try {
+			return Long.parseLong(new String(buffer, 0, end, "US-ASCII"));
+		}
+		catch(NumberFormatException e) {
+			return null;
+		}
+
+	}
+
+}
@@ -4,6 +4,7 @@ import java.util.List;
 
 import ca.ubc.ece.salt.gumtree.ast.ClassifiedASTNode;
 import ca.ubc.ece.salt.pangor.batch.AnalysisMetaInformation;
+import ca.ubc.ece.salt.pangor.cfd.CFDContext;
 import ca.ubc.ece.salt.pangor.cfg.CFG;
 
 /**
@@ -25,6 +26,14 @@ public abstract class Analysis<U extends Alert, T extends DataSet<U>> {
 	 */
 	protected AnalysisMetaInformation ami;
 
+	/**
+	 * The control flow differencing context the analysis is run on. This is
+	 * null if the analysis was not run by {@code ControlFlowDifferencing}.
+	 * Analyses use the context to share artifacts (e.g., scope trees) with
+	 * other analyses of the same file.
+	 */
+	protected CFDContext context;
+
 	/**
 	 * @param dataSet The data set that will keep track of the alerts.
 	 * @param ami The meta information from the bulk analysis.
@@ -34,11 +43,44 @@ public abstract class Analysis<U extends Alert, T extends DataSet<U>> {
 		this.ami = ami;
 	}
 
+	/**
+	 * @param context The control flow differencing context the analysis will
+	 * 				  be run on.
+	 */
+	public void setContext(CFDContext context) {
+		this.setContext(context, context == null ? null : context.dstScript);
+	}
+
+	/**
+	 * Sets the context before any analysis is run on it, so that analyses
+	 * can register the work they will do on a script (e.g., AST visitors)
+	 * and share it with the other analyses run on the context.
+	 * @param context The control flow differencing context the analysis will
+	 * 				  be run on.
+	 * @param root The script the analysis will visit (the destination script,
+	 * 			   unless the analysis is run on the source script by a meta
+	 * 			   analysis).
+	 */
+	public void setContext(CFDContext context, ClassifiedASTNode root) {
+		this.context = context;
+	}
+
+	/**
+	 * Control flow differencing only builds the artifacts that are required
+	 * by the analyses it runs. Analyses that do not traverse CFGs should
+	 * override this to avoid the cost of building and differencing CFGs.
+	 * @return the most expensive artifact this analysis uses.
+	 */
+	public AnalysisArtifact getRequiredArtifact() {
+		return AnalysisArtifact.CFG_CHANGES;
+	}
+
 	/**
 	 * Perform a single-file analysis.
 	 * @param root The script.
 	 * @param cfgs The list of CFGs in the script (one for each function plus
-	 * 			   one for the script).
+	 * 			   one for the script), or null if the analysis does not
+	 * 			   require CFGs.
 	 */
 	public abstract void analyze(ClassifiedASTNode root, List<CFG> cfgs) throws Exception;
 
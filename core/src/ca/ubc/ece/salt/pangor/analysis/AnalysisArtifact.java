@@ -0,0 +1,27 @@
+package ca.ubc.ece.salt.pangor.analysis;
+
+/**
+ * The artifacts an analysis needs from control flow differencing. Each
+ * artifact includes all the artifacts before it, so an analysis only has to
+ * declare the most expensive artifact it uses.
+ */
+public enum AnalysisArtifact {
+
+	/** The classified (AST differenced) source and destination ASTs. **/
+	AST,
+
+	/** The ASTs and the CFGs for each function and script. **/
+	CFG,
+
+	/** The ASTs, the CFGs and the CFG node mappings and edge changes. **/
+	CFG_CHANGES;
+
+	/**
+	 * @param artifact The artifact to check.
+	 * @return true if this artifact includes {@code artifact}.
+	 */
+	public boolean includes(AnalysisArtifact artifact) {
+		return this.ordinal() >= artifact.ordinal();
+	}
+
+}
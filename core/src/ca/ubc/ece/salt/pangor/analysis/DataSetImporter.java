@@ -0,0 +1,205 @@
+package ca.ubc.ece.salt.pangor.analysis;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * Reads the rows (one per line) of a data set file in parallel.
+ *
+ * The file is split into chunks on line boundaries. Each chunk is memory
+ * mapped and its rows are de-serialized on the fork/join pool. The rows are
+ * returned in the order they appear in the file.
+ *
+ * Data sets are written and read with {@code CHARSET}, so the rows do not
+ * depend on the platform's default charset.
+ */
+public class DataSetImporter {
+
+	/** The charset of data set files. **/
+	public static final Charset CHARSET = StandardCharsets.UTF_8;
+
+	/** The approximate size of a chunk (in bytes). **/
+	private static final int CHUNK_SIZE = 8 * 1024 * 1024;
+
+	private DataSetImporter() { }
+
+	/**
+	 * De-serializes a row of a data set. Called by several threads at the
+	 * same time.
+	 * @param <T> The type of the rows.
+	 */
+	public interface RowParser<T> {
+
+		/**
+		 * @param row A line from the data set file.
+		 * @return The de-serialized row, or null if the row should not be
+		 * 		   imported (e.g., it is filtered out).
+		 * @throws Exception if the row is not in the expected format.
+		 */
+		T parse(String row) throws Exception;
+
+	}
+
+	/**
+	 * Reads and de-serializes the rows of a data set file.
+	 * @param dataSetPath The file path where the data set is stored.
+	 * @param parser De-serializes (and optionally filters) a row.
+	 * @return The rows, in the order they appear in the file.
+	 * @throws Exception if the file cannot be read or a row cannot be
+	 * 					 de-serialized.
+	 */
+	public static <T> List<T> importRows(String dataSetPath, RowParser<T> parser) throws Exception {
+		return importRows(dataSetPath, parser, CHUNK_SIZE);
+	}
+
+	/**
+	 * Reads and de-serializes the rows of a data set file, split into chunks
+	 * of a given size (e.g., small chunks for testing).
+	 * @param dataSetPath The file path where the data set is stored.
+	 * @param parser De-serializes (and optionally filters) a row.
+	 * @param chunkSize The approximate size of a chunk (in bytes).
+	 * @return The rows, in the order they appear in the file.
+	 * @throws Exception if the file cannot be read or a row cannot be
+	 * 					 de-serialized.
+	 */
+	static <T> List<T> importRows(String dataSetPath, RowParser<T> parser, int chunkSize) throws Exception {
+
+		try(FileChannel channel = FileChannel.open(Paths.get(dataSetPath), StandardOpenOption.READ)) {
+
+			long[] boundaries = getChunkBoundaries(channel, chunkSize);
+
+			/* Parse the chunks in parallel. The chunks are collected in
+			 * order, so the rows stay in order. */
+			List<List<T>> chunks;
+			try {
+				chunks = IntStream.range(0, boundaries.length - 1).parallel()
+						.mapToObj(i -> parseChunk(channel, boundaries[i], boundaries[i + 1], parser))
+						.collect(Collectors.toList());
+			}
+			catch(ImportException e) {
+				throw (Exception) e.getCause();
+			}
+
+			int size = 0;
+			for(List<T> chunk : chunks) size += chunk.size();
+
+			List<T> rows = new ArrayList<T>(size);
+			for(List<T> chunk : chunks) rows.addAll(chunk);
+			return rows;
+
+		}
+
+	}
+
+	/**
+	 * Splits the file into chunks of about {@code chunkSize} bytes. Each
+	 * chunk ends at the end of a line.
+	 * @return The start of each chunk, followed by the size of the file.
+	 */
+	private static long[] getChunkBoundaries(FileChannel channel, int chunkSize) throws IOException {
+
+		long size = channel.size();
+		ByteBuffer buffer = ByteBuffer.allocate(4096);
+
+		List<Long> boundaries = new ArrayList<Long>();
+		boundaries.add(0L);
+
+		for(long position = chunkSize; position < size; position += chunkSize) {
+			position = getNextLine(channel, position, size, buffer);
+			if(position >= size) break;
+			boundaries.add(position);
+		}
+
+		boundaries.add(size);
+
+		long[] array = new long[boundaries.size()];
+		for(int i = 0; i < array.length; i++) array[i] = boundaries.get(i);
+		return array;
+
+	}
+
+	/**
+	 * @return The position of the first line that starts after
+	 * 		   {@code position}, or the size of the file if there is none.
+	 */
+	private static long getNextLine(FileChannel channel, long position, long size, ByteBuffer buffer) throws IOException {
+
+		while(position < size) {
+			buffer.clear();
+			int read = channel.read(buffer, position);
+			if(read <= 0) break;
+
+			for(int i = 0; i < read; i++) {
+				if(buffer.get(i) == '\n') return position + i + 1;
+			}
+
+			position += read;
+		}
+
+		return size;
+
+	}
+
+	/**
+	 * Maps a chunk of the file into memory and de-serializes its rows.
+	 */
+	private static <T> List<T> parseChunk(FileChannel channel, long start, long end, RowParser<T> parser) {
+
+		try {
+			MappedByteBuffer bytes = channel.map(FileChannel.MapMode.READ_ONLY, start, end - start);
+			CharBuffer chars = CHARSET.decode(bytes);
+
+			char[] text = chars.array();
+			int offset = chars.arrayOffset();
+			int length = chars.remaining();
+
+			List<T> rows = new ArrayList<T>();
+			int lineStart = 0;
+			for(int i = 0; i <= length; i++) {
+
+				/* The last line of the file may not end with a new line. */
+				if(i == length && lineStart == length) break;
+
+				if(i == length || text[offset + i] == '\n') {
+					int lineEnd = i;
+					if(lineEnd > lineStart && text[offset + lineEnd - 1] == '\r') lineEnd--;
+					T row = parser.parse(new String(text, offset + lineStart, lineEnd - lineStart));
+					if(row != null) rows.add(row);
+					lineStart = i + 1;
+				}
+
+			}
+
+			return rows;
+		}
+		catch(Exception e) {
+			throw new ImportException(e);
+		}
+
+	}
+
+	/**
+	 * Carries an exception out of the fork/join pool.
+	 */
+	private static class ImportException extends RuntimeException {
+
+		private static final long serialVersionUID = 1L;
+
+		public ImportException(Exception cause) {
+			super(cause);
+		}
+
+	}
+
+}
@@ -5,8 +5,10 @@ import java.util.List;
 import ca.ubc.ece.salt.gumtree.ast.ClassifiedASTNode;
 import ca.ubc.ece.salt.pangor.analysis.Alert;
 import ca.ubc.ece.salt.pangor.analysis.Analysis;
+import ca.ubc.ece.salt.pangor.analysis.AnalysisArtifact;
 import ca.ubc.ece.salt.pangor.analysis.DataSet;
 import ca.ubc.ece.salt.pangor.batch.AnalysisMetaInformation;
+import ca.ubc.ece.salt.pangor.cfd.CFDContext;
 import ca.ubc.ece.salt.pangor.cfg.CFG;
 
 /**
@@ -33,6 +35,25 @@ public abstract class MetaAnalysis<U extends Alert, T extends DataSet<U>,
 		this.dstAnalysis = dstAnalysis;
 	}
 
+	@Override
+	public void setContext(CFDContext context, ClassifiedASTNode root) {
+		super.setContext(context, root);
+
+		/* Each analysis visits its own script. */
+		this.srcAnalysis.setContext(context, context == null ? null : context.srcScript);
+		this.dstAnalysis.setContext(context, root);
+	}
+
+	@Override
+	public AnalysisArtifact getRequiredArtifact() {
+
+		/* The meta analysis needs whatever either of its analyses need. */
+		AnalysisArtifact srcArtifact = this.srcAnalysis.getRequiredArtifact();
+		AnalysisArtifact dstArtifact = this.dstAnalysis.getRequiredArtifact();
+		return srcArtifact.includes(dstArtifact) ? srcArtifact : dstArtifact;
+
+	}
+
 	@Override
 	public void analyze(ClassifiedASTNode srcRoot, List<CFG> srcCFGs, ClassifiedASTNode dstRoot, List<CFG> dstCFGs) throws Exception {
 
@@ -1,5 +1,7 @@
 package ca.ubc.ece.salt.pangor.batch;
 
+import java.io.IOException;
+
 public class AnalysisMetaInformation {
 
 	/** The number of commits inspected. **/
@@ -32,6 +34,18 @@ public class AnalysisMetaInformation {
 	/** The repaired source code. **/
 	public String repairedCode;
 
+	/** The handle to the buggy source file (null if it is only in memory). **/
+	public SourceHandle buggySource;
+
+	/** The handle to the repaired source file (null if it is only in memory). **/
+	public SourceHandle repairedSource;
+
+	/**
+	 * The similarity score (0-100) between the buggy and repaired files. This
+	 * is 100 unless the file was renamed in the bug fixing commit.
+	 **/
+	public int similarity;
+
 	/**
 	 * @param totalCommits
 	 * @param bugFixingCommits
@@ -43,8 +57,6 @@ public class AnalysisMetaInformation {
 	 * @param repairedCommitID
 	 * @param buggyCode
 	 * @param repairedCode
-	 * @param buggyChangeComplexity
-	 * @param repairedChangeComplexity
 	 */
 	public AnalysisMetaInformation(int totalCommits, int bugFixingCommits,
 			String projectID,
@@ -52,6 +64,31 @@ public class AnalysisMetaInformation {
 			String buggyFile, String repairedFile,
 			String buggyCommitID, String repairedCommitID,
 			String buggyCode, String repairedCode) {
+		this(totalCommits, bugFixingCommits, projectID, projectHomepage,
+				buggyFile, repairedFile, buggyCommitID, repairedCommitID,
+				buggyCode, repairedCode, 100);
+	}
+
+	/**
+	 * @param totalCommits
+	 * @param bugFixingCommits
+	 * @param projectID
+	 * @param projectHomepage
+	 * @param buggyFile
+	 * @param repairedFile
+	 * @param buggyCommitID
+	 * @param repairedCommitID
+	 * @param buggyCode
+	 * @param repairedCode
+	 * @param similarity The rename similarity score (100 if not renamed).
+	 */
+	public AnalysisMetaInformation(int totalCommits, int bugFixingCommits,
+			String projectID,
+			String projectHomepage,
+			String buggyFile, String repairedFile,
+			String buggyCommitID, String repairedCommitID,
+			String buggyCode, String repairedCode,
+			int similarity) {
 
 		this.totalCommits = totalCommits;
 		this.bugFixingCommits = bugFixingCommits;
@@ -63,7 +100,54 @@ public class AnalysisMetaInformation {
 		this.repairedCommitID = repairedCommitID;
 		this.buggyCode = buggyCode;
 		this.repairedCode = repairedCode;
+		this.similarity = similarity;
+
+	}
+
+	/**
+	 * Releases the text of the source files that have handles once they have
+	 * been analyzed. Alerts keep a reference to this object, so the text would
+	 * otherwise stay in memory for as long as the alerts do. The text can
+	 * still be read through the source handles. The text of files without
+	 * handles is kept.
+	 */
+	public void releaseCode() {
+		if(this.buggySource != null) this.buggyCode = null;
+		if(this.repairedSource != null) this.repairedCode = null;
+	}
 
+	/**
+	 * @return The buggy source code, read through its handle if it has been
+	 * 		   released.
+	 * @throws IOException if the source file cannot be read.
+	 */
+	public String getBuggyCode() throws IOException {
+		if(this.buggyCode != null || this.buggySource == null) return this.buggyCode;
+		return this.buggySource.getCode();
+	}
+
+	/**
+	 * @return The repaired source code, read through its handle if it has
+	 * 		   been released.
+	 * @throws IOException if the source file cannot be read.
+	 */
+	public String getRepairedCode() throws IOException {
+		if(this.repairedCode != null || this.repairedSource == null) return this.repairedCode;
+		return this.repairedSource.getCode();
+	}
+
+	/**
+	 * Reads the text of a source file through its handle, unless the handle
+	 * is to one of these source files and its text has not been released
+	 * (e.g., while the files are being analyzed).
+	 * @param source The handle to the source file.
+	 * @return The text of the source file.
+	 * @throws IOException if the source file cannot be read.
+	 */
+	public String getCode(SourceHandle source) throws IOException {
+		if(source == this.buggySource && this.buggyCode != null) return this.buggyCode;
+		if(source == this.repairedSource && this.repairedCode != null) return this.repairedCode;
+		return source.getCode();
 	}
 
 	@Override
@@ -1,9 +1,11 @@
 package ca.ubc.ece.salt.pangor.batch;
 
+import org.kohsuke.args4j.CmdLineException;
 import org.mozilla.javascript.EvaluatorException;
 
 import ca.ubc.ece.salt.pangor.cfd.ControlFlowDifferencing;
 import ca.ubc.ece.salt.pangor.cfg.CFGFactory;
+import fr.labri.gumtree.client.DiffOptions;
 
 /**
  * Runs an analysis on a file within a batch analysis. The batch analysis
@@ -14,23 +16,25 @@ import ca.ubc.ece.salt.pangor.cfg.CFGFactory;
  */
 public abstract class AnalysisRunner {
 
-	/** Set to true to enable AST pre-processing. **/
-	private boolean preProcess;
-
 	/** Specifies the CFG factory to use. **/
 	private CFGFactory cfgFactory;
 
+	/**
+	 * The differencing options. These are the same for every file, so they
+	 * are parsed once instead of once per file.
+	 */
+	private DiffOptions options;
+
 	public AnalysisRunner(CFGFactory cfgFactory) {
-		this.preProcess = false;
-		this.cfgFactory = cfgFactory;
+		this(cfgFactory, false);
 	}
 
 	/**
 	 * @param preProcess Set to true to enable AST pre-processing.
 	 */
 	public AnalysisRunner(CFGFactory cfgFactory, boolean preProcess) {
-		this.preProcess = preProcess;
 		this.cfgFactory = cfgFactory;
+		this.options = AnalysisRunner.buildDiffOptions(preProcess);
 	}
 
 	/**
@@ -57,8 +61,7 @@ public abstract class AnalysisRunner {
         /* Control flow difference the files. */
         ControlFlowDifferencing cfd = null;
         try {
-			String[] args = this.preProcess ? new String[] {"", "", "-pp"} : new String[] {"", ""};
-            cfd = new ControlFlowDifferencing(this.cfgFactory, args, ami.buggyCode, ami.repairedCode);
+            cfd = new ControlFlowDifferencing(this.cfgFactory, this.options, ami.buggyCode, ami.repairedCode);
         }
         catch(ArrayIndexOutOfBoundsException e) {
         	System.err.println("ArrayIndexOutOfBoundsException: possibly caused by empty file.");
@@ -86,5 +89,21 @@ public abstract class AnalysisRunner {
 	 */
 	protected abstract void analyze(ControlFlowDifferencing cfd, AnalysisMetaInformation ami) throws Exception;
 
+	/**
+	 * Builds the differencing options shared by all files analyzed by this
+	 * runner. The source and destination paths are empty because the source
+	 * code is passed to the differencer as strings.
+	 * @param preProcess Set to true to enable AST pre-processing.
+	 * @return The differencing options.
+	 */
+	private static DiffOptions buildDiffOptions(boolean preProcess) {
+		String[] args = preProcess ? new String[] {"", "", "-pp"} : new String[] {"", ""};
+		try {
+			return ControlFlowDifferencing.getAnalysisOptions(args);
+		} catch (CmdLineException e) {
+			throw new IllegalStateException("Could not build the differencing options.", e);
+		}
+	}
+
 
 }
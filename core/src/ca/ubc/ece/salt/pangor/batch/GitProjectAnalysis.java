@@ -9,8 +9,11 @@ import org.eclipse.jgit.api.errors.GitAPIException;
 import org.eclipse.jgit.api.errors.InvalidRemoteException;
 import org.eclipse.jgit.api.errors.TransportException;
 import org.eclipse.jgit.diff.DiffEntry;
+import org.eclipse.jgit.diff.DiffEntry.ChangeType;
+import org.eclipse.jgit.diff.RenameDetector;
 import org.eclipse.jgit.errors.IncorrectObjectTypeException;
 import org.eclipse.jgit.errors.MissingObjectException;
+import org.eclipse.jgit.lib.NullProgressMonitor;
 import org.eclipse.jgit.lib.ObjectId;
 import org.eclipse.jgit.lib.ObjectReader;
 import org.eclipse.jgit.revwalk.RevCommit;
@@ -18,6 +21,7 @@ import org.eclipse.jgit.revwalk.RevTree;
 import org.eclipse.jgit.revwalk.RevWalk;
 import org.eclipse.jgit.treewalk.CanonicalTreeParser;
 import org.eclipse.jgit.treewalk.TreeWalk;
+import org.eclipse.jgit.treewalk.filter.PathSuffixFilter;
 
 import ca.ubc.ece.salt.pangor.git.GitProject;
 
@@ -26,6 +30,13 @@ import ca.ubc.ece.salt.pangor.git.GitProject;
  */
 public class GitProjectAnalysis extends GitProject {
 
+	/**
+	 * The maximum number of files the rename detector will consider for
+	 * inexact renames. If more files than this were added or more files than
+	 * this were deleted, only exact renames are detected.
+	 */
+	private static final int RENAME_LIMIT = 400;
+
 	/** Runs an analysis on a source file. **/
 	private AnalysisRunner runner;
 
@@ -48,12 +59,12 @@ public class GitProjectAnalysis extends GitProject {
 		logger.info("[START ANALYSIS] {}", this.getURI());
 
 		/* Get the list of bug fixing commits from version history. */
-		List<Pair<String, String>> bugFixingCommits = this.getBugFixingCommitPairs();
+		List<Pair<ObjectId, ObjectId>> bugFixingCommits = this.getBugFixingCommitPairs();
 
 		logger.info(" [ANALYZING] {} bug fixing commits", bugFixingCommits.size());
 
 		/* Analyze the changes made in each bug fixing commit. */
-		for(Pair<String, String> bugFixingCommit : bugFixingCommits) {
+		for(Pair<ObjectId, ObjectId> bugFixingCommit : bugFixingCommits) {
 
 			this.analyzeDiff(bugFixingCommit.getLeft(), bugFixingCommit.getRight());
 		}
@@ -66,30 +77,56 @@ public class GitProjectAnalysis extends GitProject {
 	 * Extract the source files from Git and analyze them with the analysis
 	 * runner.
 	 *
-	 * @param buggyRevision The hash that identifies the buggy revision.
-	 * @param bugFixingRevision The hash that identifies the fixed revision.
+	 * @param buggyCommit The id of the buggy revision.
+	 * @param bugFixingCommit The id of the fixed revision.
 	 * @throws IOException
 	 * @throws GitAPIException
 	 */
-	private void analyzeDiff(String buggyRevision, String bugFixingRevision) throws IOException, GitAPIException, Exception {
+	private void analyzeDiff(ObjectId buggyCommit, ObjectId bugFixingCommit) throws IOException, GitAPIException, Exception {
 
-		ObjectId buggy = this.repository.resolve(buggyRevision + "^{tree}");
-		ObjectId repaired = this.repository.resolve(bugFixingRevision + "^{tree}");
+		String buggyRevision = buggyCommit.name();
+		String bugFixingRevision = bugFixingCommit.name();
 
+		List<DiffEntry> diffs;
+
+		/* The reader and the walk are released even if a commit or tree
+		 * cannot be read. */
 		ObjectReader reader = this.repository.newObjectReader();
+		RevWalk walk = new RevWalk(reader);
+		try {
+			ObjectId buggy = walk.parseCommit(buggyCommit).getTree();
+			ObjectId repaired = walk.parseCommit(bugFixingCommit).getTree();
+
+			CanonicalTreeParser buggyTreeIter = new CanonicalTreeParser();
+			buggyTreeIter.reset(reader, buggy);
 
-		CanonicalTreeParser buggyTreeIter = new CanonicalTreeParser();
-		buggyTreeIter.reset(reader, buggy);
+			CanonicalTreeParser repairedTreeIter = new CanonicalTreeParser();
+			repairedTreeIter.reset(reader, repaired);
 
-		CanonicalTreeParser repairedTreeIter = new CanonicalTreeParser();
-		repairedTreeIter.reset(reader, repaired);
+			/* Only walk JavaScript files. */
+			DiffCommand diffCommand = this.git.diff().setShowNameAndStatusOnly(true)
+					.setOldTree(buggyTreeIter).setNewTree(repairedTreeIter)
+					.setPathFilter(PathSuffixFilter.create(".js"));
 
-		DiffCommand diffCommand = this.git.diff().setShowNameAndStatusOnly(true).setOldTree(buggyTreeIter).setNewTree(repairedTreeIter);
+			diffs = diffCommand.call();
 
-		List<DiffEntry> diffs = diffCommand.call();
+			/* Pair deleted and added files that were renamed (and possibly
+			 * repaired) so they are analyzed as one file. */
+			RenameDetector renameDetector = new RenameDetector(this.repository);
+			renameDetector.setRenameLimit(RENAME_LIMIT);
+			renameDetector.addAll(diffs);
+
+			diffs = renameDetector.compute(reader, NullProgressMonitor.INSTANCE);
+		}
+		finally {
+			walk.release();
+			reader.release();
+		}
 
 		for(DiffEntry diff : diffs) {
 
+			/* Added and deleted files have no buggy/repaired pair. */
+			if(diff.getChangeType() == ChangeType.ADD || diff.getChangeType() == ChangeType.DELETE) continue;
 
 			if(diff.getOldPath().matches("^.*\\.js$") && diff.getNewPath().matches("^.*\\.js$")){
 
@@ -108,8 +145,10 @@ public class GitProjectAnalysis extends GitProject {
 				logger.debug("Exploring diff \n {} \n {} - {} \n {} - {}", getURI(), buggyRevision, diff.getOldPath(),
 						bugFixingRevision, diff.getNewPath());
 
-                String oldFile = this.fetchBlob(buggyRevision, diff.getOldPath());
-                String newFile = this.fetchBlob(bugFixingRevision, diff.getNewPath());
+                SourceHandle oldSource = this.fetchBlob(buggyCommit, diff.getOldPath());
+                SourceHandle newSource = this.fetchBlob(bugFixingCommit, diff.getNewPath());
+                String oldFile = oldSource.getCode(this.repository);
+                String newFile = newSource.getCode(this.repository);
 
                 try {
                 	AnalysisMetaInformation ami = new AnalysisMetaInformation(
@@ -118,8 +157,14 @@ public class GitProjectAnalysis extends GitProject {
                 			this.projectHomepage,
                 			diff.getOldPath(), diff.getNewPath(),
                 			buggyRevision, bugFixingRevision,
-                			oldFile, newFile);
+                			oldFile, newFile,
+                			diff.getChangeType() == ChangeType.MODIFY ? 100 : diff.getScore());
+                	ami.buggySource = oldSource;
+                	ami.repairedSource = newSource;
                 	runner.analyzeFile(ami);
+
+                	/* The alerts only need the handles from now on. */
+                	ami.releaseCode();
                 }
                 catch(Exception ignore) {
                 	System.err.println("Ignoring exception in ProjectAnalysis.runSDJSB.\nBuggy Revision: " + buggyRevision + "\nOld File: " + diff.getOldPath() + "\nBug Fixing Revision: " + bugFixingRevision + "\nNew File:" + diff.getNewPath());
@@ -139,21 +184,18 @@ public class GitProjectAnalysis extends GitProject {
 	}
 
 	/**
-	 * Fetches the string contents of a file from a specific revision. from
+	 * Finds a file in a specific revision. from
 	 * http://stackoverflow.com/questions/1685228/how-to-cat-a-file-in-jgit
 	 *
-	 * @param repo The repository to fetch the file from.
-	 * @param revSpec The commit id.
+	 * @param id The commit id.
 	 * @param path The path to the file.
-	 * @return The contents of the text file.
+	 * @return A handle to the contents of the text file (empty if the file
+	 * 		   does not exist).
 	 * @throws MissingObjectException
 	 * @throws IncorrectObjectTypeException
 	 * @throws IOException
 	 */
-	private String fetchBlob(String revSpec, String path) throws MissingObjectException, IncorrectObjectTypeException, IOException {
-
-		// Resolve the revision specification
-	    final ObjectId id = this.repository.resolve(revSpec);
+	private SourceHandle fetchBlob(ObjectId id, String path) throws MissingObjectException, IncorrectObjectTypeException, IOException {
 
         // Makes it simpler to release the allocated resources in one go
         ObjectReader reader = this.repository.newObjectReader();
@@ -169,11 +211,10 @@ public class GitProjectAnalysis extends GitProject {
             TreeWalk treewalk = TreeWalk.forPath(reader, path, tree);
 
             if (treewalk != null) {
-                // use the blob id to read the file's data
-                byte[] data = reader.open(treewalk.getObjectId(0)).getBytes();
-                return new String(data, "utf-8");
+                // the blob's data is read when it is needed
+                return new SourceHandle(this.repository.getDirectory(), treewalk.getObjectId(0));
             } else {
-                return "";
+                return SourceHandle.EMPTY;
             }
         } finally {
             reader.release();
@@ -0,0 +1,92 @@
+package ca.ubc.ece.salt.pangor.batch;
+
+import java.io.File;
+import java.io.IOException;
+
+import org.eclipse.jgit.lib.Constants;
+import org.eclipse.jgit.lib.ObjectId;
+import org.eclipse.jgit.lib.Repository;
+import org.eclipse.jgit.lib.RepositoryCache;
+import org.eclipse.jgit.lib.RepositoryCache.FileKey;
+import org.eclipse.jgit.util.FS;
+
+/**
+ * A reference to the text of a source file.
+ *
+ * A handle to a file in a git repository only stores the path to the
+ * repository and the blob id, so alerts can refer to the source code without
+ * keeping the file's text or an open repository in memory. While the file is
+ * being analyzed, its text should be read from memory or through the open
+ * repository. Otherwise, the repository is shared through JGit's
+ * {@code RepositoryCache}, so it is not built again for every read.
+ */
+public class SourceHandle {
+
+	/** An empty source file. **/
+	public static final SourceHandle EMPTY = new SourceHandle("");
+
+	/** The git directory of the repository that contains the blob (null for in-memory text). **/
+	private final File gitDirectory;
+
+	/** The id of the blob (null for in-memory text). **/
+	private final ObjectId blob;
+
+	/** The in-memory text (null for blobs). **/
+	private final String code;
+
+	/**
+	 * Creates a handle to text that is not in a repository.
+	 * @param code The text of the source file.
+	 */
+	public SourceHandle(String code) {
+		this.gitDirectory = null;
+		this.blob = null;
+		this.code = code;
+	}
+
+	/**
+	 * Creates a handle to a blob in a repository.
+	 * @param gitDirectory The git directory of the repository that contains
+	 * 		  the blob (e.g., {@code Repository.getDirectory()}).
+	 * @param blob The id of the blob.
+	 */
+	public SourceHandle(File gitDirectory, ObjectId blob) {
+		this.gitDirectory = gitDirectory;
+		this.blob = blob.copy();
+		this.code = null;
+	}
+
+	/**
+	 * Reads the text of the source file from the cached repository if the
+	 * text is not in memory.
+	 * @return The text of the source file.
+	 * @throws IOException if the blob cannot be read from the repository.
+	 */
+	public String getCode() throws IOException {
+		if(this.code != null) return this.code;
+
+		/* Closing only releases this use of the cached repository. */
+		Repository repository = RepositoryCache.open(FileKey.exact(this.gitDirectory, FS.DETECTED), true);
+		try {
+			return this.getCode(repository);
+		}
+		finally {
+			repository.close();
+		}
+	}
+
+	/**
+	 * Reads the text of the source file from a repository that is already
+	 * open.
+	 * @param repository The open repository that contains the blob.
+	 * @return The text of the source file.
+	 * @throws IOException if the blob cannot be read from the repository.
+	 */
+	public String getCode(Repository repository) throws IOException {
+		if(this.code != null) return this.code;
+
+		byte[] data = repository.open(this.blob, Constants.OBJ_BLOB).getBytes();
+		return new String(data, "utf-8");
+	}
+
+}
@@ -1,6 +1,8 @@
 package ca.ubc.ece.salt.pangor.cfd;
 
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 import ca.ubc.ece.salt.gumtree.ast.ClassifiedASTNode;
 import ca.ubc.ece.salt.pangor.cfg.CFG;
@@ -15,6 +17,27 @@ public class CFDContext {
 	public List<CFG> srcCFGs;
 	public List<CFG> dstCFGs;
 
+	/** True if the CFG node mappings and edge changes have been computed. **/
+	public boolean cfgChangesComputed;
+
+	/**
+	 * Artifacts derived from the ASTs or CFGs (e.g., scope trees) which are
+	 * built by the first analysis that needs them and shared by all the
+	 * analyses run on this context. Artifacts are keyed by their type and by
+	 * the scripts they were built from, so an artifact built from the source
+	 * script is never used for the destination script.
+	 */
+	private Map<ArtifactKey, Object> sharedArtifacts;
+
+	/**
+	 * Creates a context that does not (yet) contain CFGs.
+	 * @param srcScript The root node for the class or script.
+	 * @param dstScript The root node for the class or script.
+	 */
+	public CFDContext(ClassifiedASTNode srcScript, ClassifiedASTNode dstScript) {
+		this(srcScript, dstScript, null, null);
+	}
+
 	/**
 	 * @param srcScript The root node for the class or script.
 	 * @param dstScript The root node for the class or script.
@@ -26,6 +49,61 @@ public class CFDContext {
 		this.dstScript = dstScript;
 		this.srcCFGs = srcCFGs;
 		this.dstCFGs = dstCFGs;
+		this.cfgChangesComputed = false;
+		this.sharedArtifacts = new HashMap<ArtifactKey, Object>();
+	}
+
+	/**
+	 * @param type The type of the shared artifact.
+	 * @param roots The scripts the artifact was built from.
+	 * @return the shared artifact, or null if it has not been built.
+	 */
+	public <A> A getSharedArtifact(Class<A> type, ClassifiedASTNode... roots) {
+		return type.cast(this.sharedArtifacts.get(new ArtifactKey(type, roots)));
+	}
+
+	/**
+	 * Stores an artifact so that it can be used by other analyses.
+	 * @param type The type of the shared artifact.
+	 * @param artifact The shared artifact.
+	 * @param roots The scripts the artifact was built from.
+	 */
+	public <A> void putSharedArtifact(Class<A> type, A artifact, ClassifiedASTNode... roots) {
+		this.sharedArtifacts.put(new ArtifactKey(type, roots), artifact);
+	}
+
+	/**
+	 * Identifies a shared artifact by its type and the scripts it was built
+	 * from. Scripts are compared by identity.
+	 */
+	private static class ArtifactKey {
+
+		private Class<?> type;
+		private ClassifiedASTNode[] roots;
+
+		public ArtifactKey(Class<?> type, ClassifiedASTNode[] roots) {
+			this.type = type;
+			this.roots = roots;
+		}
+
+		@Override
+		public boolean equals(Object o) {
+			if(!(o instanceof ArtifactKey)) return false;
+			ArtifactKey key = (ArtifactKey) o;
+			if(this.type != key.type || this.roots.length != key.roots.length) return false;
+			for(int i = 0; i < this.roots.length; i++) {
+				if(this.roots[i] != key.roots[i]) return false;
+			}
+			return true;
+		}
+
+		@Override
+		public int hashCode() {
+			int hash = this.type.hashCode();
+			for(ClassifiedASTNode root : this.roots) hash = 31 * hash + System.identityHashCode(root);
+			return hash;
+		}
+
 	}
 
 }
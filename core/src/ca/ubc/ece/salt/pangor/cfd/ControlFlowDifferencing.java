@@ -3,6 +3,7 @@ package ca.ubc.ece.salt.pangor.cfd;
 import java.io.File;
 import java.io.IOException;
 import java.io.InvalidClassException;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -13,6 +14,7 @@ import org.kohsuke.args4j.CmdLineParser;
 import ca.ubc.ece.salt.gumtree.ast.ASTClassifier;
 import ca.ubc.ece.salt.gumtree.ast.ClassifiedASTNode;
 import ca.ubc.ece.salt.pangor.analysis.Analysis;
+import ca.ubc.ece.salt.pangor.analysis.AnalysisArtifact;
 import ca.ubc.ece.salt.pangor.cfg.CFG;
 import ca.ubc.ece.salt.pangor.cfg.CFGFactory;
 import ca.ubc.ece.salt.pangor.cfg.diff.CFGDifferencing;
@@ -34,6 +36,9 @@ public class ControlFlowDifferencing {
 	/** Stores the CFG and AST for analysis. **/
 	private CFDContext context;
 
+	/** Builds the CFGs when an analysis requires them. **/
+	private CFGFactory cfgFactory;
+
 	/**
 	 * Creates the analysis context by control flow differencing the source
 	 * and destination files (provided as a string).
@@ -58,11 +63,26 @@ public class ControlFlowDifferencing {
 	 */
 	public ControlFlowDifferencing(CFGFactory cfgFactory, String[] args, String srcSourceCode, String dstSourceCode) throws Exception {
 
-		/* Get the analysis options. */
-		DiffOptions options = ControlFlowDifferencing.getAnalysisOptions(args);
+		this(cfgFactory, ControlFlowDifferencing.getAnalysisOptions(args), srcSourceCode, dstSourceCode);
 
-		/* Set up the analysis context. */
-		this.context =  ControlFlowDifferencing.setup(cfgFactory, options, srcSourceCode, dstSourceCode);
+	}
+
+	/**
+	 * Creates the analysis context by control flow differencing the source
+	 * and destination files (provided as a string).
+	 * @param cfgFactory The factory class that builds the CFGs.
+	 * @param options The analysis/differencing options. The options are only
+	 * 				  read, so one instance can be shared by many files.
+	 * @param srcSourceCode The source file as a string.
+	 * @param dstSourceCode The destination file as a string.
+	 * @throws Exception thrown when a problem occurs during control flow differencing.
+	 */
+	public ControlFlowDifferencing(CFGFactory cfgFactory, DiffOptions options, String srcSourceCode, String dstSourceCode) throws Exception {
+
+		/* Set up the analysis context. The CFGs are built lazily, when an
+		 * analysis that requires them is run. */
+		this.cfgFactory = cfgFactory;
+		this.context =  ControlFlowDifferencing.setup(cfgFactory, options, srcSourceCode, dstSourceCode, AnalysisArtifact.AST);
 
 	}
 
@@ -73,9 +93,35 @@ public class ControlFlowDifferencing {
 	 * @throws Exception
 	 */
 	public void analyze(Analysis<?, ?> analysis) throws Exception {
+		this.analyze(Collections.singletonList(analysis));
+	}
+
+	/**
+	 * Perform several control flow differencing analyses on the same
+	 * context. The CFGs and any artifacts the analyses share (e.g., scope
+	 * trees and AST traversals) are built once for all the analyses.
+	 * @param analyses The analyses to run.
+	 * @throws Exception
+	 */
+	public void analyze(List<? extends Analysis<?, ?>> analyses) throws Exception {
+
+		/* Build the artifacts needed by all the analyses up front. */
+		AnalysisArtifact artifact = AnalysisArtifact.AST;
+		for(Analysis<?, ?> analysis : analyses) {
+			if(!artifact.includes(analysis.getRequiredArtifact())) artifact = analysis.getRequiredArtifact();
+		}
+		ControlFlowDifferencing.build(this.cfgFactory, this.context, artifact);
+
+		/* Give every analysis the context before any of them runs, so the
+		 * work they register (e.g., AST visitors) is shared by all of them. */
+		for(Analysis<?, ?> analysis : analyses) {
+			analysis.setContext(this.context);
+		}
 
-		/* Perform the analysis. */
-        analysis.analyze(this.context.srcScript, this.context.srcCFGs, this.context.dstScript, this.context.dstCFGs);
+		/* Perform the analyses. */
+		for(Analysis<?, ?> analysis : analyses) {
+			analysis.analyze(this.context.srcScript, this.context.srcCFGs, this.context.dstScript, this.context.dstCFGs);
+		}
 
 	}
 
@@ -112,6 +158,19 @@ public class ControlFlowDifferencing {
 	 * @throws Exception
 	 */
 	public static CFDContext setup(CFGFactory cfgFactory, DiffOptions options, String srcSourceCode, String dstSourceCode) throws Exception {
+		return setup(cfgFactory, options, srcSourceCode, dstSourceCode, AnalysisArtifact.CFG_CHANGES);
+	}
+
+	/**
+	 * Compute the AST changes and the control flow artifacts up to
+	 * {@code artifact}.
+	 * @param options The command line analysis options.
+	 * @param artifact The artifacts to build. Any artifacts that are not built
+	 * 				   here can be built later with {@code build}.
+	 * @return The context for a control flow differencing analysis.
+	 * @throws Exception
+	 */
+	public static CFDContext setup(CFGFactory cfgFactory, DiffOptions options, String srcSourceCode, String dstSourceCode, AnalysisArtifact artifact) throws Exception {
 
         /* Create the abstract GumTree representations of the ASTs. */
         Tree src = null;
@@ -127,17 +186,38 @@ public class ControlFlowDifferencing {
         /* Apply change classifications to nodes in the GumTrees. */
         ControlFlowDifferencing.classifyTreeNodes(src, dst, matcher);
 
+		/* Create the set up results (the context for a CFD analysis) */
+		ClassifiedASTNode srcRoot = src.getClassifiedASTNode();
+		ClassifiedASTNode dstRoot = dst.getClassifiedASTNode();
+		CFDContext context = new CFDContext(srcRoot, dstRoot);
+
+		/* Build the CFGs and CFG changes if they are needed. */
+		ControlFlowDifferencing.build(cfgFactory, context, artifact);
+
+		return context;
+
+	}
+
+	/**
+	 * Builds the control flow artifacts up to {@code artifact} that have not
+	 * already been built for the context.
+	 * @param cfgFactory The factory class that builds the CFGs.
+	 * @param context The context for a control flow differencing analysis.
+	 * @param artifact The artifacts that need to be available.
+	 */
+	public static void build(CFGFactory cfgFactory, CFDContext context, AnalysisArtifact artifact) {
+
 		/* Create the CFGs. */
-		List<CFG> srcCFGs = cfgFactory.createCFGs(src.getClassifiedASTNode());
-		List<CFG> dstCFGs = cfgFactory.createCFGs(dst.getClassifiedASTNode());
+		if(artifact.includes(AnalysisArtifact.CFG) && context.srcCFGs == null) {
+			context.srcCFGs = cfgFactory.createCFGs(context.srcScript);
+			context.dstCFGs = cfgFactory.createCFGs(context.dstScript);
+		}
 
 		/* Compute changes to CFG elements (nodes, edges and edge labels). */
-		ControlFlowDifferencing.computeCFGChanges(srcCFGs, dstCFGs);
-
-		/* Return the set up results (the context for a CFD analysis) */
-		ClassifiedASTNode srcRoot = src.getClassifiedASTNode();
-		ClassifiedASTNode dstRoot = dst.getClassifiedASTNode();
-		return new CFDContext(srcRoot, dstRoot, srcCFGs, dstCFGs);
+		if(artifact.includes(AnalysisArtifact.CFG_CHANGES) && !context.cfgChangesComputed) {
+			ControlFlowDifferencing.computeCFGChanges(context.srcCFGs, context.dstCFGs);
+			context.cfgChangesComputed = true;
+		}
 
 	}
 
@@ -19,6 +19,10 @@ public abstract class ClassifierAlert extends Alert {
 	/** The alert subtype. **/
 	protected String subtype;
 
+	/** Identifies duplicate alerts. Created when it is first needed, because
+	 * the description depends on the subclass' fields. **/
+	private volatile Key key;
+
 	/**
 	 * An alert is always associated a concrete Checker.
 	 * @param checker The checker which generated the alert.
@@ -39,7 +43,7 @@ public abstract class ClassifierAlert extends Alert {
 	 * @param subtype A checker may detect more than one repair subtype.
 	 * @param id The unique id for the alert.
 	 */
-	public ClassifierAlert(AnalysisMetaInformation ami, String functionName, String type, String subtype, int id) {
+	public ClassifierAlert(AnalysisMetaInformation ami, String functionName, String type, String subtype, long id) {
 		super(ami, functionName, id);
 		this.type = type;
 		this.subtype = subtype;
@@ -116,11 +120,31 @@ public abstract class ClassifierAlert extends Alert {
 	 */
 	protected abstract String getAlertExplanation();
 
+	/**
+	 * Two alerts with the same key are duplicates (i.e., they describe the
+	 * same repair in the same function of the same commit).
+	 * @return The key that identifies duplicate alerts.
+	 */
+	public Key getKey() {
+		Key key = this.key;
+		if(key == null) {
+			key = new Key(this);
+			this.key = key;
+		}
+		return key;
+	}
+
+	/**
+	 * Two alerts are equal if they have the same key. The key's description
+	 * contains the fields of the subclasses, so subclasses do not need to
+	 * refine this.
+	 */
 	@Override
 	public boolean equals(Object o) {
+		if(this == o) return true;
 		if(o instanceof ClassifierAlert) {
 			ClassifierAlert a = (ClassifierAlert) o;
-			return this.type.equals(a.type) && this.subtype.equals(a.subtype);
+			return this.getKey().equals(a.getKey());
 		}
 		return false;
 	}
@@ -132,7 +156,80 @@ public abstract class ClassifierAlert extends Alert {
 
 	@Override
 	public int hashCode() {
-		return this.getLongDescription().hashCode();
+		return this.getKey().hashCode();
+	}
+
+	/**
+	 * The attributes that identify duplicate alerts: the project, commit
+	 * pair, files, function, type, subtype and description. The hash code is
+	 * computed once.
+	 */
+	public static final class Key {
+
+		private final String projectID;
+		private final String buggyCommitID;
+		private final String repairedCommitID;
+		private final String buggyFile;
+		private final String repairedFile;
+		private final String functionName;
+		private final String type;
+		private final String subtype;
+		private final String description;
+		private final int hash;
+
+		private Key(ClassifierAlert alert) {
+			this.projectID = alert.ami.projectID;
+			this.buggyCommitID = alert.ami.buggyCommitID;
+			this.repairedCommitID = alert.ami.repairedCommitID;
+			this.buggyFile = alert.ami.buggyFile;
+			this.repairedFile = alert.ami.repairedFile;
+			this.functionName = alert.functionName;
+			this.type = alert.type;
+			this.subtype = alert.subtype;
+			this.description = alert.getLongDescription();
+
+			int hash = hash(this.projectID);
+			hash = 31 * hash + hash(this.buggyCommitID);
+			hash = 31 * hash + hash(this.repairedCommitID);
+			hash = 31 * hash + hash(this.buggyFile);
+			hash = 31 * hash + hash(this.repairedFile);
+			hash = 31 * hash + hash(this.functionName);
+			hash = 31 * hash + hash(this.type);
+			hash = 31 * hash + hash(this.subtype);
+			hash = 31 * hash + hash(this.description);
+			this.hash = hash;
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if(this == obj) return true;
+			if(!(obj instanceof Key)) return false;
+			Key that = (Key) obj;
+			return this.hash == that.hash
+					&& equals(this.repairedCommitID, that.repairedCommitID)
+					&& equals(this.description, that.description)
+					&& equals(this.functionName, that.functionName)
+					&& equals(this.repairedFile, that.repairedFile)
+					&& equals(this.buggyFile, that.buggyFile)
+					&& equals(this.buggyCommitID, that.buggyCommitID)
+					&& equals(this.projectID, that.projectID)
+					&& equals(this.type, that.type)
+					&& equals(this.subtype, that.subtype);
+		}
+
+		@Override
+		public int hashCode() {
+			return this.hash;
+		}
+
+		private static int hash(String s) {
+			return s == null ? 0 : s.hashCode();
+		}
+
+		private static boolean equals(String a, String b) {
+			return a == null ? b == null : a.equals(b);
+		}
+
 	}
 
 }
@@ -0,0 +1,57 @@
+package ca.ubc.ece.salt.pangor.git;
+
+import java.io.BufferedReader;
+import java.io.FileReader;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Gets the number of stargazers from a CSV file instead of the GitHub API
+ * (e.g., for offline runs and testing).
+ *
+ * Each line of the file has a repository and its number of stargazers (e.g.,
+ * karma-runner/karma,7000). Lines starting with # are ignored.
+ */
+public class FileStargazerProvider implements StargazerProvider {
+
+	/** The number of stargazers of each repository in the file. **/
+	private Map<String, Integer> stargazers;
+
+	/**
+	 * @param filePath The path to the CSV file.
+	 * @throws IOException if the file cannot be read.
+	 */
+	public FileStargazerProvider(String filePath) throws IOException {
+		this.stargazers = new HashMap<String, Integer>();
+
+		try (BufferedReader br = new BufferedReader(new FileReader(filePath))) {
+			for (String line; (line = br.readLine()) != null; ) {
+				if (line.isEmpty() || line.charAt(0) == '#')
+					continue;
+
+				String[] tokens = line.split(",");
+				if (tokens.length < 2)
+					throw new IOException("Malformed stargazers line: " + line);
+
+				try {
+					this.stargazers.put(tokens[0].trim(), Integer.parseInt(tokens[1].trim()));
+				} catch (NumberFormatException e) {
+					throw new IOException("Malformed stargazers line: " + line);
+				}
+			}
+		}
+	}
+
+	@Override
+	public int getStargazers(String repository) {
+		Integer count = this.stargazers.get(repository);
+		return count == null ? -1 : count;
+	}
+
+	@Override
+	public boolean isRemote() {
+		return false;
+	}
+
+}
@@ -0,0 +1,28 @@
+package ca.ubc.ece.salt.pangor.git;
+
+import java.io.IOException;
+
+import org.kohsuke.github.GHRepository;
+import org.kohsuke.github.GitHub;
+
+/**
+ * Gets the number of stargazers from the GitHub API. The connection is
+ * anonymous, so the API is rate limited.
+ */
+public class GitHubStargazerProvider implements StargazerProvider {
+
+	/** The connection to GitHub, opened on the first request. **/
+	private GitHub github;
+
+	@Override
+	public int getStargazers(String repository) throws IOException {
+		GHRepository ghRepository = this.getGitHub().getRepository(repository);
+		return ghRepository.getWatchers();
+	}
+
+	private synchronized GitHub getGitHub() throws IOException {
+		if(this.github == null) this.github = GitHub.connectAnonymously();
+		return this.github;
+	}
+
+}
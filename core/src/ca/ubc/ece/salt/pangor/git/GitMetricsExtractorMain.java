@@ -2,8 +2,12 @@ package ca.ubc.ece.salt.pangor.git;
 
 import java.io.BufferedReader;
 import java.io.FileReader;
-import java.util.LinkedList;
+import java.io.IOException;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
 
 import org.eclipse.jgit.api.errors.GitAPIException;
 import org.eclipse.jgit.api.errors.InvalidRemoteException;
@@ -26,8 +30,7 @@ public class GitMetricsExtractorMain {
 	/** The directory where repositories are checked out. **/
 	public static final String CHECKOUT_DIR = new String("repositories");
 
-	public static void main(String[] args)
-			throws InvalidRemoteException, TransportException, GitProjectAnalysisException, GitAPIException {
+	public static void main(String[] args) {
 		GitMetricsExtractorOptions options = new GitMetricsExtractorOptions();
 		CmdLineParser parser = new CmdLineParser(options);
 
@@ -47,44 +50,103 @@ public class GitMetricsExtractorMain {
 		/* Get the input list */
 		List<String> lines = parseInputFile(options.getInputPath());
 
+		/* Get the stargazers from the cache, a file or the GitHub API. */
+		StargazerProvider stargazerProvider;
+		StargazerCache stargazerCache;
+		try {
+			if (options.getStargazersPath() != null)
+				stargazerProvider = new FileStargazerProvider(options.getStargazersPath());
+			else if (options.getOffline())
+				stargazerProvider = repository -> -1;
+			else
+				stargazerProvider = new GitHubStargazerProvider();
+
+			stargazerCache = new StargazerCache(options.getStargazersCachePath(),
+					TimeUnit.HOURS.toMillis(options.getStargazersTimeToLive()));
+		} catch (IOException e) {
+			System.err.println("Error while reading stargazers: " + e.getMessage());
+			return;
+		}
+
 		/*
-		 * Iterate over them and get statistics
+		 * Get the statistics of the repositories in parallel. The GitHub API
+		 * lookups have their own (smaller) limit.
 		 */
-		GitMetricsExtractorOutput metricsOutput = new GitMetricsExtractorOutput(options.getOutputPath());
+		GitMetricsExtractorOutput metricsOutput = new GitMetricsExtractorOutput(options.getOutputPath(),
+				!options.getUnordered());
+		StargazerLookup stargazerLookup = new StargazerLookup(options.getNStargazerThreads(), stargazerProvider,
+				stargazerCache);
+		ExecutorService executor = Executors.newFixedThreadPool(options.getNThreads());
+
+		for (int i = 0; i < lines.size(); i++) {
+			int index = i;
+			String line = lines.get(i);
+
+			executor.submit(() -> {
+				try {
+					GitProject project = getProject(line);
+					project.setBugFixingPattern(options.getBugFixingPattern());
+
+					System.out.println("* Accessing repository: " + project.getURI());
+
+					/* Get the stargazers and write metrics to output file */
+					stargazerLookup.lookup(project);
+					metricsOutput.output(index, project);
+				} catch (Exception e) {
+					System.err.println("Error while accessing repository " + line + ": " + e.getMessage());
+					metricsOutput.skip(index);
+				}
+			});
+		}
+
+		/* Wait for all repositories to finish */
+		executor.shutdown();
+		try {
+			executor.awaitTermination(Long.MAX_VALUE, TimeUnit.MILLISECONDS);
+		} catch (InterruptedException e) {
+			e.printStackTrace();
+		}
+
+		/* Close stream */
+		metricsOutput.closeStream();
 
-		for (String line : lines) {
-			GitProject project;
+		/* Keep the stargazers for the next run */
+		try {
+			stargazerCache.save();
+		} catch (IOException e) {
+			System.err.println("Error while writing stargazers cache: " + e.getMessage());
+		}
 
-			/*
-			 * If line has a ",", this is a module csv file with the number of
-			 * downloads over the last month
-			 */
-			if (line.contains(",")) {
-				String uri = line.split(",")[0];
-				Integer downloadsLastMonth = Integer.parseInt(line.split(",")[1]);
+	}
 
-				project = GitProject.fromURI(uri, CHECKOUT_DIR);
-				project.setDownloadsLastMonth(downloadsLastMonth);
-			} else {
-				project = GitProject.fromURI(line, CHECKOUT_DIR);
-			}
+	/**
+	 * Clones or pulls the repository on a line of the input file.
+	 *
+	 * If line has a ",", this is a module csv file with the number of
+	 * downloads over the last month
+	 */
+	private static GitProject getProject(String line)
+			throws InvalidRemoteException, TransportException, GitProjectAnalysisException, GitAPIException {
+		GitProject project;
 
-			System.out.println("* Accessing repository: " + project.getURI());
+		if (line.contains(",")) {
+			String uri = line.split(",")[0];
+			Integer downloadsLastMonth = Integer.parseInt(line.split(",")[1]);
 
-			/* Get and write metrics to output file */
-			metricsOutput.output(project);
+			project = GitProject.fromURI(uri, CHECKOUT_DIR);
+			project.setDownloadsLastMonth(downloadsLastMonth);
+		} else {
+			project = GitProject.fromURI(line, CHECKOUT_DIR);
 		}
 
-		/* Close stream */
-		metricsOutput.closeStream();
-
+		return project;
 	}
 
 	/**
 	 * Takes a text file path and return its lines on a List<String>
 	 */
 	private static List<String> parseInputFile(String filePath) {
-		List<String> lines = new LinkedList<String>();
+		List<String> lines = new ArrayList<String>();
 
 		try (BufferedReader br = new BufferedReader(new FileReader(filePath))) {
 		    for(String line; (line = br.readLine()) != null; ) {
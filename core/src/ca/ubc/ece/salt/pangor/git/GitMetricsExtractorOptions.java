@@ -13,6 +13,30 @@ public class GitMetricsExtractorOptions {
 	@Option(name = "-o", aliases = { "--output" }, usage = "The output CSV file with the repository and the metrics.")
 	private String outputPath = "./input/repositories_metrics.csv";
 
+	@Option(name = "-bf", aliases = { "--bug-fix-pattern" }, usage = "The regular expression that identifies bug fixing commit messages (e.g., \"fix|repair\"). By default, all commits are analyzed.")
+	private String bugFixingPattern = GitProject.DEFAULT_BUG_FIXING_PATTERN;
+
+	@Option(name = "-tr", aliases = { "--threads" }, usage = "The number of repositories to analyze at the same time.")
+	private Integer nThreads = 6;
+
+	@Option(name = "-st", aliases = { "--stargazer-threads" }, usage = "The maximum number of concurrent GitHub API requests.")
+	private Integer nStargazerThreads = 2;
+
+	@Option(name = "-off", aliases = { "--offline" }, usage = "Do not use the GitHub API. Stargazers that are not cached are written as -1.")
+	private boolean offline = false;
+
+	@Option(name = "-sf", aliases = { "--stargazers-file" }, usage = "A CSV file of repositories and their stargazers (e.g., karma-runner/karma,7000) to use instead of the GitHub API.")
+	private String stargazersPath = null;
+
+	@Option(name = "-sc", aliases = { "--stargazers-cache" }, usage = "The file that caches the stargazers between runs.")
+	private String stargazersCachePath = "./input/stargazers_cache.csv";
+
+	@Option(name = "-ttl", aliases = { "--stargazers-ttl" }, usage = "The number of hours a cached number of stargazers is used before it is looked up again.")
+	private Integer stargazersTimeToLive = 24;
+
+	@Option(name = "-un", aliases = { "--unordered" }, usage = "Write the rows as soon as they are ready instead of in the order of the input file.")
+	private boolean unordered = false;
+
 	public boolean getHelp() {
 		return this.help;
 	}
@@ -24,4 +48,37 @@ public class GitMetricsExtractorOptions {
 	public String getOutputPath() {
 		return this.outputPath;
 	}
+
+	public String getBugFixingPattern() {
+		return this.bugFixingPattern;
+	}
+
+	public Integer getNThreads() {
+		return this.nThreads;
+	}
+
+	public Integer getNStargazerThreads() {
+		return this.nStargazerThreads;
+	}
+
+	public boolean getOffline() {
+		return this.offline;
+	}
+
+	public String getStargazersPath() {
+		return this.stargazersPath;
+	}
+
+	public String getStargazersCachePath() {
+		return this.stargazersCachePath;
+	}
+
+	public Integer getStargazersTimeToLive() {
+		return this.stargazersTimeToLive;
+	}
+
+	public boolean getUnordered() {
+		return this.unordered;
+	}
+
 }
\ No newline at end of file
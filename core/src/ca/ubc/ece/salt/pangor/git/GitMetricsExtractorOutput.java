@@ -4,16 +4,37 @@ import java.io.File;
 import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.PrintStream;
+import java.util.HashMap;
+import java.util.Map;
 
 /**
  * Output the metrics of GitProjects on a text file. File stream and header are
  * created on constructor, method output(GitProject) is used to append rows and
  * closeStream() finalize its execution
+ *
+ * Rows can be written by several threads. The ordered output writes rows in
+ * the order of their indexes (i.e., the order of the input file), while the
+ * unordered output writes rows as soon as they are ready.
  */
 public class GitMetricsExtractorOutput {
 	private PrintStream stream;
 
+	/** If true, rows are written in the order of their indexes. **/
+	private boolean ordered;
+
+	/** The index of the next row to write (ordered output only). **/
+	private int next = 0;
+
+	/** Rows that are waiting for an earlier row (ordered output only). null
+	 * marks a row that was skipped. **/
+	private Map<Integer, String> pending = new HashMap<Integer, String>();
+
 	public GitMetricsExtractorOutput(String filePath) {
+		this(filePath, true);
+	}
+
+	public GitMetricsExtractorOutput(String filePath, boolean ordered) {
+		this.ordered = ordered;
 
 		try {
 			/*
@@ -29,7 +50,61 @@ public class GitMetricsExtractorOutput {
 		}
 	}
 
-	public void output(GitProject gitProject) {
+	/**
+	 * Writes the metrics of the project as the next row.
+	 */
+	public synchronized void output(GitProject gitProject) {
+		stream.println(getRow(gitProject));
+	}
+
+	/**
+	 * Writes the metrics of the project as the row with the given index. The
+	 * metrics are computed before the output is locked, so other threads can
+	 * write their rows in the meantime.
+	 *
+	 * @param index The position of the project in the input (starting at 0).
+	 */
+	public void output(int index, GitProject gitProject) {
+		String row = getRow(gitProject);
+
+		synchronized (this) {
+			if (ordered)
+				write(index, row);
+			else
+				stream.println(row);
+		}
+	}
+
+	/**
+	 * Skips the row with the given index (e.g., because the repository could
+	 * not be accessed), so that the rows after it are not held back.
+	 *
+	 * @param index The position of the project in the input (starting at 0).
+	 */
+	public synchronized void skip(int index) {
+		if (ordered)
+			write(index, null);
+	}
+
+	public synchronized void closeStream() {
+		stream.close();
+	}
+
+	/**
+	 * Holds the row until the rows before it have been written.
+	 */
+	private void write(int index, String row) {
+		pending.put(index, row);
+
+		while (pending.containsKey(next)) {
+			String nextRow = pending.remove(next);
+			if (nextRow != null)
+				stream.println(nextRow);
+			next++;
+		}
+	}
+
+	private String getRow(GitProject gitProject) {
 		String name = gitProject.getName();
 		String URI = gitProject.getURI();
 		String totalCommits = gitProject.getTotalCommits().toString();
@@ -42,14 +117,8 @@ public class GitMetricsExtractorOutput {
 		String lastCommit = gitProject.getLastCommitDate().toString();
 		String firstCommit = gitProject.getFirstCommitDate().toString();
 
-		String row = String.join(",", name, URI, totalCommits, totalBugFixingCommits, numberAuthors, numberFiles,
+		return String.join(",", name, URI, totalCommits, totalBugFixingCommits, numberAuthors, numberFiles,
 				linesOfCode, stargazers, downloadsLastMonth, lastCommit, firstCommit);
-
-		stream.println(row);
-	}
-
-	public void closeStream() {
-		stream.close();
 	}
 
 	private void writeHeaders() {
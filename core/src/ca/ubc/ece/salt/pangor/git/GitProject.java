@@ -1,12 +1,10 @@
 package ca.ubc.ece.salt.pangor.git;
 
-import java.io.BufferedReader;
 import java.io.File;
 import java.io.IOException;
-import java.io.InputStreamReader;
+import java.util.ArrayList;
 import java.util.Date;
 import java.util.HashSet;
-import java.util.LinkedList;
 import java.util.List;
 import java.util.Set;
 import java.util.regex.Matcher;
@@ -22,13 +20,15 @@ import org.eclipse.jgit.api.PullResult;
 import org.eclipse.jgit.api.errors.GitAPIException;
 import org.eclipse.jgit.api.errors.InvalidRemoteException;
 import org.eclipse.jgit.api.errors.TransportException;
+import org.eclipse.jgit.lib.Constants;
+import org.eclipse.jgit.lib.ObjectId;
 import org.eclipse.jgit.lib.PersonIdent;
 import org.eclipse.jgit.lib.Repository;
 import org.eclipse.jgit.lib.RepositoryBuilder;
 import org.eclipse.jgit.lib.StoredConfig;
 import org.eclipse.jgit.revwalk.RevCommit;
-import org.kohsuke.github.GHRepository;
-import org.kohsuke.github.GitHub;
+import org.eclipse.jgit.revwalk.RevWalk;
+import org.eclipse.jgit.revwalk.filter.RevFilter;
 
 import ca.ubc.ece.salt.pangor.batch.GitProjectAnalysis;
 import ca.ubc.ece.salt.pangor.batch.GitProjectAnalysisException;
@@ -39,6 +39,12 @@ import ca.ubc.ece.salt.pangor.batch.GitProjectAnalysisException;
 public class GitProject {
 	protected final Logger logger = LogManager.getLogger(GitProject.class);
 
+	/** By default, every commit is considered a bug fixing commit. **/
+	public static final String DEFAULT_BUG_FIXING_PATTERN = ".*";
+
+	/** Looks up stargazers when the metrics extractor has not set them. **/
+	private static final StargazerProvider gitHubStargazerProvider = new GitHubStargazerProvider();
+
 	/** The Git instance. **/
 	protected Git git;
 
@@ -72,12 +78,18 @@ public class GitProject {
 	/** The number of downloads over the last month */
 	protected Integer downloadsLastMonth = -1;
 
-	/** The number of stargazers on GitHub */
-	protected Integer stargazers = -1;
+	/** The number of stargazers on GitHub (null if it has not been looked up) */
+	protected Integer stargazers;
 
 	/** Dates of last (most recent) and first commit */
 	protected Date lastCommitDate, firstCommitDate;
 
+	/** The (buggy, bug fixing) commit pairs. **/
+	protected List<Pair<ObjectId, ObjectId>> bugFixingCommitPairs;
+
+	/** Identifies bug fixing commits by their messages. **/
+	protected Pattern bugFixingPattern = Pattern.compile(DEFAULT_BUG_FIXING_PATTERN, Pattern.CASE_INSENSITIVE);
+
 	/**
 	 * Constructor that is used by our static factory methods.
 	 */
@@ -100,6 +112,7 @@ public class GitProject {
 	 */
 	protected GitProject(GitProject project) {
 		this(project.git, project.repository, project.URI);
+		this.bugFixingPattern = project.bugFixingPattern;
 	}
 
 	/*
@@ -114,36 +127,36 @@ public class GitProject {
 	}
 
 	public Integer getTotalCommits() {
-		if (this.totalCommits == null)
-			getBugFixingCommitPairs();
+		if (this.bugFixingCommitPairs == null)
+			scanCommits();
 
 		return this.totalCommits;
 	}
 
 	public Integer getBugFixingCommits() {
-		if (this.bugFixingCommits == null)
-			getBugFixingCommitPairs();
+		if (this.bugFixingCommitPairs == null)
+			scanCommits();
 
 		return this.bugFixingCommits;
 	}
 
 	public Integer getNumberAuthors() {
-		if (this.numberAuthors == null)
-			getBugFixingCommitPairs();
+		if (this.bugFixingCommitPairs == null)
+			scanCommits();
 
 		return this.numberAuthors;
 	}
 
 	public Date getLastCommitDate() {
-		if (this.lastCommitDate == null)
-			getBugFixingCommitPairs();
+		if (this.bugFixingCommitPairs == null)
+			scanCommits();
 
 		return this.lastCommitDate;
 	}
 
 	public Date getFirstCommitDate() {
-		if (this.firstCommitDate == null)
-			getBugFixingCommitPairs();
+		if (this.bugFixingCommitPairs == null)
+			scanCommits();
 
 		return this.firstCommitDate;
 	}
@@ -163,6 +176,17 @@ public class GitProject {
 		return numberOfLines;
 	}
 
+	/**
+	 * Sets the regular expression that identifies bug fixing commits. The
+	 * expression is case insensitive and only needs to match part of the
+	 * commit message.
+	 * @param regex The regular expression (e.g., "fix|repair").
+	 */
+	public void setBugFixingPattern(String regex) {
+		this.bugFixingPattern = Pattern.compile(regex, Pattern.CASE_INSENSITIVE);
+		this.bugFixingCommitPairs = null;
+	}
+
 	public Integer getDownloadsLastMonth() {
 		return this.downloadsLastMonth;
 	}
@@ -173,59 +197,62 @@ public class GitProject {
 
 	public Integer getStargazers() {
 		// Not a github project
-		if (!this.URI.contains("github.com"))
+		String repository = getGitHubRepository();
+		if (repository == null)
 			return -1;
 
 		// Value not cached
-		if (this.stargazers == -1) {
+		if (this.stargazers == null) {
 
 			try {
-				GitHub github = GitHub.connectAnonymously();
-
-				// Really dirty way of getting username/reponame from URI
-				GHRepository repository = github.getRepository(this.URI.split("github\\.com/")[1].split("\\.git")[0]);
-				this.stargazers = repository.getWatchers();
+				this.stargazers = gitHubStargazerProvider.getStargazers(repository);
 			} catch (IOException e) {
 				System.err.println("Error while accessing GitHub API: " + e.getMessage());
-				return -1;
+
+				/* Don't retry, the API is probably rate limited. */
+				this.stargazers = -1;
 			}
 		}
 
 		return this.stargazers;
 	}
 
+	public void setStargazers(Integer stargazers) {
+		this.stargazers = stargazers;
+	}
+
 	/**
-	 * Uses the command line tool "ohcount" to get the number of javascript
-	 * files and the number of javascript lines of code on the repository
+	 * @return The GitHub repository (e.g., karma-runner/karma), or null if
+	 *         this is not a GitHub project.
 	 */
-	protected void getFilesMetrics() {
-		Runtime runtime = Runtime.getRuntime();
-		Process process;
+	public String getGitHubRepository() {
+		if (!this.URI.contains("github.com/"))
+			return null;
 
-		String[] command = { "/bin/sh", "-c", "ohcount " + repository.getDirectory().getParent().toString()
-				+ " | grep javascript | tr -s ' ' | cut -d ' ' -f 2,3" };
+		// Really dirty way of getting username/reponame from URI
+		return this.URI.split("github\\.com/")[1].split("\\.git")[0];
+	}
 
+	/**
+	 * Counts the number of javascript files and the number of javascript
+	 * lines of code in the HEAD tree of the repository.
+	 */
+	protected void getFilesMetrics() {
 		try {
-			/* Check if ohcount is available */
-			process = runtime.exec("which ohcount");
-			process.waitFor();
-			if (process.exitValue() != 0)
-				throw new RuntimeException("Could not find ohcount command tool. Perphaphs not installed?");
-
-
-			/* Run command */
-			process = runtime.exec(command);
-			process.waitFor();
+			ObjectId tree = repository.resolve(Constants.HEAD + "^{tree}");
 
-			/* Get the output */
-			BufferedReader bufferedReader = new BufferedReader(new InputStreamReader(process.getInputStream()));
-			String[] output = bufferedReader.readLine().split(" ");
+			/* The repository does not have any commits. */
+			if (tree == null) {
+				this.numberOfFiles = 0;
+				this.numberOfLines = 0;
+				return;
+			}
 
-			this.numberOfFiles = Integer.parseInt(output[0]);
-			this.numberOfLines = Integer.parseInt(output[1]);
+			JavaScriptMetrics metrics = JavaScriptMetrics.count(repository, tree);
 
-			bufferedReader.close();
-		} catch (IOException | InterruptedException e) {
+			this.numberOfFiles = metrics.files;
+			this.numberOfLines = metrics.lines;
+		} catch (IOException e) {
 			e.printStackTrace();
 
 			this.numberOfFiles = 0;
@@ -235,17 +262,23 @@ public class GitProject {
 
 	/**
 	 * Extracts revision identifier pairs from bug fixing commits. The pair
-	 * includes the bug fixing commit and the previous (buggy) commit.
+	 * includes the previous (buggy) commit and the bug fixing commit.
 	 *
-	 * @param git The project git instance.
-	 * @param repository The project git repository.
-	 * @param buggyRevision The hash that identifies the buggy revision.
-	 * @param bugFixingRevision The hash that identifies the fixed revision.
-	 * @throws IOException
-	 * @throws GitAPIException
+	 * @return The (buggy, bug fixing) commit pairs.
 	 */
-	protected List<Pair<String, String>> getBugFixingCommitPairs() {
-		List<Pair<String, String>> bugFixingCommits = new LinkedList<Pair<String, String>>();
+	protected List<Pair<ObjectId, ObjectId>> getBugFixingCommitPairs() {
+		if (this.bugFixingCommitPairs == null)
+			scanCommits();
+
+		return this.bugFixingCommitPairs;
+	}
+
+	/**
+	 * Walks the commit history once to find the bug fixing commit pairs and
+	 * compute the commit metrics (number of commits, authors, etc.).
+	 */
+	protected void scanCommits() {
+		List<Pair<ObjectId, ObjectId>> bugFixingCommits = new ArrayList<Pair<ObjectId, ObjectId>>();
 		int bugFixingCommitCounter = 0, commitCounter = 0;
 
 		Set<String> authorsEmails = new HashSet<>();
@@ -253,55 +286,58 @@ public class GitProject {
 		Date lastCommitDate = null;
 		Date firstCommitDate = null;
 
-		/*
-		 * Call git log command
-		 */
-		Iterable<RevCommit> commits;
+		/* The message filter is reused for every commit. */
+		RevFilter bugFixingFilter = new MessagePatternFilter(this.bugFixingPattern);
+
+		RevWalk walk = new RevWalk(this.repository);
 		try {
-			commits = git.log().call();
-		} catch (GitAPIException e) {
-			e.printStackTrace();
-			return bugFixingCommits;
-		}
+			ObjectId head = this.repository.resolve(Constants.HEAD);
 
-		/* Starts with the most recent commit and goes back in time. */
-		for (RevCommit commit : commits) {
-			/*
-			 * Add author to authors list
-			 */
-			PersonIdent authorIdent = commit.getAuthorIdent();
-			authorsEmails.add(authorIdent.getEmailAddress());
+			/* Starts with the most recent commit and goes back in time. */
+			if (head != null)
+				walk.markStart(walk.parseCommit(head));
 
-			String message = commit.getFullMessage();
-			/* TODO: Make this an option. */
-			Pattern p = Pattern.compile(/*"fix|repair"*/".*", Pattern.CASE_INSENSITIVE);
-			Matcher m = p.matcher(message);
-			commitCounter++;
+			for (RevCommit commit : walk) {
+				/*
+				 * Add author to authors list
+				 */
+				PersonIdent authorIdent = commit.getAuthorIdent();
+				authorsEmails.add(authorIdent.getEmailAddress());
 
-			/*
-			 * If the commit message contains one of our fix keywords, store it.
-			 */
-			if (m.find()) {
+				commitCounter++;
+
+				/*
+				 * If the commit message contains one of our fix keywords, store it.
+				 */
+				if (bugFixingFilter.include(walk, commit)) {
+
+					if(commit.getParentCount()  > 0) {
+						bugFixingCommits.add(Pair.of(commit.getParent(0).copy(), commit.copy()));
+						bugFixingCommitCounter++;
+					}
 
-				if(commit.getParentCount()  > 0) {
-					bugFixingCommits.add(Pair.of(commit.getParent(0).name(), commit.name()));
-					bugFixingCommitCounter++;
 				}
 
-			}
+				/*
+				 * First commit on iteration is most recent one (what we call "last")
+				 */
+				if (commitCounter == 1)
+					lastCommitDate = authorIdent.getWhen();
 
-			/*
-			 * First commit on iteration is most recent one (what we call "last")
-			 */
-			if (commitCounter == 1)
-				lastCommitDate = authorIdent.getWhen();
+				/*
+				 * Store the date of this commit. When iteration is over, we have
+				 * the date for first one
+				 */
+				firstCommitDate = authorIdent.getWhen();
 
-			/*
-			 * Store the date of this commit. When iteration is over, we have
-			 * the date for first one
-			 */
-			firstCommitDate = authorIdent.getWhen();
+				/* The message is no longer needed. */
+				commit.disposeBody();
 
+			}
+		} catch (IOException e) {
+			e.printStackTrace();
+		} finally {
+			walk.release();
 		}
 
 		/* Keep track of the number of commits and other metrics for reporting. */
@@ -310,10 +346,38 @@ public class GitProject {
 		this.numberAuthors = authorsEmails.size();
 		this.lastCommitDate = lastCommitDate;
 		this.firstCommitDate = firstCommitDate;
-
-		return bugFixingCommits;
+		this.bugFixingCommitPairs = bugFixingCommits;
 	}
 
+	/**
+	 * Includes commits whose messages match a regular expression.
+	 */
+	private static class MessagePatternFilter extends RevFilter {
+
+		private final Pattern pattern;
+		private final Matcher matcher;
+
+		public MessagePatternFilter(Pattern pattern) {
+			this.pattern = pattern;
+			this.matcher = pattern.matcher("");
+		}
+
+		@Override
+		public boolean include(RevWalk walker, RevCommit commit) {
+			return this.matcher.reset(commit.getFullMessage()).find();
+		}
+
+		@Override
+		public boolean requiresCommitBody() {
+			return true;
+		}
+
+		@Override
+		public RevFilter clone() {
+			return new MessagePatternFilter(this.pattern);
+		}
+
+	}
 
 	/**
 	 * Extracts the git project name from the URI.
@@ -0,0 +1,206 @@
+package ca.ubc.ece.salt.pangor.git;
+
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.IntStream;
+
+import org.eclipse.jgit.lib.FileMode;
+import org.eclipse.jgit.lib.ObjectId;
+import org.eclipse.jgit.lib.ObjectReader;
+import org.eclipse.jgit.lib.Repository;
+import org.eclipse.jgit.treewalk.TreeWalk;
+import org.eclipse.jgit.treewalk.filter.PathSuffixFilter;
+
+/**
+ * Counts the JavaScript files and lines of code in a git tree.
+ *
+ * The files are read directly from the repository's object database, so the
+ * tree does not need to be checked out. A line of code is a line with at
+ * least one character that is not white space or part of a comment.
+ */
+public class JavaScriptMetrics {
+
+	/** The metrics of the trees that have already been counted. **/
+	private static final ConcurrentHashMap<ObjectId, JavaScriptMetrics> cache = new ConcurrentHashMap<ObjectId, JavaScriptMetrics>();
+
+	/** The number of JavaScript files. **/
+	public final int files;
+
+	/** The number of JavaScript lines of code. **/
+	public final int lines;
+
+	private JavaScriptMetrics(int files, int lines) {
+		this.files = files;
+		this.lines = lines;
+	}
+
+	/**
+	 * Counts the JavaScript files and lines of code in a tree. The results are
+	 * cached by tree id.
+	 * @param repository The repository that contains the tree.
+	 * @param tree The id of the tree (e.g., the tree of HEAD).
+	 * @return The number of files and lines of code in the tree.
+	 * @throws IOException if the tree or a file cannot be read.
+	 */
+	public static JavaScriptMetrics count(Repository repository, ObjectId tree) throws IOException {
+
+		JavaScriptMetrics metrics = cache.get(tree);
+		if(metrics != null) return metrics;
+
+		/* Find the JavaScript files. */
+		List<ObjectId> blobs = new ArrayList<ObjectId>();
+		TreeWalk treeWalk = new TreeWalk(repository);
+		try {
+			treeWalk.addTree(tree);
+			treeWalk.setRecursive(true);
+			treeWalk.setFilter(PathSuffixFilter.create(".js"));
+			while(treeWalk.next()) {
+				/* Skip submodules (gitlinks) and symbolic links. Their ids are
+				 * not JavaScript files in this repository. */
+				FileMode mode = treeWalk.getFileMode(0);
+				if(mode != FileMode.REGULAR_FILE && mode != FileMode.EXECUTABLE_FILE) continue;
+				blobs.add(treeWalk.getObjectId(0));
+			}
+		}
+		finally {
+			treeWalk.release();
+		}
+
+		/* Count the lines in parallel. Object readers are not thread safe, so
+		 * each worker reads its share of the files with its own reader. */
+		int workers = Math.max(1, Math.min(blobs.size(), Runtime.getRuntime().availableProcessors()));
+		int lines;
+		try {
+			lines = IntStream.range(0, workers).parallel().map(worker -> {
+				int count = 0;
+				ObjectReader reader = repository.newObjectReader();
+				try {
+					for(int i = worker; i < blobs.size(); i += workers) {
+						try(InputStream in = reader.open(blobs.get(i)).openStream()) {
+							count += countLines(in);
+						}
+					}
+				}
+				catch(IOException e) {
+					throw new UncheckedIOException(e);
+				}
+				finally {
+					reader.release();
+				}
+				return count;
+			}).sum();
+		}
+		catch(UncheckedIOException e) {
+			throw e.getCause();
+		}
+
+		metrics = new JavaScriptMetrics(blobs.size(), lines);
+		cache.put(tree.copy(), metrics);
+		return metrics;
+
+	}
+
+	/**
+	 * Counts the lines of code in a JavaScript file.
+	 * @param in The contents of the file.
+	 * @return The number of lines that contain code.
+	 * @throws IOException if the file cannot be read.
+	 */
+	public static int countLines(InputStream in) throws IOException {
+
+		InputStream stream = new BufferedInputStream(in);
+
+		int lines = 0;
+		boolean code = false;			// The current line contains code.
+		State state = State.CODE;
+		int quote = 0;					// The character that ends the string.
+		boolean slash = false;			// A slash that may start a comment.
+		boolean star = false;			// A star that may end a block comment.
+		boolean escape = false;			// The next string character is escaped.
+
+		for(int c = stream.read(); c != -1; c = stream.read()) {
+
+			/* A slash that does not start a comment is code. */
+			if(slash) {
+				slash = false;
+				if(c == '/') {
+					state = State.LINE_COMMENT;
+					continue;
+				}
+				if(c == '*') {
+					state = State.BLOCK_COMMENT;
+					star = false;
+					continue;
+				}
+				code = true;
+			}
+
+			if(c == '\n') {
+				if(code) lines++;
+				code = false;
+
+				/* Line comments end at the end of the line. Strings (except
+				 * template literals and escaped new lines) cannot contain new
+				 * lines. */
+				if(state == State.LINE_COMMENT
+						|| (state == State.STRING && quote != '`' && !escape)) {
+					state = State.CODE;
+				}
+				escape = false;
+				continue;
+			}
+
+			switch(state) {
+			case LINE_COMMENT:
+				break;
+			case BLOCK_COMMENT:
+				if(star && c == '/') state = State.CODE;
+				star = c == '*';
+				break;
+			case STRING:
+				if(!Character.isWhitespace(c)) code = true;
+				if(escape) escape = false;
+				else if(c == '\\') escape = true;
+				else if(c == quote) state = State.CODE;
+				break;
+			case CODE:
+			default:
+				if(c == '/') {
+					slash = true;
+				}
+				else if(c == '"' || c == '\'' || c == '`') {
+					state = State.STRING;
+					quote = c;
+					code = true;
+				}
+				else if(!Character.isWhitespace(c)) {
+					code = true;
+				}
+				break;
+			}
+
+		}
+
+		if(slash) code = true;
+		if(code) lines++;
+
+		return lines;
+
+	}
+
+	/**
+	 * The states of the line scanner.
+	 */
+	private enum State {
+		CODE,
+		STRING,
+		LINE_COMMENT,
+		BLOCK_COMMENT
+	}
+
+}
@@ -0,0 +1,130 @@
+package ca.ubc.ece.salt.pangor.git;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileReader;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * A persistent cache of the number of stargazers of GitHub repositories.
+ *
+ * The cache is stored in a CSV file with one repository per line (i.e.,
+ * repository,stargazers,fetched at). Entries that are older than the time to
+ * live are stale: they are only used when the provider does not know the
+ * number of stargazers (e.g., in offline runs). The cache is safe to use from
+ * multiple threads.
+ */
+public class StargazerCache {
+
+	/** The file that stores the cache. **/
+	private File file;
+
+	/** The number of milliseconds an entry is fresh. **/
+	private long timeToLive;
+
+	/** The cached entries, by repository. **/
+	private ConcurrentHashMap<String, Entry> entries;
+
+	/**
+	 * Loads the cache from a file. If the file does not exist, the cache is
+	 * empty.
+	 * @param filePath The path to the cache file.
+	 * @param timeToLive The number of milliseconds an entry is fresh.
+	 * @throws IOException if the file exists but cannot be read.
+	 */
+	public StargazerCache(String filePath, long timeToLive) throws IOException {
+		this.file = new File(filePath);
+		this.timeToLive = timeToLive;
+		this.entries = new ConcurrentHashMap<String, Entry>();
+
+		if (!this.file.exists())
+			return;
+
+		try (BufferedReader br = new BufferedReader(new FileReader(this.file))) {
+			for (String line; (line = br.readLine()) != null; ) {
+				String[] tokens = line.split(",");
+
+				/* Skip the header and any malformed lines. */
+				try {
+					this.entries.put(tokens[0], new Entry(Integer.parseInt(tokens[1]), Long.parseLong(tokens[2])));
+				} catch (NumberFormatException | ArrayIndexOutOfBoundsException e) {
+					continue;
+				}
+			}
+		}
+	}
+
+	/**
+	 * @param repository The GitHub repository (e.g., karma-runner/karma).
+	 * @return The cached entry, or null if the repository is not cached.
+	 */
+	public Entry get(String repository) {
+		return this.entries.get(repository);
+	}
+
+	/**
+	 * Caches the number of stargazers of a repository, fetched now.
+	 * @param repository The GitHub repository (e.g., karma-runner/karma).
+	 * @param stargazers The number of stargazers.
+	 */
+	public void put(String repository, int stargazers) {
+		this.entries.put(repository, new Entry(stargazers, System.currentTimeMillis()));
+	}
+
+	/**
+	 * @param entry A cached entry.
+	 * @return True if the entry is younger than the time to live.
+	 */
+	public boolean isFresh(Entry entry) {
+		return System.currentTimeMillis() - entry.fetchedAt < this.timeToLive;
+	}
+
+	/**
+	 * Writes the cache to its file. The file is replaced only once the new
+	 * cache is completely written.
+	 * @throws IOException if the file cannot be written.
+	 */
+	public void save() throws IOException {
+		File parent = this.file.getAbsoluteFile().getParentFile();
+		parent.mkdirs();
+
+		File temp = File.createTempFile("stargazers", ".csv", parent);
+		try (BufferedWriter writer = new BufferedWriter(new FileWriter(temp))) {
+			writer.write("Repository,Stargazers,FetchedAt");
+			writer.newLine();
+
+			for (Map.Entry<String, Entry> entry : new TreeMap<String, Entry>(this.entries).entrySet()) {
+				writer.write(entry.getKey() + "," + entry.getValue().stargazers + "," + entry.getValue().fetchedAt);
+				writer.newLine();
+			}
+		}
+
+		Files.move(temp.toPath(), this.file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+	}
+
+	/**
+	 * The cached metadata of a repository.
+	 */
+	public static class Entry {
+
+		/** The number of stargazers. **/
+		public final int stargazers;
+
+		/** When the number of stargazers was fetched (ms since the epoch). **/
+		public final long fetchedAt;
+
+		public Entry(int stargazers, long fetchedAt) {
+			this.stargazers = stargazers;
+			this.fetchedAt = fetchedAt;
+		}
+
+	}
+
+}
@@ -0,0 +1,84 @@
+package ca.ubc.ece.salt.pangor.git;
+
+import java.io.IOException;
+import java.util.concurrent.Semaphore;
+
+/**
+ * Looks up the number of stargazers of GitHub projects for the metrics
+ * extractor.
+ *
+ * The cache (if any) is consulted first. The provider is only used for
+ * repositories that are not cached or whose entries are stale, and only the
+ * results of remote providers are cached. Providers may be remote and rate
+ * limited (e.g., the GitHub API), so only a few provider lookups run at the
+ * same time, no matter how many repositories are being analyzed.
+ */
+public class StargazerLookup {
+
+	/** Limits the number of concurrent provider lookups. **/
+	private Semaphore permits;
+
+	/** Provides the stargazers that are not cached. **/
+	private StargazerProvider provider;
+
+	/** The persistent cache, or null if there is no cache. **/
+	private StargazerCache cache;
+
+	/**
+	 * @param maxLookups The maximum number of concurrent provider lookups.
+	 * @param provider Provides the stargazers that are not cached.
+	 * @param cache The persistent cache, or null if there is no cache.
+	 */
+	public StargazerLookup(int maxLookups, StargazerProvider provider, StargazerCache cache) {
+		this.permits = new Semaphore(Math.max(1, maxLookups), true);
+		this.provider = provider;
+		this.cache = cache;
+	}
+
+	/**
+	 * Looks up and stores the number of stargazers of the project. Blocks
+	 * while the maximum number of provider lookups are running.
+	 * @param project The project to look up.
+	 * @throws InterruptedException if the thread is interrupted while waiting.
+	 */
+	public void lookup(GitProject project) throws InterruptedException {
+
+		/* Not a github project. */
+		String repository = project.getGitHubRepository();
+		if(repository == null) {
+			project.setStargazers(-1);
+			return;
+		}
+
+		StargazerCache.Entry entry = this.cache == null ? null : this.cache.get(repository);
+		if(entry != null && this.cache.isFresh(entry)) {
+			project.setStargazers(entry.stargazers);
+			return;
+		}
+
+		int stargazers;
+		this.permits.acquire();
+		try {
+			stargazers = this.provider.getStargazers(repository);
+		}
+		catch(IOException e) {
+			System.err.println("Error while looking up stargazers: " + e.getMessage());
+			stargazers = -1;
+		}
+		finally {
+			this.permits.release();
+		}
+
+		if(stargazers >= 0) {
+			if(this.cache != null && this.provider.isRemote()) this.cache.put(repository, stargazers);
+		}
+		/* The provider does not know, so fall back to the stale entry. */
+		else if(entry != null) {
+			stargazers = entry.stargazers;
+		}
+
+		project.setStargazers(stargazers);
+
+	}
+
+}
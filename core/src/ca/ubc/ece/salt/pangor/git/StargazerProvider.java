@@ -0,0 +1,30 @@
+package ca.ubc.ece.salt.pangor.git;
+
+import java.io.IOException;
+
+/**
+ * Provides the number of stargazers of GitHub repositories.
+ *
+ * Classes that implement this interface may use the GitHub API or a local
+ * source (e.g., a file, for offline runs and testing).
+ */
+public interface StargazerProvider {
+
+	/**
+	 * @param repository The GitHub repository (e.g., karma-runner/karma).
+	 * @return The number of stargazers, or -1 if it is not known.
+	 * @throws IOException if the source of the metadata cannot be read.
+	 */
+	int getStargazers(String repository) throws IOException;
+
+	/**
+	 * Only the results of remote providers are cached. A local source can be
+	 * read again on every run, and its numbers may not be current.
+	 * @return True if the provider looks up the stargazers remotely (e.g.,
+	 * 		   with the GitHub API).
+	 */
+	default boolean isRemote() {
+		return true;
+	}
+
+}
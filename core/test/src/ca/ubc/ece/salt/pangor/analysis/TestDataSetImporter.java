@@ -0,0 +1,98 @@
+package ca.ubc.ece.salt.pangor.analysis;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * The test is in the importer's package so it can set the chunk size.
+ */
+public class TestDataSetImporter {
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	@Test
+	public void testRowsAcrossChunks() throws Exception {
+		List<String> rows = new ArrayList<String>();
+		for(int i = 0; i < 500; i++) rows.add(i + ",project,café_" + i);
+		File dataSet = write(String.join("\n", rows) + "\n");
+
+		/* The chunks are much smaller than the file and than some rows, so
+		 * rows (and multi-byte characters) cross the chunk size. */
+		for(int chunkSize : new int[] { 1, 7, 64, 1000, 1 << 20 }) {
+			assertEquals(rows, DataSetImporter.importRows(dataSet.getPath(), row -> row, chunkSize));
+		}
+	}
+
+	@Test
+	public void testLineEndings() throws Exception {
+		List<String> expected = Arrays.asList("1,a", "2,b", "3,c");
+
+		/* CRLF line endings. */
+		File dataSet = write("1,a\r\n2,b\r\n3,c\r\n");
+		assertEquals(expected, DataSetImporter.importRows(dataSet.getPath(), row -> row, 4));
+
+		/* No new line at the end of the file. */
+		dataSet = write("1,a\n2,b\n3,c");
+		assertEquals(expected, DataSetImporter.importRows(dataSet.getPath(), row -> row, 4));
+		assertEquals(expected, DataSetImporter.importRows(dataSet.getPath(), row -> row));
+	}
+
+	@Test
+	public void testEmptyFile() throws Exception {
+		File dataSet = write("");
+		assertEquals(Collections.emptyList(), DataSetImporter.importRows(dataSet.getPath(), row -> row, 4));
+		assertEquals(Collections.emptyList(), DataSetImporter.importRows(dataSet.getPath(), row -> row));
+	}
+
+	@Test
+	public void testFilteredRowsKeepOrder() throws Exception {
+		StringBuilder text = new StringBuilder();
+		List<Integer> expected = new ArrayList<Integer>();
+		for(int i = 0; i < 1000; i++) {
+			text.append(i).append('\n');
+			if(i % 3 != 0) expected.add(i);
+		}
+		File dataSet = write(text.toString());
+
+		/* Rows the parser returns null for are not imported. */
+		assertEquals(expected, DataSetImporter.importRows(dataSet.getPath(), row -> {
+			int i = Integer.parseInt(row);
+			return i % 3 == 0 ? null : i;
+		}, 16));
+	}
+
+	@Test
+	public void testWrittenRowsAreReadBack() throws Exception {
+		File dataSet = folder.newFile("dataset.csv");
+
+		/* Data sets are written the way the data set classes write them. */
+		List<String> rows = Arrays.asList("1,über,日本", "2,naïve");
+		for(String row : rows) {
+			try(PrintStream stream = new PrintStream(new FileOutputStream(dataSet, true), false, DataSetImporter.CHARSET.name())) {
+				stream.println(row);
+			}
+		}
+
+		assertEquals(rows, DataSetImporter.importRows(dataSet.getPath(), row -> row, 8));
+	}
+
+	private File write(String text) throws Exception {
+		File dataSet = folder.newFile();
+		Files.write(dataSet.toPath(), text.getBytes(DataSetImporter.CHARSET));
+		return dataSet;
+	}
+
+}
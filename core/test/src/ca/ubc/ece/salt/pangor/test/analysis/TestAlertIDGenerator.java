@@ -0,0 +1,106 @@
+package ca.ubc.ece.salt.pangor.test.analysis;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import ca.ubc.ece.salt.pangor.analysis.AlertIDGenerator;
+
+public class TestAlertIDGenerator {
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	@Test
+	public void testSequentialIDs() {
+		AlertIDGenerator generator = new AlertIDGenerator(0);
+		for(long expected = 1; expected <= 3000; expected++) {
+			assertEquals(expected, generator.nextID());
+		}
+	}
+
+	@Test
+	public void testUniqueIDsAcrossThreads() throws Exception {
+		AlertIDGenerator generator = new AlertIDGenerator(3);
+		int threads = 8;
+		int idsPerThread = 5000;
+
+		List<Callable<long[]>> tasks = new ArrayList<Callable<long[]>>();
+		for(int i = 0; i < threads; i++) {
+			tasks.add(() -> {
+				long[] ids = new long[idsPerThread];
+				for(int j = 0; j < ids.length; j++) ids[j] = generator.nextID();
+				return ids;
+			});
+		}
+
+		Set<Long> unique = new HashSet<Long>();
+		ExecutorService executor = Executors.newFixedThreadPool(threads);
+		try {
+			for(Future<long[]> future : executor.invokeAll(tasks)) {
+				for(long id : future.get()) {
+					unique.add(id);
+					assertEquals(3, AlertIDGenerator.getRunID(id));
+				}
+			}
+		}
+		finally {
+			executor.shutdown();
+		}
+
+		assertEquals(threads * idsPerThread, unique.size());
+	}
+
+	@Test
+	public void testGetRunID() {
+		for(int runID : new int[] { 0, 1, 2, 1000, AlertIDGenerator.MAX_RUN_ID }) {
+			long id = new AlertIDGenerator(runID).nextID();
+			assertEquals(runID, AlertIDGenerator.getRunID(id));
+		}
+	}
+
+	@Test
+	public void testGetNextRunID() throws Exception {
+		AlertIDGenerator generator = new AlertIDGenerator(1);
+
+		/* The last row is longer than the block that is read at a time. */
+		String keywords = new String(new char[20000]).replace('\0', '1');
+		File dataSet = folder.newFile("dataset.csv");
+		Files.write(dataSet.toPath(), Arrays.asList(
+				"1,0,project,homepage",
+				"2,0,project,homepage",
+				generator.nextID() + ",0,project,homepage",
+				generator.nextID() + ",0,project,homepage," + keywords),
+				StandardCharsets.UTF_8);
+		assertEquals(2, AlertIDGenerator.getNextRunID(dataSet.getPath()));
+	}
+
+	@Test
+	public void testGetNextRunIDWithoutRows() throws Exception {
+		assertEquals(0, AlertIDGenerator.getNextRunID(null));
+		assertEquals(0, AlertIDGenerator.getNextRunID(new File(folder.getRoot(), "missing.csv").getPath()));
+
+		File dataSet = folder.newFile("empty.csv");
+		assertEquals(0, AlertIDGenerator.getNextRunID(dataSet.getPath()));
+
+		/* Blank lines after the rows are skipped. */
+		Files.write(dataSet.toPath(), Arrays.asList("1,0,project,homepage", "", "\r"), StandardCharsets.UTF_8);
+		assertEquals(1, AlertIDGenerator.getNextRunID(dataSet.getPath()));
+	}
+
+}
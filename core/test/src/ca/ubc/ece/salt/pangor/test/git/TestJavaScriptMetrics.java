@@ -0,0 +1,116 @@
+package ca.ubc.ece.salt.pangor.test.git;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+import org.eclipse.jgit.lib.Constants;
+import org.eclipse.jgit.lib.FileMode;
+import org.eclipse.jgit.lib.ObjectId;
+import org.eclipse.jgit.lib.ObjectInserter;
+import org.eclipse.jgit.lib.Repository;
+import org.eclipse.jgit.lib.RepositoryBuilder;
+import org.eclipse.jgit.lib.TreeFormatter;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import ca.ubc.ece.salt.pangor.git.JavaScriptMetrics;
+
+public class TestJavaScriptMetrics {
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	@Test
+	public void testCountSkipsGitlinks() throws IOException {
+		Repository repository = new RepositoryBuilder().setGitDir(folder.newFolder("test.git")).build();
+		try {
+			repository.create(true);
+
+			ObjectInserter inserter = repository.newObjectInserter();
+			ObjectId tree;
+			try {
+				ObjectId blob = inserter.insert(Constants.OBJ_BLOB, Constants.encode("var a = 1;\nvar b = 2;\n"));
+
+				/* The submodule's commit is not in this repository. */
+				TreeFormatter formatter = new TreeFormatter();
+				formatter.append("index.js", FileMode.REGULAR_FILE, blob);
+				formatter.append("lib.js", FileMode.GITLINK,
+						ObjectId.fromString("0123456789012345678901234567890123456789"));
+				formatter.append("run.js", FileMode.EXECUTABLE_FILE, blob);
+				tree = inserter.insert(formatter);
+				inserter.flush();
+			}
+			finally {
+				inserter.release();
+			}
+
+			JavaScriptMetrics metrics = JavaScriptMetrics.count(repository, tree);
+			assertEquals(2, metrics.files);
+			assertEquals(4, metrics.lines);
+		}
+		finally {
+			repository.close();
+		}
+	}
+
+	@Test
+	public void testLineComments() throws IOException {
+		assertEquals(1, countLines(
+				"// comment\n" +
+				"var a = 1; // trailing comment\n" +
+				"  // indented comment\n"));
+	}
+
+	@Test
+	public void testBlockComments() throws IOException {
+		assertEquals(2, countLines(
+				"/* start\n" +
+				" * middle\n" +
+				" */\n" +
+				"var a = 1;\n" +
+				"var b /* inline */ = 2;\n" +
+				"/* a */ /* b */\n"));
+
+		/* Code before and after a block comment. */
+		assertEquals(2, countLines(
+				"x = 1; /* start\n" +
+				"end */ y = 2;\n"));
+	}
+
+	@Test
+	public void testCommentsInStrings() throws IOException {
+		assertEquals(3, countLines(
+				"var url = 'http://example.com';\n" +
+				"var s = \"/* not a comment\"; // comment\n" +
+				"var t = 'it\\'s // not a comment'; /* comment */\n"));
+	}
+
+	@Test
+	public void testCommentsInTemplateLiterals() throws IOException {
+		assertEquals(4, countLines(
+				"var t = `first\n" +
+				"// not a comment\n" +
+				"/* not a comment */\n" +
+				"last`; // comment\n"));
+	}
+
+	@Test
+	public void testBlankLines() throws IOException {
+		assertEquals(0, countLines(""));
+		assertEquals(2, countLines(
+				"\n" +
+				"  \t\n" +
+				"var a = b / c;\n" +
+				"\n" +
+				"var d;"));
+	}
+
+	private static int countLines(String source) throws IOException {
+		return JavaScriptMetrics.countLines(new ByteArrayInputStream(source.getBytes(StandardCharsets.UTF_8)));
+	}
+
+}
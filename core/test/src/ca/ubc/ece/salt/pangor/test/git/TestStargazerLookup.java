@@ -0,0 +1,125 @@
+package ca.ubc.ece.salt.pangor.test.git;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import ca.ubc.ece.salt.pangor.git.FileStargazerProvider;
+import ca.ubc.ece.salt.pangor.git.GitProject;
+import ca.ubc.ece.salt.pangor.git.StargazerCache;
+import ca.ubc.ece.salt.pangor.git.StargazerLookup;
+import ca.ubc.ece.salt.pangor.git.StargazerProvider;
+
+public class TestStargazerLookup {
+
+	private static final String REPOSITORY = "karma-runner/karma";
+
+	private static final long TIME_TO_LIVE = TimeUnit.DAYS.toMillis(1);
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	@Test
+	public void testCacheHit() throws Exception {
+		StargazerCache cache = createCache(REPOSITORY + ",100," + System.currentTimeMillis());
+		StargazerLookup lookup = new StargazerLookup(1, createProvider(REPOSITORY + ",200"), cache);
+
+		/* The fresh cached value is used instead of the provider's. */
+		GitProject project = createProject();
+		lookup.lookup(project);
+		assertEquals(Integer.valueOf(100), project.getStargazers());
+	}
+
+	@Test
+	public void testExpiredEntry() throws Exception {
+		StargazerCache cache = createCache(REPOSITORY + ",100,0");
+		StargazerProvider remote = repository -> 200;
+		StargazerLookup lookup = new StargazerLookup(1, remote, cache);
+
+		/* The stale entry is refreshed from the provider. */
+		GitProject project = createProject();
+		lookup.lookup(project);
+		assertEquals(Integer.valueOf(200), project.getStargazers());
+
+		StargazerCache.Entry entry = cache.get(REPOSITORY);
+		assertEquals(200, entry.stargazers);
+		assertTrue(cache.isFresh(entry));
+	}
+
+	@Test
+	public void testFileResultsAreNotCached() throws Exception {
+		StargazerCache cache = createCache(REPOSITORY + ",100,0");
+		StargazerLookup lookup = new StargazerLookup(1, createProvider(REPOSITORY + ",200"), cache);
+
+		/* The file's number is used, but it is not cached as a fresh entry. */
+		GitProject project = createProject();
+		lookup.lookup(project);
+		assertEquals(Integer.valueOf(200), project.getStargazers());
+		assertEquals(100, cache.get(REPOSITORY).stargazers);
+		assertEquals(0, cache.get(REPOSITORY).fetchedAt);
+	}
+
+	@Test
+	public void testSaveAndReload() throws Exception {
+		StargazerCache cache = createCache(REPOSITORY + ",100,0");
+		cache.put("angular/angular.js", 300);
+		long fetchedAt = cache.get("angular/angular.js").fetchedAt;
+		cache.save();
+
+		StargazerCache reloaded = new StargazerCache(new File(folder.getRoot(), "cache.csv").getPath(), TIME_TO_LIVE);
+		assertEquals(100, reloaded.get(REPOSITORY).stargazers);
+		assertEquals(0, reloaded.get(REPOSITORY).fetchedAt);
+		assertEquals(300, reloaded.get("angular/angular.js").stargazers);
+		assertEquals(fetchedAt, reloaded.get("angular/angular.js").fetchedAt);
+
+		/* The header is not read as an entry. */
+		assertNull(reloaded.get("Repository"));
+	}
+
+	@Test
+	public void testStaleFallback() throws Exception {
+		StargazerCache cache = createCache(REPOSITORY + ",100,0");
+
+		/* The provider does not know the repository. */
+		GitProject project = createProject();
+		new StargazerLookup(1, createProvider("angular/angular.js,300"), cache).lookup(project);
+		assertEquals(Integer.valueOf(100), project.getStargazers());
+
+		/* The provider fails. */
+		StargazerProvider failing = repository -> { throw new IOException("rate limited"); };
+		project = createProject();
+		new StargazerLookup(1, failing, cache).lookup(project);
+		assertEquals(Integer.valueOf(100), project.getStargazers());
+
+		/* The stale entry is kept. */
+		assertEquals(0, cache.get(REPOSITORY).fetchedAt);
+	}
+
+	private StargazerCache createCache(String entry) throws IOException {
+		File file = folder.newFile("cache.csv");
+		Files.write(file.toPath(), Arrays.asList("Repository,Stargazers,FetchedAt", entry), StandardCharsets.UTF_8);
+		return new StargazerCache(file.getPath(), TIME_TO_LIVE);
+	}
+
+	private FileStargazerProvider createProvider(String line) throws IOException {
+		File file = folder.newFile("stargazers.csv");
+		Files.write(file.toPath(), Arrays.asList("# repository,stargazers", line), StandardCharsets.UTF_8);
+		return new FileStargazerProvider(file.getPath());
+	}
+
+	private static GitProject createProject() {
+		return new GitProject(null, null, "https://github.com/" + REPOSITORY + ".git") { };
+	}
+
+}
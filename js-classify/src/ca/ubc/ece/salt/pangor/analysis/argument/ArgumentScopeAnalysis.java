@@ -4,6 +4,7 @@ import java.util.List;
 
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
+import org.mozilla.javascript.ast.FunctionCall;
 import org.mozilla.javascript.ast.FunctionNode;
 
 import ca.ubc.ece.salt.gumtree.ast.ClassifiedASTNode;
@@ -11,7 +12,7 @@ import ca.ubc.ece.salt.pangor.analysis.classify.ClassifierDataSet;
 import ca.ubc.ece.salt.pangor.batch.AnalysisMetaInformation;
 import ca.ubc.ece.salt.pangor.cfg.CFG;
 import ca.ubc.ece.salt.pangor.classify.alert.ClassifierAlert;
-import ca.ubc.ece.salt.pangor.js.analysis.scope.JavaScriptScope;
+import ca.ubc.ece.salt.pangor.js.analysis.FusedTreeVisitor;
 import ca.ubc.ece.salt.pangor.js.analysis.scope.ScopeAnalysis;
 
 public class ArgumentScopeAnalysis extends ScopeAnalysis<ClassifierAlert, ClassifierDataSet> {
@@ -31,46 +32,36 @@ public class ArgumentScopeAnalysis extends ScopeAnalysis<ClassifierAlert, Classi
 		/*
 		 * Tests gave a lot of false positives! Skipping them
 		 */
-		if (ami.repairedFile.contains("test/") || ami.repairedFile.contains("spec/")
-				|| ami.repairedFile.contains("tests/") || ami.repairedFile.contains("__test__")) {
+		if (this.skipDstScript()) {
 			logger.info("Skipping test file: " + ami.repairedFile);
 			return;
 		}
 
-		/* Look at each function. */
-		this.inspectFunctions(this.dstScope);
+		/* Visit the script. */
+		this.visitDstScript();
 	}
 
 	@Override
 	public void analyze(ClassifiedASTNode srcRoot, List<CFG> srcCFGs, ClassifiedASTNode dstRoot, List<CFG> dstCFGs) throws Exception {
 		super.analyze(srcRoot, srcCFGs, dstRoot, dstCFGs);
 
-		/* Look at each function. */
-		this.inspectFunctions(this.dstScope);
+		/* Visit the script. */
+		this.visitDstScript();
+	}
+
+	@Override
+	protected void registerDstScriptVisitors(FusedTreeVisitor fusedVisitor) {
+		fusedVisitor.register(this.callVisitor, FunctionCall.class);
+		fusedVisitor.register(this.definitionVisitor, FunctionNode.class);
 	}
 
 	/**
-	 * @param scope The function to inspect.
+	 * Tests gave a lot of false positives, so they are not visited.
 	 */
-	private void inspectFunctions(JavaScriptScope scope) {
-		/* Visit the function and look for STH patterns. */
-		if (scope.scope instanceof FunctionNode) {
-			FunctionNode function = (FunctionNode) scope.scope;
-			function.getBody().visit(callVisitor);
-			function.getBody().visit(definitionVisitor);
-		} else {
-			scope.scope.visit(callVisitor);
-			scope.scope.visit(definitionVisitor);
-		}
-
-		/*
-		 * This method was copied and pasted from somewhere else. But Why should
-		 * we visit the child functions, if visitor is already going to do it?
-		 */
-		// for (Scope child : scope.children) {
-		// // inspectFunctions(child);
-		// }
-
+	@Override
+	protected boolean skipDstScript() {
+		return ami.repairedFile.contains("test/") || ami.repairedFile.contains("spec/")
+				|| ami.repairedFile.contains("tests/") || ami.repairedFile.contains("__test__");
 	}
 
 }
@@ -15,6 +15,7 @@ import ca.ubc.ece.salt.pangor.batch.AnalysisMetaInformation;
 import ca.ubc.ece.salt.pangor.cfg.CFG;
 import ca.ubc.ece.salt.pangor.classify.alert.ClassifierAlert;
 import ca.ubc.ece.salt.pangor.classify.alert.GlobalToLocalAlert;
+import ca.ubc.ece.salt.pangor.js.analysis.scope.JavaScriptScope;
 import ca.ubc.ece.salt.pangor.js.analysis.scope.ScopeAnalysis;
 
 /**
@@ -117,15 +118,25 @@ public class GTLScopeAnalysis extends ScopeAnalysis<ClassifierAlert, ClassifierD
 	 */
 	private boolean deletedInScope(Scope<AstNode> scope, String identifier) {
 
-		AstNode node = scope.getVariables().get(identifier);
-		if(node != null && node.getChangeType() == ChangeType.REMOVED) return true;
-
-		for(Scope<AstNode> child : scope.getChildren()) {
-			if(deletedInScope(child, identifier)) return true;
+		/* Only the scopes that declare the identifier need to be checked. */
+		for(JavaScriptScope declaration : this.getSrcDeclarations(identifier)) {
+			AstNode node = declaration.getVariables().get(identifier);
+			if(node.getChangeType() == ChangeType.REMOVED && isInScope(declaration, scope)) return true;
 		}
 
 		return false;
 
 	}
 
+	/**
+	 * @return true if {@code scope} is {@code ancestor} or one of its
+	 * 		   method scopes.
+	 */
+	private static boolean isInScope(Scope<AstNode> scope, Scope<AstNode> ancestor) {
+		for(Scope<AstNode> current = scope; current != null; current = current.getParent()) {
+			if(current == ancestor) return true;
+		}
+		return false;
+	}
+
 }
@@ -1,20 +1,26 @@
 package ca.ubc.ece.salt.pangor.analysis.classify;
 
-import java.io.BufferedReader;
+import java.io.BufferedWriter;
 import java.io.File;
-import java.io.FileNotFoundException;
 import java.io.FileOutputStream;
-import java.io.FileReader;
 import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
 import java.io.PrintStream;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
-import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 import ca.ubc.ece.salt.pangor.analysis.DataSet;
+import ca.ubc.ece.salt.pangor.analysis.DataSetImporter;
 import ca.ubc.ece.salt.pangor.classify.alert.ClassifierAlert;
 import ca.ubc.ece.salt.pangor.classify.alert.DeserializedClassifierAlert;
 
@@ -24,6 +30,10 @@ import ca.ubc.ece.salt.pangor.classify.alert.DeserializedClassifierAlert;
  */
 public class ClassifierDataSet implements DataSet<ClassifierAlert> {
 
+	/** The number of recently written alerts that are checked for
+	 * duplicates when the alerts are written to {@code dataSetPath}. **/
+	private static final int RECENT_ALERTS = 1024;
+
 	/**
 	 * The path to the file where the data set will be cached. This allows us
 	 * to limit our memory use and cache results for the future by storing the
@@ -37,8 +47,21 @@ public class ClassifierDataSet implements DataSet<ClassifierAlert> {
 	 */
 	private String supplementaryPath;
 
-	/** The alerts generated by the analysis. **/
-	private Set<ClassifierAlert> alerts;
+	/** The alerts generated by the analysis, in the order they were added. **/
+	private List<ClassifierAlert> alerts;
+
+	/** The keys of the alerts that are stored in memory, so that duplicate
+	 * alerts are only added once. **/
+	private Set<ClassifierAlert.Key> alertKeys;
+
+	/**
+	 * The keys of the alerts that were most recently written to
+	 * {@code dataSetPath}. Duplicate alerts are generated by the analysis of
+	 * the same file, so they are registered close together. Only the recent
+	 * keys are kept, so that the keys (and their descriptions) of every
+	 * alert that was written do not stay in memory.
+	 */
+	private Set<ClassifierAlert.Key> recentKeys;
 
 	/**
 	 * Used to produce a data set of the analysis results.
@@ -49,7 +72,9 @@ public class ClassifierDataSet implements DataSet<ClassifierAlert> {
 	 * 					 cannot be read.
 	 */
 	public ClassifierDataSet(String dataSetPath, String supplementaryPath) {
-		this.alerts = new HashSet<ClassifierAlert>();
+		this.alerts = new ArrayList<ClassifierAlert>();
+		this.alertKeys = ConcurrentHashMap.newKeySet();
+		this.recentKeys = createRecentKeys();
 		this.dataSetPath = dataSetPath;
 		this.supplementaryPath = supplementaryPath;
 	}
@@ -60,7 +85,9 @@ public class ClassifierDataSet implements DataSet<ClassifierAlert> {
 	 * @throws Exception
 	 */
 	public ClassifierDataSet(String dataSetPath) throws Exception {
-		this.alerts = new HashSet<ClassifierAlert>();
+		this.alerts = new ArrayList<ClassifierAlert>();
+		this.alertKeys = ConcurrentHashMap.newKeySet();
+		this.recentKeys = createRecentKeys();
 		this.dataSetPath = dataSetPath;
 
 		/* Read the data set file and de-serialize the feature vectors. */
@@ -74,21 +101,16 @@ public class ClassifierDataSet implements DataSet<ClassifierAlert> {
 	 */
 	public void importDataSet(String dataSetPath) throws Exception {
 
-		try(BufferedReader reader = new BufferedReader(new FileReader(dataSetPath))) {
+		/* De-serialize the alerts (and compute their keys) in parallel. */
+		List<ClassifierAlert> imported = DataSetImporter.importRows(dataSetPath, serialAlert -> {
+			ClassifierAlert alert = DeserializedClassifierAlert.deSerialize(serialAlert);
+			alert.getKey();
+			return alert;
+		});
 
-			for (String serialAlert = reader.readLine();
-					serialAlert != null;
-					serialAlert = reader.readLine()) {
-
-				ClassifierAlert alert = DeserializedClassifierAlert.deSerialize(serialAlert);
-
-				this.alerts.add(alert);
-
-			}
-
-		}
-		catch(Exception e) {
-			throw e;
+		/* Duplicates are only stored once. */
+		for(ClassifierAlert alert : imported) {
+			if(this.alertKeys.add(alert.getKey())) this.alerts.add(alert);
 		}
 
 	}
@@ -97,7 +119,9 @@ public class ClassifierDataSet implements DataSet<ClassifierAlert> {
 	 * Adds a alert to the data set. If a data set file exists
 	 * ({@code dataSetPath}), serializes the alert and writes it to
 	 * the file. Otherwise, the alert is stored in memory in
-	 * {@code LearningDataSet}.
+	 * {@code LearningDataSet}. Alerts that duplicate an alert that has
+	 * already been registered (or, for a data set file, an alert that was
+	 * recently written) are ignored.
 	 * @param alert The alert to be managed by this class.
 	 */
 	@Override
@@ -106,8 +130,10 @@ public class ClassifierDataSet implements DataSet<ClassifierAlert> {
 		if(this.dataSetPath != null) {
 			this.storeAlert(alert);
 		}
-		else {
-			this.alerts.add(alert);
+		else if(this.alertKeys.add(alert.getKey())) {
+			synchronized(this.alerts) {
+				this.alerts.add(alert);
+			}
 		}
 
 	}
@@ -122,13 +148,15 @@ public class ClassifierDataSet implements DataSet<ClassifierAlert> {
 	 */
 	private synchronized void storeAlert(ClassifierAlert alert) throws Exception {
 
+		if(!this.recentKeys.add(alert.getKey())) return;
+
 		/* The path to the file may not exist. Create it if needed. */
 		File path = new File(this.dataSetPath);
 		path.getParentFile().mkdirs();
 		path.createNewFile();
 
 		/* May throw IOException if the path does not exist. */
-		PrintStream stream = new PrintStream(new FileOutputStream(path, true));
+		PrintStream stream = new PrintStream(new FileOutputStream(path, true), false, DataSetImporter.CHARSET.name());
 
 		/* Write the data set. */
 		stream.println(alert.serialize());
@@ -141,6 +169,21 @@ public class ClassifierDataSet implements DataSet<ClassifierAlert> {
 
 	}
 
+	/**
+	 * @return A set that only keeps the {@code RECENT_ALERTS} most recently
+	 * 		   added keys. The set is not thread safe.
+	 */
+	private static Set<ClassifierAlert.Key> createRecentKeys() {
+		return Collections.newSetFromMap(new LinkedHashMap<ClassifierAlert.Key, Boolean>() {
+			private static final long serialVersionUID = 1L;
+
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<ClassifierAlert.Key, Boolean> eldest) {
+				return this.size() > RECENT_ALERTS;
+			}
+		});
+	}
+
 	/**
 	 * Builds the alert header by filtering out features (columns)
 	 * that are not used or hardly used.
@@ -176,7 +219,7 @@ public class ClassifierDataSet implements DataSet<ClassifierAlert> {
 	public void writeFilteredDataSet(String outFile) {
 
 		/* Open the file stream for writing if a file has been given. */
-		PrintStream stream = System.out;
+		OutputStream stream = System.out;
 
 		if(outFile != null) {
 			try {
@@ -187,18 +230,33 @@ public class ClassifierDataSet implements DataSet<ClassifierAlert> {
 				File path = new File(outFile);
 				path.getParentFile().mkdirs();
 
-				stream = new PrintStream(new FileOutputStream(outFile));
+				stream = new FileOutputStream(outFile);
 			}
 			catch (IOException e) {
 				System.err.println(e.getMessage());
 			}
 		}
 
-		/* Write the header for the feature vector. */
-		stream.println(this.getAlertHeader());
+		Writer writer = new BufferedWriter(new OutputStreamWriter(stream));
 
-		/* Write the data set. */
-		stream.println(this.getAlertVector());
+		try {
+
+			/* Write the header for the feature vector. */
+			writer.write(this.getAlertHeader());
+			writer.write("\n");
+
+			/* Write the data set. */
+			this.writeAlertVector(writer);
+			writer.write("\n");
+
+			/* Don't close System.out. */
+			if(stream == System.out) writer.flush();
+			else writer.close();
+
+		}
+		catch (IOException e) {
+			System.err.println(e.getMessage());
+		}
 
 	}
 
@@ -253,13 +311,29 @@ public class ClassifierDataSet implements DataSet<ClassifierAlert> {
 	 */
 	public String getAlertVector() {
 
-		String dataSet = "";
+		StringWriter dataSet = new StringWriter();
 
-		for(ClassifierAlert alert : this.alerts) {
-			dataSet += alert.serialize() + "\n";
+		try {
+			this.writeAlertVector(dataSet);
+		} catch (IOException e) {
+			/* StringWriter does not throw IOExceptions. */
 		}
 
-		return dataSet;
+		return dataSet.toString();
+
+	}
+
+	/**
+	 * Writes the data set one alert (row) at a time.
+	 * @param writer The writer to write the data set to.
+	 * @throws IOException if the data set cannot be written.
+	 */
+	public void writeAlertVector(Writer writer) throws IOException {
+
+		for(ClassifierAlert alert : this.alerts) {
+			writer.write(alert.serialize());
+			writer.write("\n");
+		}
 
 	}
 
@@ -280,13 +354,13 @@ public class ClassifierDataSet implements DataSet<ClassifierAlert> {
 		try (PrintStream srcStream = new PrintStream(new FileOutputStream(src));
 			 PrintStream dstStream = new PrintStream(new FileOutputStream(dst));) {
 
-			srcStream.print(alert.ami.buggyCode);
-			dstStream.print(alert.ami.repairedCode);
+			srcStream.print(alert.ami.getBuggyCode());
+			dstStream.print(alert.ami.getRepairedCode());
 
 			srcStream.close();
 			dstStream.close();
 
-		} catch (FileNotFoundException e) {
+		} catch (IOException e) {
 			System.err.println(e.getMessage());
 		}
 
@@ -0,0 +1,98 @@
+package ca.ubc.ece.salt.pangor.classify;
+
+import ca.ubc.ece.salt.pangor.analysis.Analysis;
+import ca.ubc.ece.salt.pangor.analysis.argument.ArgumentAnalysis;
+import ca.ubc.ece.salt.pangor.analysis.argumentorder.ArgumentOrderAnalysis;
+import ca.ubc.ece.salt.pangor.analysis.boundedcontext.BoundedContextAnalysis;
+import ca.ubc.ece.salt.pangor.analysis.callbackerror.CallbackErrorAnalysis;
+import ca.ubc.ece.salt.pangor.analysis.callbackerrorhandling.CallbackErrorHandlingAnalysis;
+import ca.ubc.ece.salt.pangor.analysis.callbackparam.CallbackParamAnalysis;
+import ca.ubc.ece.salt.pangor.analysis.classify.ClassifierDataSet;
+import ca.ubc.ece.salt.pangor.analysis.errorhandling.ErrorHandlingAnalysis;
+import ca.ubc.ece.salt.pangor.analysis.globaltolocal.GlobalToLocalAnalysis;
+import ca.ubc.ece.salt.pangor.analysis.promises.PromisesAnalysis;
+import ca.ubc.ece.salt.pangor.analysis.specialtype.SpecialTypeAnalysis;
+import ca.ubc.ece.salt.pangor.analysis.thistothat.ThisToThatAnalysis;
+import ca.ubc.ece.salt.pangor.batch.AnalysisMetaInformation;
+import ca.ubc.ece.salt.pangor.classify.alert.ClassifierAlert;
+
+/**
+ * The repair classifiers that can be run by {@code ClassifyAnalysisRunner}.
+ */
+public enum Classifier {
+
+	SPECIAL_TYPE {
+		@Override
+		public Analysis<ClassifierAlert, ClassifierDataSet> create(ClassifierDataSet dataSet, AnalysisMetaInformation ami) {
+			return new SpecialTypeAnalysis(dataSet, ami);
+		}
+	},
+	ERROR_HANDLING {
+		@Override
+		public Analysis<ClassifierAlert, ClassifierDataSet> create(ClassifierDataSet dataSet, AnalysisMetaInformation ami) {
+			return new ErrorHandlingAnalysis(dataSet, ami);
+		}
+	},
+	BOUNDED_CONTEXT {
+		@Override
+		public Analysis<ClassifierAlert, ClassifierDataSet> create(ClassifierDataSet dataSet, AnalysisMetaInformation ami) {
+			return new BoundedContextAnalysis(dataSet, ami);
+		}
+	},
+	ARGUMENT {
+		@Override
+		public Analysis<ClassifierAlert, ClassifierDataSet> create(ClassifierDataSet dataSet, AnalysisMetaInformation ami) {
+			return new ArgumentAnalysis(dataSet, ami);
+		}
+	},
+	ARGUMENT_ORDER {
+		@Override
+		public Analysis<ClassifierAlert, ClassifierDataSet> create(ClassifierDataSet dataSet, AnalysisMetaInformation ami) {
+			return new ArgumentOrderAnalysis(dataSet, ami);
+		}
+	},
+	CALLBACK_ERROR {
+		@Override
+		public Analysis<ClassifierAlert, ClassifierDataSet> create(ClassifierDataSet dataSet, AnalysisMetaInformation ami) {
+			return new CallbackErrorAnalysis(dataSet, ami);
+		}
+	},
+	CALLBACK_ERROR_HANDLING {
+		@Override
+		public Analysis<ClassifierAlert, ClassifierDataSet> create(ClassifierDataSet dataSet, AnalysisMetaInformation ami) {
+			return new CallbackErrorHandlingAnalysis(dataSet, ami);
+		}
+	},
+	GLOBAL_TO_LOCAL {
+		@Override
+		public Analysis<ClassifierAlert, ClassifierDataSet> create(ClassifierDataSet dataSet, AnalysisMetaInformation ami) {
+			return new GlobalToLocalAnalysis(dataSet, ami);
+		}
+	},
+	CALLBACK_PARAM {
+		@Override
+		public Analysis<ClassifierAlert, ClassifierDataSet> create(ClassifierDataSet dataSet, AnalysisMetaInformation ami) {
+			return new CallbackParamAnalysis(dataSet, ami);
+		}
+	},
+	THIS_TO_THAT {
+		@Override
+		public Analysis<ClassifierAlert, ClassifierDataSet> create(ClassifierDataSet dataSet, AnalysisMetaInformation ami) {
+			return new ThisToThatAnalysis(dataSet, ami);
+		}
+	},
+	PROMISES {
+		@Override
+		public Analysis<ClassifierAlert, ClassifierDataSet> create(ClassifierDataSet dataSet, AnalysisMetaInformation ami) {
+			return new PromisesAnalysis(dataSet, ami);
+		}
+	};
+
+	/**
+	 * @param dataSet The data set that will keep track of the alerts.
+	 * @param ami The meta information from the bulk analysis.
+	 * @return a new instance of the classifier's analysis for one file.
+	 */
+	public abstract Analysis<ClassifierAlert, ClassifierDataSet> create(ClassifierDataSet dataSet, AnalysisMetaInformation ami);
+
+}
@@ -16,6 +16,7 @@ import org.eclipse.jgit.api.errors.GitAPIException;
 import org.kohsuke.args4j.CmdLineException;
 import org.kohsuke.args4j.CmdLineParser;
 
+import ca.ubc.ece.salt.pangor.analysis.AlertIDGenerator;
 import ca.ubc.ece.salt.pangor.batch.GitProjectAnalysis;
 import ca.ubc.ece.salt.pangor.batch.GitProjectAnalysisException;
 import ca.ubc.ece.salt.pangor.batch.GitProjectAnalysisTask;
@@ -52,8 +53,17 @@ public class ClassifyAnalysisMain {
 			return;
 		}
 
+		/* Alerts that are appended to an existing data set start a new run,
+		 * so their IDs do not collide with the IDs already in the data set. */
+		try {
+			AlertIDGenerator.startRun(AlertIDGenerator.getNextRunID(options.getDataSetPath()));
+		} catch (IOException e) {
+			System.err.println("Error while reading the data set: " + e.getMessage());
+			return;
+		}
+
 		/* Create the runner that will run the analysis. */
-		ClassifyAnalysisRunner runner = new ClassifyAnalysisRunner(options.getDataSetPath(), options.getSupplementaryFolder(), options.getPreProcess());
+		ClassifyAnalysisRunner runner = new ClassifyAnalysisRunner(options.getDataSetPath(), options.getSupplementaryFolder(), options.getPreProcess(), options.getClassifiers());
 
         GitProjectAnalysis gitProjectAnalysis;
 
@@ -62,6 +72,7 @@ public class ClassifyAnalysisMain {
 
 			try {
                 gitProjectAnalysis = GitProjectAnalysis.fromURI(options.getURI(), ClassifyAnalysisMain.CHECKOUT_DIR, runner);
+                gitProjectAnalysis.setBugFixingPattern(options.getBugFixingPattern());
                 gitProjectAnalysis.analyze();
 			}
 			catch(GitProjectAnalysisException e) {
@@ -106,6 +117,7 @@ public class ClassifyAnalysisMain {
 				try {
 					/* Build git repository object. */
 					gitProjectAnalysis = GitProjectAnalysis.fromURI(uri, ClassifyAnalysisMain.CHECKOUT_DIR, runner);
+					gitProjectAnalysis.setBugFixingPattern(options.getBugFixingPattern());
 
 					/* Perform the analysis (this may take some time) */
 					executor.submit(new GitProjectAnalysisTask(gitProjectAnalysis, latch));
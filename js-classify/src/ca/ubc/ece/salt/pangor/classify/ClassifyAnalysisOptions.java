@@ -1,7 +1,12 @@
 package ca.ubc.ece.salt.pangor.classify;
 
+import java.util.LinkedList;
+import java.util.List;
+
 import org.kohsuke.args4j.Option;
 
+import ca.ubc.ece.salt.pangor.git.GitProject;
+
 public class ClassifyAnalysisOptions {
 
 	@Option(name="-u", aliases={"--uri"}, usage="The uri of the public repository (e.g., https://github.com/Unitech/pm2).")
@@ -25,6 +30,12 @@ public class ClassifyAnalysisOptions {
 	@Option(name="-pp", aliases={"--preprocess"}, usage="Pre-process the AST before running GumTree. Expands ternary operators and short circuits.")
 	private boolean preProcess = false;
 
+	@Option(name="-c", aliases={"--classifier"}, usage="A classifier to run (may be given more than once). Runs PROMISES by default.")
+	private List<Classifier> classifiers = new LinkedList<Classifier>();
+
+	@Option(name = "-bf", aliases = { "--bug-fix-pattern" }, usage = "The regular expression that identifies bug fixing commit messages (e.g., \"fix|repair\"). By default, all commits are analyzed.")
+	private String bugFixingPattern = GitProject.DEFAULT_BUG_FIXING_PATTERN;
+
 	public Integer getNThreads() {
 		return this.nThreads;
 	}
@@ -53,4 +64,17 @@ public class ClassifyAnalysisOptions {
 		return preProcess;
 	}
 
+	public List<Classifier> getClassifiers() {
+		if(this.classifiers.isEmpty()) {
+			List<Classifier> classifiers = new LinkedList<Classifier>();
+			classifiers.add(Classifier.PROMISES);
+			return classifiers;
+		}
+		return this.classifiers;
+	}
+
+	public String getBugFixingPattern() {
+		return this.bugFixingPattern;
+	}
+
 }
@@ -1,10 +1,14 @@
 package ca.ubc.ece.salt.pangor.classify;
 
+import java.util.LinkedList;
+import java.util.List;
+
+import ca.ubc.ece.salt.pangor.analysis.Analysis;
 import ca.ubc.ece.salt.pangor.analysis.classify.ClassifierDataSet;
-import ca.ubc.ece.salt.pangor.analysis.promises.PromisesAnalysis;
 import ca.ubc.ece.salt.pangor.batch.AnalysisMetaInformation;
 import ca.ubc.ece.salt.pangor.batch.AnalysisRunner;
 import ca.ubc.ece.salt.pangor.cfd.ControlFlowDifferencing;
+import ca.ubc.ece.salt.pangor.classify.alert.ClassifierAlert;
 import ca.ubc.ece.salt.pangor.js.cfg.JavaScriptCFGFactory;
 
 public class ClassifyAnalysisRunner extends AnalysisRunner {
@@ -12,53 +16,34 @@ public class ClassifyAnalysisRunner extends AnalysisRunner {
 	/** Stores the alerts that make up the data set. **/
 	private ClassifierDataSet dataset;
 
+	/** The classifiers to run on each file. **/
+	private List<Classifier> classifiers;
+
 	/**
 	 * @param dataSetPath The file path to store the data set.
 	 * @param supplementaryPath The directory path to store the supplementary
 	 * 		  files.
 	 * @param preProcess Set to true to enable AST pre-processing.
+	 * @param classifiers The classifiers to run on each file.
 	 */
-	public ClassifyAnalysisRunner(String dataSetPath, String supplementaryPath, boolean preProcess) {
+	public ClassifyAnalysisRunner(String dataSetPath, String supplementaryPath, boolean preProcess, List<Classifier> classifiers) {
 		super(new JavaScriptCFGFactory(), preProcess);
 		this.dataset = new ClassifierDataSet(dataSetPath, supplementaryPath);
+		this.classifiers = classifiers;
 	}
 
 	@Override
 	protected void analyze(ControlFlowDifferencing cfd,
 			AnalysisMetaInformation ami) throws Exception {
 
-//		SpecialTypeAnalysis sth_analysis = new SpecialTypeAnalysis(this.dataset, ami);
-//		cfd.analyze(sth_analysis);
-
-//		ErrorHandlingAnalysis eh_analysis = new ErrorHandlingAnalysis(this.dataset, ami);
-//		cfd.analyze(eh_analysis);
-
-//		BoundedContextAnalysis bc_analysis = new BoundedContextAnalysis(this.dataset, ami);
-//		cfd.analyze(bc_analysis);
-
-//		ArgumentAnalysis a_analysis = new ArgumentAnalysis(this.dataset, ami);
-//		cfd.analyze(a_analysis);
-
-//		ArgumentOrderAnalysis ao_analysis = new ArgumentOrderAnalysis(this.dataset, ami);
-//		cfd.analyze(ao_analysis);
-
-//		CallbackErrorAnalysis cbe_analysis = new CallbackErrorAnalysis(this.dataset, ami);
-//		cfd.analyze(cbe_analysis);
-
-//		CallbackErrorHandlingAnalysis cbeh_analysis = new CallbackErrorHandlingAnalysis(this.dataset, ami);
-//		cfd.analyze(cbeh_analysis);
-
-//		GlobalToLocalAnalysis gtl_analysis = new GlobalToLocalAnalysis(this.dataset, ami);
-//		cfd.analyze(gtl_analysis);
-
-//		CallbackParamAnalysis cbp_analysis = new CallbackParamAnalysis(this.dataset, ami);
-//		cfd.analyze(cbp_analysis);
-
-//		ThisToThatAnalysis tth_analysis = new ThisToThatAnalysis(this.dataset, ami);
-//		cfd.analyze(tth_analysis);
+		/* Run all the classifiers on the same control flow differencing
+		 * context, so the CFGs and scope trees are only built once. */
+		List<Analysis<ClassifierAlert, ClassifierDataSet>> analyses = new LinkedList<Analysis<ClassifierAlert, ClassifierDataSet>>();
+		for(Classifier classifier : this.classifiers) {
+			analyses.add(classifier.create(this.dataset, ami));
+		}
 
-		PromisesAnalysis ctp_analysis = new PromisesAnalysis(this.dataset, ami);
-		cfd.analyze(ctp_analysis);
+		cfd.analyze(analyses);
 
 	}
 
@@ -38,13 +38,4 @@ public class ArgumentAlert extends ClassifierAlert {
 		return "The function was being called with a undesired parameters list. The repair is done by updating the parameters list.";
 	}
 
-	@Override
-	public boolean equals(Object o) {
-		if (o instanceof ArgumentAlert && super.equals(o)) {
-			ArgumentAlert aa = (ArgumentAlert) o;
-			return (this.functionName.equals(aa.functionName) && this.argumentChanged.equals(aa.argumentChanged));
-		}
-		return false;
-	}
-
 }
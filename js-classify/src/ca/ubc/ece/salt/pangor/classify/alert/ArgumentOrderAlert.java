@@ -18,13 +18,4 @@ public class ArgumentOrderAlert extends ClassifierAlert {
 		return "The function may accept different parameters signatures but this was not checked. The repair is inserting an if condition and changing the order we parse the parameters.";
 	}
 
-	@Override
-	public boolean equals(Object o) {
-		if (o instanceof ArgumentOrderAlert && super.equals(o)) {
-			ArgumentOrderAlert aoa = (ArgumentOrderAlert) o;
-			return (this.functionName.equals(aoa.functionName) && this.subtype.equals(aoa.subtype));
-		}
-		return false;
-	}
-
 }
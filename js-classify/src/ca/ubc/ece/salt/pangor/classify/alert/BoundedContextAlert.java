@@ -23,13 +23,4 @@ public class BoundedContextAlert extends ClassifierAlert {
 		return "The function was being called with a undesired bounded context. The repair is using call() apply() or bind() to pass the desired context.";
 	}
 
-	@Override
-	public boolean equals(Object o) {
-		if (o instanceof BoundedContextAlert && super.equals(o)) {
-			BoundedContextAlert wbca = (BoundedContextAlert) o;
-			return (this.functionName.equals(wbca.functionName) && this.subtype.equals(wbca.subtype));
-		}
-		return false;
-	}
-
 }
@@ -21,13 +21,4 @@ public class CallbackErrorAlert extends ClassifierAlert {
 		return "The function had a callback and it never called the callback propagating any error, but now it does.";
 	}
 
-	@Override
-	public boolean equals(Object o) {
-		if (o instanceof CallbackErrorAlert && super.equals(o)) {
-			CallbackErrorAlert cea = (CallbackErrorAlert) o;
-			return (this.functionName.equals(cea.functionName) && this.subtype.equals(cea.subtype));
-		}
-		return false;
-	}
-
 }
@@ -24,13 +24,4 @@ public class CallbackErrorHandlingAlert extends ClassifierAlert {
 		return "A parameter containing an exception was checked in a callback function where it was previously unchecked.";
 	}
 
-	@Override
-	public boolean equals(Object o) {
-		if(o instanceof CallbackErrorHandlingAlert && super.equals(o)) {
-			CallbackErrorHandlingAlert sta = (CallbackErrorHandlingAlert) o;
-			return this.function.equals(sta.function) && this.signature.equals(sta.signature) && this.parameter.equals(sta.parameter);
-		}
-		return false;
-	}
-
 }
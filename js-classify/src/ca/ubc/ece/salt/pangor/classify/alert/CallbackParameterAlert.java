@@ -26,13 +26,4 @@ public class CallbackParameterAlert extends ClassifierAlert {
 		return "A parameter containing an exception was added to a callback function. This could mean an error returned by the callee through the callback was not being handled.";
 	}
 
-	@Override
-	public boolean equals(Object o) {
-		if(o instanceof CallbackParameterAlert && super.equals(o)) {
-			CallbackParameterAlert sta = (CallbackParameterAlert) o;
-			return this.function.equals(sta.function) && this.signature.equals(sta.signature) && this.parameter.equals(sta.parameter);
-		}
-		return false;
-	}
-
 }
@@ -21,7 +21,7 @@ public class DeserializedClassifierAlert extends ClassifierAlert {
 	private String explanation;
 
 	public DeserializedClassifierAlert(AnalysisMetaInformation ami, String functionName,
-			String type, String subtype, String description, String explanation, int id) {
+			String type, String subtype, String description, String explanation, long id) {
 		super(ami, functionName, type, subtype, id);
 		this.description = description;
 		this.explanation = explanation;
@@ -45,7 +45,7 @@ public class DeserializedClassifierAlert extends ClassifierAlert {
 
 		DeserializedClassifierAlert classifierAlert = new DeserializedClassifierAlert(
 				ami, features[7], features[8], features[9], features[10], features[11],
-				Integer.parseInt(features[0]));
+				Long.parseLong(features[0]));
 
 		return classifierAlert;
 
@@ -61,18 +61,4 @@ public class DeserializedClassifierAlert extends ClassifierAlert {
 		return this.explanation;
 	}
 
-	@Override
-	public boolean equals(Object o) {
-		if(o instanceof DeserializedClassifierAlert) {
-			DeserializedClassifierAlert a = (DeserializedClassifierAlert) o;
-			return this.ami.equals(a.ami) && this.getLongDescription().equals(a.getLongDescription());
-		}
-		return false;
-	}
-
-	@Override
-	public int hashCode() {
-		return this.ami.hashCode();
-	}
-
 }
@@ -22,13 +22,4 @@ public class GlobalToLocalAlert extends ClassifierAlert {
 		return "The variable was defined globally but used locally. The repair defined the variable locally.";
 	}
 
-	@Override
-	public boolean equals(Object o) {
-		if(o instanceof GlobalToLocalAlert && super.equals(o)) {
-			GlobalToLocalAlert sta = (GlobalToLocalAlert) o;
-			return this.identifier.equals(sta.identifier);
-		}
-		return false;
-	}
-
 }
@@ -32,13 +32,4 @@ public class IncorrectConditionAlert extends ClassifierAlert {
 		return "A condition was strengthened or weakend to capture fewer or more  types.";
 	}
 
-	@Override
-	public boolean equals(Object o) {
-		if(o instanceof IncorrectConditionAlert && super.equals(o)) {
-			IncorrectConditionAlert sta = (IncorrectConditionAlert) o;
-			return this.variableIdentifier.equals(sta.variableIdentifier) && this.oldSpecialType == sta.oldSpecialType && this.newSpecialType == sta.newSpecialType;
-		}
-		return false;
-	}
-
 }
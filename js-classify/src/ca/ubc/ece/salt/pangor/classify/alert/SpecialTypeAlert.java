@@ -24,13 +24,4 @@ public class SpecialTypeAlert extends ClassifierAlert {
 		return "A conditional branch was inserted that checks if a variable has a special type. This could indicate a TypeError is possible in the original code or that incorrect output is displayed to the user.";
 	}
 
-	@Override
-	public boolean equals(Object o) {
-		if(o instanceof SpecialTypeAlert && super.equals(o)) {
-			SpecialTypeAlert sta = (SpecialTypeAlert) o;
-			return this.variableIdentifier.equals(sta.variableIdentifier) && this.specialType == sta.specialType;
-		}
-		return false;
-	}
-
 }
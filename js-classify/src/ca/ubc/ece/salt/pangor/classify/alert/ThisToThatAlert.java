@@ -18,13 +18,4 @@ public class ThisToThatAlert extends ClassifierAlert {
 		return "The function may have been using 'this' with an undesired context. The repair is storing the right context in a variable (like 'that') and passing it to this function.";
 	}
 
-	@Override
-	public boolean equals(Object o) {
-		if (o instanceof ThisToThatAlert && super.equals(o)) {
-			ThisToThatAlert aoa = (ThisToThatAlert) o;
-			return (this.functionName.equals(aoa.functionName) && this.subtype.equals(aoa.subtype));
-		}
-		return false;
-	}
-
 }
@@ -0,0 +1,111 @@
+package ca.ubc.ece.salt.pangor.test.classifiers;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+
+import java.io.File;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+
+import org.junit.Test;
+
+import ca.ubc.ece.salt.pangor.analysis.classify.ClassifierDataSet;
+import ca.ubc.ece.salt.pangor.batch.AnalysisMetaInformation;
+import ca.ubc.ece.salt.pangor.classify.alert.ClassifierAlert;
+import ca.ubc.ece.salt.pangor.classify.alert.DeserializedClassifierAlert;
+import ca.ubc.ece.salt.pangor.classify.alert.SpecialTypeAlert;
+import ca.ubc.ece.salt.pangor.js.analysis.SpecialTypeAnalysisUtilities.SpecialType;
+
+public class TestClassifierDataSet {
+
+	private final AnalysisMetaInformation AMI = new AnalysisMetaInformation(0, 0, "test", "homepage", "src file",
+			"dst file", "src commit", "dst commit", "src code", "dst code");
+
+	private final AnalysisMetaInformation OTHER_COMMIT = new AnalysisMetaInformation(0, 0, "test", "homepage", "src file",
+			"dst file", "src commit 2", "dst commit 2", "src code", "dst code");
+
+	@Test
+	public void testKeyIdentifiesDuplicates() {
+		ClassifierAlert alert = new SpecialTypeAlert(AMI, "~script~", "STH", "a", SpecialType.FUNCTION);
+		ClassifierAlert duplicate = new SpecialTypeAlert(AMI, "~script~", "STH", "a", SpecialType.FUNCTION);
+
+		assertEquals(alert.getKey(), duplicate.getKey());
+		assertEquals(alert.getKey().hashCode(), duplicate.getKey().hashCode());
+		assertEquals(alert.hashCode(), duplicate.hashCode());
+
+		assertNotEquals(alert.getKey(), new SpecialTypeAlert(AMI, "~script~", "STH", "b", SpecialType.FUNCTION).getKey());
+		assertNotEquals(alert.getKey(), new SpecialTypeAlert(AMI, "f", "STH", "a", SpecialType.FUNCTION).getKey());
+		assertNotEquals(alert.getKey(), new SpecialTypeAlert(OTHER_COMMIT, "~script~", "STH", "a", SpecialType.FUNCTION).getKey());
+	}
+
+	@Test
+	public void testEqualsMatchesKey() throws Exception {
+		ClassifierAlert alert = new SpecialTypeAlert(AMI, "~script~", "STH", "a", SpecialType.FUNCTION);
+		ClassifierAlert duplicate = new SpecialTypeAlert(AMI, "~script~", "STH", "a", SpecialType.FUNCTION);
+		ClassifierAlert other = new SpecialTypeAlert(AMI, "~script~", "STH", "b", SpecialType.FUNCTION);
+
+		assertEquals(alert, duplicate);
+		assertNotEquals(alert, other);
+		assertNotEquals(alert.hashCode(), other.hashCode());
+
+		/* Alerts of the same type in other commits are not duplicates. */
+		assertNotEquals(alert, new SpecialTypeAlert(OTHER_COMMIT, "~script~", "STH", "a", SpecialType.FUNCTION));
+
+		/* A de-serialized alert equals the alert it was serialized from. */
+		ClassifierAlert deserialized = DeserializedClassifierAlert.deSerialize(alert.serialize());
+		assertEquals(alert, deserialized);
+		assertEquals(deserialized, alert);
+		assertEquals(alert.hashCode(), deserialized.hashCode());
+	}
+
+	@Test
+	public void testStoreAlertIgnoresDuplicates() throws Exception {
+		File file = File.createTempFile("alerts", ".csv");
+		file.deleteOnExit();
+		File supplementary = Files.createTempDirectory("supplementary").toFile();
+		supplementary.deleteOnExit();
+
+		ClassifierDataSet dataSet = new ClassifierDataSet(file.getPath(), supplementary.getPath());
+
+		dataSet.registerAlert(new SpecialTypeAlert(AMI, "~script~", "STH", "a", SpecialType.FUNCTION));
+		dataSet.registerAlert(new SpecialTypeAlert(AMI, "~script~", "STH", "a", SpecialType.FUNCTION));
+		dataSet.registerAlert(new SpecialTypeAlert(OTHER_COMMIT, "~script~", "STH", "a", SpecialType.FUNCTION));
+
+		assertEquals(2, Files.readAllLines(file.toPath(), StandardCharsets.UTF_8).size());
+	}
+
+	@Test
+	public void testRegisterAlertIgnoresDuplicates() throws Exception {
+		ClassifierDataSet dataSet = new ClassifierDataSet(null, null);
+
+		dataSet.registerAlert(new SpecialTypeAlert(AMI, "~script~", "STH", "a", SpecialType.FUNCTION));
+		dataSet.registerAlert(new SpecialTypeAlert(AMI, "~script~", "STH", "a", SpecialType.FUNCTION));
+		dataSet.registerAlert(new SpecialTypeAlert(OTHER_COMMIT, "~script~", "STH", "a", SpecialType.FUNCTION));
+
+		assertEquals(2, dataSet.getAlerts().size());
+	}
+
+	@Test
+	public void testImportIgnoresDuplicates() throws Exception {
+		ClassifierAlert alert = new SpecialTypeAlert(AMI, "~script~", "STH", "a", SpecialType.FUNCTION);
+		ClassifierAlert other = new SpecialTypeAlert(OTHER_COMMIT, "~script~", "STH", "a", SpecialType.FUNCTION);
+
+		File file = File.createTempFile("alerts", ".csv");
+		file.deleteOnExit();
+		try(PrintStream stream = new PrintStream(file)) {
+			stream.println(alert.serialize());
+			stream.println(alert.serialize());
+			stream.println(other.serialize());
+		}
+
+		ClassifierDataSet dataSet = new ClassifierDataSet(file.getPath());
+
+		/* The alerts are imported in the order of the file. */
+		assertEquals(2, dataSet.getAlerts().size());
+		assertEquals(alert.getKey(), dataSet.getAlerts().get(0).getKey());
+		assertEquals(other.getKey(), dataSet.getAlerts().get(1).getKey());
+		assertEquals(alert.getKey(), DeserializedClassifierAlert.deSerialize(alert.serialize()).getKey());
+	}
+
+}
@@ -5,11 +5,15 @@ import java.util.List;
 
 import org.junit.Test;
 
+import ca.ubc.ece.salt.pangor.analysis.Analysis;
+import ca.ubc.ece.salt.pangor.analysis.boundedcontext.BoundedContextAnalysis;
 import ca.ubc.ece.salt.pangor.analysis.classify.ClassifierDataSet;
 import ca.ubc.ece.salt.pangor.analysis.thistothat.ThisToThatAnalysis;
 import ca.ubc.ece.salt.pangor.batch.AnalysisMetaInformation;
+import ca.ubc.ece.salt.pangor.cfd.ControlFlowDifferencing;
 import ca.ubc.ece.salt.pangor.classify.alert.ClassifierAlert;
 import ca.ubc.ece.salt.pangor.classify.alert.ThisToThatAlert;
+import ca.ubc.ece.salt.pangor.js.cfg.JavaScriptCFGFactory;
 
 public class TestThisToThat extends TestAnalysis {
 
@@ -79,4 +83,29 @@ public class TestThisToThat extends TestAnalysis {
 		this.runTest(new String[] { src, dst }, expectedAlerts, true);
 	}
 
+	/*
+	 * The source and destination visitors of several classifiers share the
+	 * script traversals. The result must be the same as running the
+	 * classifier on its own.
+	 */
+	@Test
+	public void testSharedTraversal() throws Exception {
+		String src = "./test/input/this_to_that/simplest_old.js";
+		String dst = "./test/input/this_to_that/simplest_new.js";
+
+		List<ClassifierAlert> expectedAlerts = new LinkedList<ClassifierAlert>();
+		expectedAlerts.add(new ThisToThatAlert(AMI, "~anonymous~", "that"));
+		expectedAlerts.add(new ThisToThatAlert(AMI, "named", "that"));
+
+		ClassifierDataSet dataSet = new ClassifierDataSet(null, null);
+		List<Analysis<ClassifierAlert, ClassifierDataSet>> analyses = new LinkedList<Analysis<ClassifierAlert, ClassifierDataSet>>();
+		analyses.add(new BoundedContextAnalysis(new ClassifierDataSet(null, null), AMI));
+		analyses.add(new ThisToThatAnalysis(dataSet, AMI));
+
+		ControlFlowDifferencing cfd = new ControlFlowDifferencing(new JavaScriptCFGFactory(), new String[] { src, dst });
+		cfd.analyze(analyses);
+
+		this.check(dataSet.getAlerts(), expectedAlerts);
+	}
+
 }
\ No newline at end of file
@@ -0,0 +1,76 @@
+package ca.ubc.ece.salt.pangor.analysis.learning;
+
+import java.util.Collections;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+import ca.ubc.ece.salt.gumtree.ast.ClassifiedASTNode.ChangeType;
+import ca.ubc.ece.salt.pangor.learning.apis.KeywordUse;
+
+/**
+ * Selects the keywords (columns) of a {@code LearningDataSet} that are used
+ * for clustering.
+ *
+ * A column is removed if its name ({@code KeywordUse.toString()}) matches
+ * the context group's expression or contains an excluded change type. These
+ * are the expressions that were given to Weka's {@code RemoveByName} filter,
+ * so the same columns are selected. The clustering data set can be built
+ * directly from the feature vectors.
+ */
+public class ClusteringFilter {
+
+	/** The columns that are removed for each context group. **/
+	private static final String[] GROUP_EXPRESSIONS = {
+		/* Attribute filter for Context Group 0 (Statements) */
+		"(.*_falsey.*)|(.*_this.*)|(.*_STATEMENT_.*)|(.*_global_test)",
+		/* Attribute filter for Context Group 1 (Common Reserved Words and Operators) */
+		"(.*_global_test)",
+		/* Attribute filter for Context Group 2 (Reserved Words and Operators) */
+		"(.*_falsey.*)|(.*_this.*)|(.*_STATEMENT_.*)|(.*_global_test)",
+		/* Attribute filter for Context Group 3 (API Methods and Properties). */
+		"(.*typeof.*)|(.*null.*)|(.*undefined.*)|(.*falsey.*)|(.*this.*)|(.*true.*)|(.*false.*)|(.*_STATEMENT.*)|(.*_global_test)"
+	};
+
+	/** Matches the names of the columns that are not clustered. **/
+	private Pattern removed;
+
+	/**
+	 * @param group The context group whose keywords are clustered.
+	 * @param excludedChangeTypes Keywords with these change types are not
+	 * 							  clustered.
+	 */
+	public ClusteringFilter(ContextGroup group, Set<ChangeType> excludedChangeTypes) {
+		String expression = GROUP_EXPRESSIONS[group.ordinal()];
+		for(ChangeType changeType : excludedChangeTypes) {
+			expression += "|(.*" + changeType.toString() + ".*)";
+		}
+		this.removed = Pattern.compile(expression);
+	}
+
+	/**
+	 * The default filter clusters the API methods and properties (Context
+	 * Group 3) that have changed.
+	 */
+	public ClusteringFilter() {
+		this(ContextGroup.API, Collections.singleton(ChangeType.UNCHANGED));
+	}
+
+	/**
+	 * @param keyword A keyword (column) from the data set.
+	 * @return True if the keyword is used for clustering.
+	 */
+	public boolean include(KeywordUse keyword) {
+		return !this.removed.matcher(keyword.toString()).matches();
+	}
+
+	/**
+	 * The groups of keywords that are clustered together.
+	 */
+	public enum ContextGroup {
+		STATEMENTS,			// Context Group 0
+		COMMON_RESERVED,	// Context Group 1
+		RESERVED,			// Context Group 2
+		API					// Context Group 3
+	}
+
+}
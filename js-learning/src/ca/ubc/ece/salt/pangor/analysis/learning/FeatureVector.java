@@ -1,21 +1,29 @@
 package ca.ubc.ece.salt.pangor.analysis.learning;
 
+import java.io.IOException;
+import java.io.Writer;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
-import java.util.Set;
 
 import ca.ubc.ece.salt.gumtree.ast.ClassifiedASTNode.ChangeType;
 import ca.ubc.ece.salt.pangor.analysis.Alert;
 import ca.ubc.ece.salt.pangor.batch.AnalysisMetaInformation;
 import ca.ubc.ece.salt.pangor.learning.apis.KeywordDefinition;
 import ca.ubc.ece.salt.pangor.learning.apis.KeywordUse;
+import ca.ubc.ece.salt.pangor.learning.apis.KeywordUseDictionary;
 import ca.ubc.ece.salt.pangor.learning.apis.KeywordDefinition.KeywordType;
 import ca.ubc.ece.salt.pangor.learning.apis.KeywordUse.KeywordContext;
+import gnu.trove.iterator.TIntIntIterator;
+import gnu.trove.map.hash.TIntIntHashMap;
+import gnu.trove.map.hash.TIntObjectHashMap;
 import weka.core.Attribute;
-import weka.core.DenseInstance;
 import weka.core.Instance;
 import weka.core.Instances;
+import weka.core.SparseInstance;
+import weka.core.Utils;
 
 /**
  * Stores a feature vector (a row) of the repair pattern learning data set.
@@ -27,28 +35,40 @@ import weka.core.Instances;
  */
 public class FeatureVector extends Alert {
 
-	/** The keyword counts in each fragment. **/
-	public Map<KeywordUse, Integer> keywordMap;
+	/**
+	 * The keyword counts in each fragment. The keys are the keyword ids from
+	 * the {@code KeywordUseDictionary}.
+	 */
+	private TIntIntHashMap keywordCounts;
+
+	/**
+	 * The first use of each keyword in this feature vector, for the keywords
+	 * whose first use has a different API than the keyword use stored in the
+	 * {@code KeywordUseDictionary} (null if there are none). Keyword ids
+	 * ignore the API, so this keeps the API (and package) this feature
+	 * vector actually used.
+	 */
+	private TIntObjectHashMap<KeywordUse> keywordAPIs;
 
 	/** The source code for the buggy function. **/
-	public String buggyFunctionCode;
+	public SourceSlice buggyFunctionCode;
 
 	/** The source code for the repaired function. **/
-	public String repairedFunctionCode;
+	public SourceSlice repairedFunctionCode;
 
 	public FeatureVector(AnalysisMetaInformation ami, String functionName,
-			String buggyFunctionCode, String repairedFunctionCode) {
+			SourceSlice buggyFunctionCode, SourceSlice repairedFunctionCode) {
 		super(ami, functionName);
-		this.keywordMap = new HashMap<KeywordUse, Integer>();
+		this.keywordCounts = new TIntIntHashMap();
 		this.buggyFunctionCode = buggyFunctionCode;
 		this.repairedFunctionCode = repairedFunctionCode;
 	}
 
-	public FeatureVector(AnalysisMetaInformation ami, String functionName, int id) {
+	public FeatureVector(AnalysisMetaInformation ami, String functionName, long id) {
 		super(ami, functionName, id);
-		this.keywordMap = new HashMap<KeywordUse, Integer>();
-		this.buggyFunctionCode = "";
-		this.repairedFunctionCode = "";
+		this.keywordCounts = new TIntIntHashMap();
+		this.buggyFunctionCode = SourceSlice.EMPTY;
+		this.repairedFunctionCode = SourceSlice.EMPTY;
 	}
 
 	/**
@@ -60,9 +80,11 @@ public class FeatureVector extends Alert {
 
 		/* Insert the keywords form the source feature vector with change type
 		 * REMOVED into this feature vector. */
-		for(KeywordUse keyword : source.keywordMap.keySet()) {
+		for(TIntIntIterator it = source.keywordCounts.iterator(); it.hasNext();) {
+			it.advance();
+			KeywordUse keyword = source.getKeyword(it.key());
 			if(keyword.changeType == ChangeType.REMOVED) {
-				this.keywordMap.put(keyword, source.keywordMap.get(keyword));
+				this.keywordCounts.put(this.getID(keyword), it.value());
 			}
 		}
 	}
@@ -74,8 +96,7 @@ public class FeatureVector extends Alert {
 	 */
 	public void addKeyword(KeywordUse keyword) {
 
-		Integer count = this.keywordMap.containsKey(keyword) ? this.keywordMap.get(keyword) + 1 : 1;
-		this.keywordMap.put(keyword,  count);
+		this.keywordCounts.adjustOrPutValue(this.getID(keyword), 1, 1);
 
 	}
 
@@ -83,9 +104,66 @@ public class FeatureVector extends Alert {
 	 * Add the keyword to the feature vector and set its count.
 	 * @param token The string to check against the keyword list.
 	 */
-	public void addKeyword(KeywordUse keyword, Integer count) {
+	public void addKeyword(KeywordUse keyword, int count) {
+
+		this.keywordCounts.put(this.getID(keyword), count);
+
+	}
+
+	/**
+	 * @return The keywords in the feature vector.
+	 */
+	public List<KeywordUse> getKeywords() {
 
-		this.keywordMap.put(keyword,  count);
+		List<KeywordUse> keywords = new ArrayList<KeywordUse>(this.keywordCounts.size());
+		for(int id : this.keywordCounts.keys()) {
+			keywords.add(this.getKeyword(id));
+		}
+		return keywords;
+
+	}
+
+	/**
+	 * Increments the count of each of this feature vector's keyword ids by
+	 * one (i.e., counts the rows each keyword appears in).
+	 * @param counts The counts to update.
+	 */
+	public void addKeywordIDs(TIntIntHashMap counts) {
+
+		for(int id : this.keywordCounts.keys()) {
+			counts.adjustOrPutValue(id, 1, 1);
+		}
+
+	}
+
+	/**
+	 * @return The keywords in the feature vector and their counts.
+	 */
+	public Map<KeywordUse, Integer> getKeywordMap() {
+
+		Map<KeywordUse, Integer> keywordMap = new HashMap<KeywordUse, Integer>();
+		for(TIntIntIterator it = this.keywordCounts.iterator(); it.hasNext();) {
+			it.advance();
+			keywordMap.put(this.getKeyword(it.key()), it.value());
+		}
+		return keywordMap;
+
+	}
+
+	/**
+	 * @param keyword The keyword to look up. The keyword's API is ignored.
+	 * @return The number of times the keyword appears in the feature vector.
+	 */
+	public int getCount(KeywordDefinition keyword) {
+
+		/* A keyword definition matches the uses of the keyword in every
+		 * context and change type. */
+		int count = 0;
+		for(TIntIntIterator it = this.keywordCounts.iterator(); it.hasNext();) {
+			it.advance();
+			if(keyword.equals(KeywordUseDictionary.getKeyword(it.key()))) count += it.value();
+		}
+		return count;
 
 	}
 
@@ -96,17 +174,27 @@ public class FeatureVector extends Alert {
 	 */
 	public String serialize() {
 
-		String serialized = id + "," + this.ami.projectID + "," + this.ami.projectHomepage
-				+ "," + this.ami.buggyFile + "," + this.ami.repairedFile
-				+ "," + this.ami.buggyCommitID + "," + this.ami.repairedCommitID
-				+ "," + this.functionName;
-
-		for(KeywordUse keyword : this.keywordMap.keySet()) {
-			Integer uses = this.keywordMap.get(keyword);
-			serialized += "," + keyword.type + ":" + keyword.context + ":" + keyword.changeType + ":" + keyword.getPackageName() + ":" + keyword.keyword + ":" + uses;
+		StringBuilder serialized = new StringBuilder();
+		serialized.append(id).append(',').append(this.ami.projectID)
+				.append(',').append(this.ami.projectHomepage)
+				.append(',').append(this.ami.buggyFile)
+				.append(',').append(this.ami.repairedFile)
+				.append(',').append(this.ami.buggyCommitID)
+				.append(',').append(this.ami.repairedCommitID)
+				.append(',').append(this.functionName);
+
+		for(TIntIntIterator it = this.keywordCounts.iterator(); it.hasNext();) {
+			it.advance();
+			KeywordUse keyword = this.getKeyword(it.key());
+			serialized.append(',').append(keyword.type)
+					.append(':').append(keyword.context)
+					.append(':').append(keyword.changeType)
+					.append(':').append(keyword.getPackageName())
+					.append(':').append(keyword.keyword)
+					.append(':').append(it.value());
 		}
 
-		return serialized;
+		return serialized.toString();
 
 	}
 
@@ -126,7 +214,7 @@ public class FeatureVector extends Alert {
 				features[1], features[2], features[3], features[4], features[5],
 				features[6], null, null);
 
-		FeatureVector featureVector = new FeatureVector(ami, features[7], Integer.parseInt(features[0]));
+		FeatureVector featureVector = new FeatureVector(ami, features[7], Long.parseLong(features[0]));
 
 		for(int i = 8; i < features.length; i++) {
 			String[] feature = features[i].split(":");
@@ -143,73 +231,218 @@ public class FeatureVector extends Alert {
 	}
 
 	/**
-	 * Converts this feature vector into a Weka Instance.
+	 * Converts this feature vector into a sparse Weka Instance. Only the
+	 * meta info and the keywords that appear in this feature vector are
+	 * stored in the instance.
+	 * @param dataSet The data set the instance will be added to.
+	 * @param attributes The attributes of the data set.
+	 * @param keywords The keywords in the data set and their column indices.
 	 * @return This feature vector as a Weka Instance
 	 */
-	public Instance getWekaInstance(Instances dataSet, ArrayList<Attribute> attributes, Set<KeywordDefinition> keywords) {
+	public Instance getWekaInstance(Instances dataSet, ArrayList<Attribute> attributes, Map<KeywordDefinition, Integer> keywords) {
 
-		Instance instance = new DenseInstance(attributes.size());
-		instance.setDataset(dataSet);
+		/* Get the columns of the keywords in this feature vector. */
+		int[][] counts = this.getSparseCounts(keywords);
+		int[] keywordColumns = counts[0];
+
+		int[] indices = new int[9 + keywordColumns.length];
+		double[] values = new double[indices.length];
 
 		/* Set the meta info for the instance. */
-		instance.setValue(0, this.id);
-		instance.setValue(1, this.ami.projectID);
-		instance.setValue(2, this.ami.projectHomepage);
-		instance.setValue(3, this.ami.buggyFile);
-		instance.setValue(4, this.ami.repairedFile);
-		instance.setValue(5, this.ami.buggyCommitID);
-		instance.setValue(6, this.ami.repairedCommitID);
-		instance.setValue(7, this.functionName);
-		instance.setValue(8, "?"); // assigned cluster
+		String[] meta = { this.ami.projectID, this.ami.projectHomepage,
+				this.ami.buggyFile, this.ami.repairedFile,
+				this.ami.buggyCommitID, this.ami.repairedCommitID,
+				this.functionName, "?" }; // assigned cluster
+
+		int n = 0;
+		if(this.id != 0) {
+			indices[n] = 0;
+			values[n++] = this.id;
+		}
+		for(int i = 0; i < meta.length; i++) {
+			/* Missing meta info (e.g., a project without a homepage) is
+			 * stored as the reserved value. */
+			int value = dataSet.attribute(i + 1).addStringValue(meta[i] == null ? "?" : meta[i]);
+			if(value != 0) {
+				indices[n] = i + 1;
+				values[n++] = value;
+			}
+		}
 
 		/* Set the keyword values. */
-		int i = 9;
-		for(KeywordDefinition keyword : keywords) {
-			if(this.keywordMap.containsKey(keyword)) {
-				instance.setValue(i, this.keywordMap.get(keyword));
-			}
-			else {
-				instance.setValue(i, 0);
-			}
-			i++;
+		for(int i = 0; i < keywordColumns.length; i++) {
+			indices[n] = keywordColumns[i] + 9;
+			values[n++] = counts[1][i];
 		}
 
+		/* Zero values are not stored in a sparse instance. */
+		Instance instance = new SparseInstance(1.0, Arrays.copyOf(values, n),
+				Arrays.copyOf(indices, n), attributes.size());
+		instance.setDataset(dataSet);
+
 		return instance;
 
 	}
 
 	/**
 	 * Prints the meta features and the specified keyword values in the order they are provided.
-	 * @param keywords An ordered list of the keywords to print in the feature vector.
+	 * @param keywords The keywords to print in the feature vector and their column indices.
 	 * @return the CSV row (the feature vector) as a string.
 	 */
-	public String getFeatureVector(Set<KeywordDefinition> keywords) {
+	public String getFeatureVector(Map<KeywordDefinition, Integer> keywords) {
+
+		StringBuilder vector = new StringBuilder();
+		vector.append(id).append(',').append(this.ami.projectID)
+				.append(',').append(this.ami.projectHomepage)
+				.append(',').append(this.ami.buggyFile)
+				.append(',').append(this.ami.repairedFile)
+				.append(',').append(this.ami.buggyCommitID)
+				.append(',').append(this.ami.repairedCommitID)
+				.append(',').append(this.functionName);
+
+		for(int count : this.getCounts(keywords)) {
+			vector.append(',').append(count);
+		}
 
-		String vector = id + "," + this.ami.projectID + "," + this.ami.projectHomepage + ","
-				+ this.ami.buggyFile + "," + this.ami.repairedFile
-				+ "," + this.ami.buggyCommitID + "," + this.ami.repairedCommitID + "," + this.functionName;
+		return vector.toString();
 
-		for(KeywordDefinition keyword : keywords) {
-			if(this.keywordMap.containsKey(keyword)) vector += "," + this.keywordMap.get(keyword).toString();
-			else vector += ",0";
+	}
+
+	/**
+	 * Writes this feature vector as a row of a sparse ARFF file. The row is
+	 * the same as the sparse Weka instance from {@code getWekaInstance}, but
+	 * is written without adding the string values to the data set.
+	 * @param writer The writer to write the row to.
+	 * @param keywords The keywords in the data set and their column indices.
+	 * @throws IOException if the row cannot be written.
+	 */
+	public void writeSparseArff(Writer writer, Map<KeywordDefinition, Integer> keywords) throws IOException {
+
+		String[] meta = { this.ami.projectID, this.ami.projectHomepage,
+				this.ami.buggyFile, this.ami.repairedFile,
+				this.ami.buggyCommitID, this.ami.repairedCommitID,
+				this.functionName };
+
+		boolean first = true;
+		writer.write('{');
+
+		if(this.id != 0) {
+			writer.write("0 " + this.id);
+			first = false;
+		}
+
+		/* The first value of each string attribute ("?") is reserved, so it
+		 * is not stored in the sparse instance. Missing meta info is stored
+		 * as the reserved value. */
+		for(int i = 0; i < meta.length; i++) {
+			if(meta[i] == null || meta[i].equals("?")) continue;
+			if(!first) writer.write(',');
+			writer.write((i + 1) + " " + Utils.quote(meta[i]));
+			first = false;
+		}
+
+		int[][] counts = this.getSparseCounts(keywords);
+		for(int i = 0; i < counts[0].length; i++) {
+			if(!first) writer.write(',');
+			writer.write((counts[0][i] + 9) + " " + counts[1][i]);
+			first = false;
+		}
+
+		writer.write('}');
+
+	}
+
+	/**
+	 * Gets the counts of the keyword columns that are not zero.
+	 * @param keywords The keywords to include and their column indices.
+	 * @return The column indices (in ascending order) of the keywords that
+	 * 		   appear in this feature vector, followed by their counts. Keywords
+	 * 		   that are not in {@code keywords} are ignored.
+	 */
+	public int[][] getSparseCounts(Map<KeywordDefinition, Integer> keywords) {
+
+		TIntIntHashMap columns = new TIntIntHashMap(this.keywordCounts.size());
+		for(TIntIntIterator it = this.keywordCounts.iterator(); it.hasNext();) {
+			it.advance();
+			Integer column = keywords.get(KeywordUseDictionary.getKeyword(it.key()));
+			if(column != null) columns.adjustOrPutValue(column, it.value(), it.value());
+		}
+
+		int[] indices = columns.keys();
+		Arrays.sort(indices);
+
+		int n = 0;
+		int[] values = new int[indices.length];
+		for(int i = 0; i < indices.length; i++) {
+			int count = columns.get(indices[i]);
+			if(count == 0) continue;
+			indices[n] = indices[i];
+			values[n++] = count;
 		}
 
-		return vector;
+		return new int[][] { Arrays.copyOf(indices, n), Arrays.copyOf(values, n) };
+
+	}
+
+	/**
+	 * Gets the keyword counts in column order.
+	 * @param keywords The keywords in the data set and their column indices.
+	 * @return The count of each keyword column.
+	 */
+	private int[] getCounts(Map<KeywordDefinition, Integer> keywords) {
 
+		int[] counts = new int[keywords.size()];
+		for(TIntIntIterator it = this.keywordCounts.iterator(); it.hasNext();) {
+			it.advance();
+			Integer column = keywords.get(KeywordUseDictionary.getKeyword(it.key()));
+			if(column != null) counts[column] += it.value();
+		}
+		return counts;
+
+	}
+
+	/**
+	 * Gets the id of a keyword and, if this is the keyword's first use in
+	 * this feature vector, remembers the keyword's API.
+	 * @param keyword The keyword use.
+	 * @return The id of the keyword use.
+	 */
+	private int getID(KeywordUse keyword) {
+
+		int id = KeywordUseDictionary.getID(keyword);
+
+		if(!this.keywordCounts.containsKey(id) && !KeywordUseDictionary.hasSameAPI(id, keyword)) {
+			if(this.keywordAPIs == null) this.keywordAPIs = new TIntObjectHashMap<KeywordUse>();
+			this.keywordAPIs.put(id, keyword);
+		}
+
+		return id;
+
+	}
+
+	/**
+	 * @param id The id of a keyword use.
+	 * @return The first use of the keyword in this feature vector.
+	 */
+	private KeywordUse getKeyword(int id) {
+		KeywordUse keyword = this.keywordAPIs == null ? null : this.keywordAPIs.get(id);
+		return keyword == null ? KeywordUseDictionary.getKeyword(id) : keyword;
 	}
 
 	/**
 	 * @return The source code for the alert.
+	 * @throws IOException if the source file cannot be read.
 	 */
-	public String getSource() {
-		return this.ami.buggyCode;
+	public String getSource() throws IOException {
+		return this.ami.getBuggyCode();
 	}
 
 	/**
 	 * @return The destination code for the alert.
+	 * @throws IOException if the source file cannot be read.
 	 */
-	public String getDestination() {
-		return this.ami.repairedCode;
+	public String getDestination() throws IOException {
+		return this.ami.getRepairedCode();
 	}
 
 }
\ No newline at end of file
@@ -12,6 +12,7 @@ import ca.ubc.ece.salt.gumtree.ast.ClassifiedASTNode;
 import ca.ubc.ece.salt.gumtree.ast.ClassifiedASTNode.ChangeType;
 import ca.ubc.ece.salt.pangor.analysis.scope.Scope;
 import ca.ubc.ece.salt.pangor.batch.AnalysisMetaInformation;
+import ca.ubc.ece.salt.pangor.batch.SourceHandle;
 import ca.ubc.ece.salt.pangor.cfg.CFG;
 import ca.ubc.ece.salt.pangor.js.analysis.scope.ScopeAnalysis;
 import ca.ubc.ece.salt.pangor.learning.apis.APIFactory;
@@ -39,17 +40,26 @@ public class LearningASTAnalysis extends ScopeAnalysis<FeatureVector, LearningDa
 	 */
 	private int maxChangeComplexity;
 
+	/**
+	 * True if this analysis is run on the buggy (source) file, false if it is
+	 * run on the repaired (destination) file.
+	 */
+	private boolean buggy;
+
 	/**
 	 * @param dataSet The data set to register alerts with.
 	 * @param ami	The meta information.
 	 * @param maxChangeComplexity The maximum change complexity for the file.
 	 *   						  Files that have many changes are not likely
 	 *   						  to contain repetitive fault patterns.
+	 * @param buggy True if the analysis is run on the buggy (source) file,
+	 * 				false if it is run on the repaired (destination) file.
 	 */
-	public LearningASTAnalysis(LearningDataSet dataSet, AnalysisMetaInformation ami, int maxChangeComplexity){
+	public LearningASTAnalysis(LearningDataSet dataSet, AnalysisMetaInformation ami, int maxChangeComplexity, boolean buggy){
 		super(dataSet, ami);
 		this.featureVectors = new HashMap<Scope<AstNode>, FeatureVector>();
 		this.maxChangeComplexity = maxChangeComplexity;
+		this.buggy = buggy;
 		this.changeComplexity = -1;
 	}
 
@@ -120,22 +130,38 @@ public class LearningASTAnalysis extends ScopeAnalysis<FeatureVector, LearningDa
 	}
 
 	/**
-	 * Visit all the children of the function (that are not themselves
-	 * functions) and record their features.
+	 * Builds the points-to model for the script and records the features of
+	 * each function in the script.
 	 *
-	 * @param scope The function to inspect.
+	 * @param scope The script to inspect.
 	 */
 	private void inspectFunctions(Scope<AstNode> scope) {
 
-		/* Initialize the points-to analysis. It may take some time to build the package model.
+		/* Initialize the points-to analysis. The model only depends on the
+		 * script's keywords, so it is built once per file.
 		 *
 		 *  NOTE: In the future, it might be useful to put this inside
 		 *  	  ScopeAnalysis so all analyses have access to detailed
 		 *   	  points-to info (for APIs at least). */
 
 		FeatureVector classKeywords = LearningAnalysisVisitor.getScriptFeatureVector(this.ami, (AstRoot)this.dstScope.scope);
-		PointsToPrediction packageModel = new PointsToPrediction(APIFactory.buildTopLevelAPI(),
-				classKeywords.keywordMap);
+		PointsToPrediction packageModel = new PointsToPrediction(APIFactory.getTopLevelAPI(),
+				classKeywords.getKeywordMap());
+
+		this.inspectFunctions(scope, this.getSource(), this.getCode(), packageModel);
+
+	}
+
+	/**
+	 * Visit all the children of the function (that are not themselves
+	 * functions) and record their features.
+	 *
+	 * @param scope The function to inspect.
+	 * @param source The handle to the file the script was parsed from.
+	 * @param code The text of the file the script was parsed from.
+	 * @param packageModel The points-to model for the script.
+	 */
+	private void inspectFunctions(Scope<AstNode> scope, SourceHandle source, String code, PointsToPrediction packageModel) {
 
 		/* If the function was inserted or deleted, there is nothing to do. We
 		 * only want functions that were repaired. Class-level repairs are left
@@ -143,7 +169,7 @@ public class LearningASTAnalysis extends ScopeAnalysis<FeatureVector, LearningDa
 		if(scope.getScope().getChangeType() != ChangeType.INSERTED && scope.getScope().getChangeType() != ChangeType.REMOVED) {
 
             /* Visit the function to extract features. */
-			FeatureVector featureVector = LearningAnalysisVisitor.getFunctionFeatureVector(this.ami, (ScriptNode)scope.getScope(), packageModel);
+			FeatureVector featureVector = LearningAnalysisVisitor.getFunctionFeatureVector(this.ami, (ScriptNode)scope.getScope(), source, code, packageModel);
 
 			/* Add it to our list if there are features. */
 			this.featureVectors.put(scope, featureVector);
@@ -152,9 +178,27 @@ public class LearningASTAnalysis extends ScopeAnalysis<FeatureVector, LearningDa
 
 		/* Visit the child functions. */
 		for(Scope<AstNode> child : scope.getChildren()) {
-			inspectFunctions(child);
+			inspectFunctions(child, source, code, packageModel);
 		}
 
 	}
 
+	/**
+	 * @return The text of the file this analysis' script was parsed from.
+	 */
+	private String getCode() {
+		return this.buggy ? this.ami.buggyCode : this.ami.repairedCode;
+	}
+
+	/**
+	 * @return The handle to the file this analysis' script was parsed from.
+	 */
+	private SourceHandle getSource() {
+		SourceHandle source = this.buggy ? this.ami.buggySource : this.ami.repairedSource;
+
+		/* Files that were not read from a repository stay in memory. */
+		if(source == null && this.getCode() != null) return new SourceHandle(this.getCode());
+		return source;
+	}
+
 }
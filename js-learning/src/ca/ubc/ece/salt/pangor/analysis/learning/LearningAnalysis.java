@@ -37,8 +37,8 @@ public class LearningAnalysis extends MetaAnalysis<FeatureVector, LearningDataSe
 	 */
 	public LearningAnalysis(LearningDataSet featureVectorManager, AnalysisMetaInformation ami, int maxChangeComplexity) {
 		super(featureVectorManager, ami,
-				new LearningASTAnalysis(featureVectorManager, ami, maxChangeComplexity),
-				new LearningASTAnalysis(featureVectorManager, ami, maxChangeComplexity));
+				new LearningASTAnalysis(featureVectorManager, ami, maxChangeComplexity, true),
+				new LearningASTAnalysis(featureVectorManager, ami, maxChangeComplexity, false));
 		this.featureVectorManager = featureVectorManager;
 		this.maxChangeComplexity = maxChangeComplexity;
 	}
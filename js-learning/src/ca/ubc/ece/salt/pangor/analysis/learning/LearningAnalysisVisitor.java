@@ -21,8 +21,10 @@ import org.mozilla.javascript.ast.VariableDeclaration;
 
 import ca.ubc.ece.salt.gumtree.ast.ClassifiedASTNode.ChangeType;
 import ca.ubc.ece.salt.pangor.batch.AnalysisMetaInformation;
+import ca.ubc.ece.salt.pangor.batch.SourceHandle;
 import ca.ubc.ece.salt.pangor.js.analysis.AnalysisUtilities;
 import ca.ubc.ece.salt.pangor.js.analysis.SpecialTypeAnalysisUtilities;
+import ca.ubc.ece.salt.pangor.learning.apis.JavaScriptKeywords;
 import ca.ubc.ece.salt.pangor.learning.apis.KeywordDefinition.KeywordType;
 import ca.ubc.ece.salt.pangor.learning.apis.KeywordUse;
 import ca.ubc.ece.salt.pangor.learning.apis.KeywordUse.KeywordContext;
@@ -66,7 +68,7 @@ public class LearningAnalysisVisitor implements NodeVisitor {
 
 		/* Create the feature vector by visiting the function. */
 		LearningAnalysisVisitor visitor = new LearningAnalysisVisitor(ami,
-				AnalysisUtilities.getFunctionName(script), script, null, true);
+				AnalysisUtilities.getFunctionName(script), script, SourceSlice.EMPTY, null, true);
 		script.visit(visitor);
 
 		return visitor.featureVector;
@@ -76,14 +78,17 @@ public class LearningAnalysisVisitor implements NodeVisitor {
 	/**
 	 * Visits the script or function and returns a feature vector for it.
 	 * @param function the script or function to visit.
+	 * @param source the handle to the file the function was parsed from.
+	 * @param code the text of the file the function was parsed from.
 	 * @return the feature vector for the function.
 	 */
 	public static FeatureVector getFunctionFeatureVector(AnalysisMetaInformation ami,
-			ScriptNode function, PointsToPrediction packageModel) {
+			ScriptNode function, SourceHandle source, String code, PointsToPrediction packageModel) {
 
 		/* Create the feature vector by visiting the function. */
 		LearningAnalysisVisitor visitor = new LearningAnalysisVisitor(ami,
-				AnalysisUtilities.getFunctionName(function), function, packageModel, false);
+				AnalysisUtilities.getFunctionName(function), function,
+				SourceSlice.of(source, code, function), packageModel, false);
 		function.visit(visitor);
 
 		return visitor.featureVector;
@@ -91,10 +96,10 @@ public class LearningAnalysisVisitor implements NodeVisitor {
 
 
 	private LearningAnalysisVisitor(AnalysisMetaInformation ami,
-			String functionName, ScriptNode root,
+			String functionName, ScriptNode root, SourceSlice source,
 			PointsToPrediction packageModel, boolean visitFunctions) {
 		this.packageModel = packageModel;
-		this.featureVector = new FeatureVector(ami, functionName, root.toSource(), root.toSource());
+		this.featureVector = new FeatureVector(ami, functionName, source, source);
 		this.root = root;
 		this.visitFunctions = visitFunctions;
 	}
@@ -150,8 +155,7 @@ public class LearningAnalysisVisitor implements NodeVisitor {
 				keyword = this.packageModel.getKeyword(type, context, "falsey", changeType);
 			}
 			else {
-				keyword = new KeywordUse(type, context, "falsey", changeType);
-				keyword.apiString = "global";
+				keyword = new KeywordUse(type, context, "falsey", changeType, "global");
 			}
 
 			if(keyword != null) this.featureVector.addKeyword(keyword);
@@ -180,13 +184,10 @@ public class LearningAnalysisVisitor implements NodeVisitor {
 		else if(node instanceof Name) {
 			Name name = (Name) node;
 			token = name.getIdentifier();
-			if(token.matches("e|err|error|exception")) {
+			String alias = JavaScriptKeywords.getAlias(token);
+			if(alias != null) {
 				type = KeywordType.RESERVED;
-				token = "error";
-			}
-			else if(token.matches("cb|callb|callback")) {
-				type = KeywordType.RESERVED;
-				token = "callback";
+				token = alias;
 			}
 		}
 		else if(node instanceof KeywordLiteral) {
@@ -1,37 +1,37 @@
 package ca.ubc.ece.salt.pangor.analysis.learning;
 
-import java.io.BufferedReader;
+import java.io.BufferedWriter;
 import java.io.File;
-import java.io.FileNotFoundException;
 import java.io.FileOutputStream;
-import java.io.FileReader;
 import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
 import java.io.PrintStream;
+import java.io.StringWriter;
+import java.io.Writer;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashMap;
 import java.util.HashSet;
-import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.function.Predicate;
 
 import org.apache.commons.lang3.tuple.Pair;
 
-import weka.clusterers.DBSCAN;
+import gnu.trove.iterator.TIntIntIterator;
+import gnu.trove.map.hash.TIntIntHashMap;
 import weka.core.Attribute;
-import weka.core.Instance;
 import weka.core.Instances;
-import weka.core.ManhattanDistance;
 import weka.core.converters.ArffSaver;
-import weka.filters.Filter;
-import weka.filters.unsupervised.attribute.Remove;
-import weka.filters.unsupervised.attribute.RemoveByName;
 import ca.ubc.ece.salt.gumtree.ast.ClassifiedASTNode.ChangeType;
 import ca.ubc.ece.salt.pangor.analysis.DataSet;
+import ca.ubc.ece.salt.pangor.analysis.DataSetImporter;
 import ca.ubc.ece.salt.pangor.analysis.learning.KeywordFilter.FilterType;
 import ca.ubc.ece.salt.pangor.learning.apis.KeywordDefinition;
 import ca.ubc.ece.salt.pangor.learning.apis.KeywordUse;
+import ca.ubc.ece.salt.pangor.learning.apis.KeywordUseDictionary;
 import ca.ubc.ece.salt.pangor.learning.apis.KeywordDefinition.KeywordType;
 import ca.ubc.ece.salt.pangor.learning.apis.KeywordUse.KeywordContext;
 
@@ -89,14 +89,34 @@ public class LearningDataSet implements DataSet<FeatureVector> {
 	 * 					 cannot be read.
 	 */
 	public LearningDataSet(String dataSetPath, List<KeywordFilter> filters) throws Exception {
+		this(dataSetPath, filters, false);
+	}
+
+	/**
+	 * Used to produce a Weka data set. Create a {@code LearningDataSet} from
+	 * a file on disk, optionally pre-processing the rows as they are read.
+	 * @param filters Filters out rows by requiring keywords to be present.
+	 * @param preProcess If true, the data set is pre-processed while it is
+	 * 					 imported (see {@code preProcess}), so the rows that
+	 * 					 are filtered out are never stored.
+	 * @throws Exception Throws an exception when the {@code dataSetPath}
+	 * 					 cannot be read.
+	 */
+	public LearningDataSet(String dataSetPath, List<KeywordFilter> filters, boolean preProcess) throws Exception {
 		this.filters = filters;
 		this.keywords = new HashSet<KeywordDefinition>();
-		this.featureVectors = new LinkedList<FeatureVector>();
+		this.featureVectors = new ArrayList<FeatureVector>();
 		this.dataSetPath = dataSetPath;
 		this.supplementaryPath = null;
 
 		/* Read the data set file and de-serialize the feature vectors. */
-		this.importDataSet(dataSetPath);
+		if(preProcess) {
+			this.importDataSet(dataSetPath, this::isPreProcessed);
+			this.addKeywords();
+		}
+		else {
+			this.importDataSet(dataSetPath);
+		}
 	}
 
 	/**
@@ -108,7 +128,7 @@ public class LearningDataSet implements DataSet<FeatureVector> {
 	public LearningDataSet(String dataSetPath, String supplementaryPath) {
 		this.filters = null;
 		this.keywords = new HashSet<KeywordDefinition>();
-		this.featureVectors = new LinkedList<FeatureVector>();
+		this.featureVectors = new ArrayList<FeatureVector>();
 		this.dataSetPath = dataSetPath;
 		this.supplementaryPath = supplementaryPath;
 	}
@@ -122,7 +142,7 @@ public class LearningDataSet implements DataSet<FeatureVector> {
 
 		this.filters = filters;
 		this.keywords = new HashSet<KeywordDefinition>();
-		this.featureVectors = new LinkedList<FeatureVector>();
+		this.featureVectors = new ArrayList<FeatureVector>();
 		this.dataSetPath = null;
 		this.supplementaryPath = null;
 
@@ -134,23 +154,22 @@ public class LearningDataSet implements DataSet<FeatureVector> {
 	 * @throws Exception Occurs when the data set file cannot be read.
 	 */
 	public void importDataSet(String dataSetPath) throws Exception {
+		this.importDataSet(dataSetPath, featureVector -> true);
+	}
 
-		try(BufferedReader reader = new BufferedReader(new FileReader(dataSetPath))) {
-
-			for (String serialFeatureVector = reader.readLine();
-					serialFeatureVector != null;
-					serialFeatureVector = reader.readLine()) {
-
-				FeatureVector featureVector = FeatureVector.deSerialize(serialFeatureVector);
-
-				this.featureVectors.add(featureVector);
+	/**
+	 * Import the rows of a data set that pass a filter.
+	 * @param dataSetPath The file path where the data set is stored.
+	 * @param include Returns true if the feature vector should be imported.
+	 * @throws Exception Occurs when the data set file cannot be read.
+	 */
+	private void importDataSet(String dataSetPath, Predicate<FeatureVector> include) throws Exception {
 
-			}
-
-		}
-		catch(Exception e) {
-			throw e;
-		}
+		/* De-serialize and filter the feature vectors in parallel. */
+		this.featureVectors.addAll(DataSetImporter.importRows(dataSetPath, serialFeatureVector -> {
+			FeatureVector featureVector = FeatureVector.deSerialize(serialFeatureVector);
+			return include.test(featureVector) ? featureVector : null;
+		}));
 
 	}
 
@@ -194,7 +213,7 @@ public class LearningDataSet implements DataSet<FeatureVector> {
 		List<KeywordFilter> filters = Arrays.asList(insertedFilter, removedFilter);
 
 		/* Include this row in the output if it passes the filters. */
-		if(LearningDataSet.includeRow(featureVector.keywordMap.keySet(), filters)) {
+		if(LearningDataSet.includeRow(featureVector.getKeywords(), filters)) {
 
 			/* The path to the file may not exist. Create it if needed. */
 			File path = new File(this.dataSetPath);
@@ -202,7 +221,7 @@ public class LearningDataSet implements DataSet<FeatureVector> {
 			path.createNewFile();
 
 			/* May throw IOException if the path does not exist. */
-			PrintStream stream = new PrintStream(new FileOutputStream(path, true));
+			PrintStream stream = new PrintStream(new FileOutputStream(path, true), false, DataSetImporter.CHARSET.name());
 
 			/* Write the data set. */
 			stream.println(featureVector.serialize());
@@ -235,6 +254,13 @@ public class LearningDataSet implements DataSet<FeatureVector> {
 		attributes.add(new Attribute("FunctionName", (ArrayList<String>)null, 7));
 		attributes.add(new Attribute("Cluster", (ArrayList<String>) null, 8));
 
+		/* Sparse instances do not store values that are zero, so reserve the
+		 * first value of each string attribute. Otherwise, the first value
+		 * would be lost when the data set is written to an ARFF file. */
+		for(int j = 1; j <= 8; j++) {
+			attributes.get(j).addStringValue("?");
+		}
+
 		int i = 9;
 		for(KeywordDefinition keyword : this.keywords) {
 			attributes.add(new Attribute(keyword.toString(), i));
@@ -252,15 +278,15 @@ public class LearningDataSet implements DataSet<FeatureVector> {
 	 */
 	public String getFeatureVectorHeader() {
 
-		String header = String.join(",", "ID", "ProjectID", "ProjectHomepage", "BuggyFile",
-				"RepairedFile", "BuggyCommitID", "RepairedCommitID",
-				"FunctionName");
+		StringBuilder header = new StringBuilder(String.join(",", "ID", "ProjectID",
+				"ProjectHomepage", "BuggyFile", "RepairedFile", "BuggyCommitID",
+				"RepairedCommitID", "FunctionName"));
 
 		for(KeywordDefinition keyword : this.keywords) {
-			header += "," + keyword.toString();
+			header.append(',').append(keyword.toString());
 		}
 
-		return header;
+		return header.toString();
 
 	}
 
@@ -271,13 +297,49 @@ public class LearningDataSet implements DataSet<FeatureVector> {
 	 */
 	public String getFeatureVector() {
 
-		String dataSet = "";
+		StringWriter dataSet = new StringWriter();
+
+		try {
+			this.writeFeatureVector(dataSet);
+		} catch (IOException e) {
+			/* StringWriter does not throw IOExceptions. */
+		}
+
+		return dataSet.toString();
+
+	}
+
+	/**
+	 * Writes the feature vectors (rows) as CSV, one row at a time.
+	 * @param writer The writer to write the data set to.
+	 * @throws IOException if the data set cannot be written.
+	 */
+	public void writeFeatureVector(Writer writer) throws IOException {
+
+		Map<KeywordDefinition, Integer> keywordIndex = this.getKeywordIndex();
 
 		for(FeatureVector featureVector : this.featureVectors) {
-			dataSet += featureVector.getFeatureVector(keywords) + "\n";
+			writer.write(featureVector.getFeatureVector(keywordIndex));
+			writer.write("\n");
 		}
 
-		return dataSet;
+	}
+
+	/**
+	 * @return The column index of each keyword (in the order of
+	 * 		   {@code keywords}).
+	 */
+	private Map<KeywordDefinition, Integer> getKeywordIndex() {
+
+		Map<KeywordDefinition, Integer> keywordIndex = new HashMap<KeywordDefinition, Integer>();
+
+		int i = 0;
+		for(KeywordDefinition keyword : this.keywords) {
+			keywordIndex.put(keyword, i);
+			i++;
+		}
+
+		return keywordIndex;
 
 	}
 
@@ -302,22 +364,19 @@ public class LearningDataSet implements DataSet<FeatureVector> {
 		/* The metrics object. */
 		LearningMetrics metrics = new LearningMetrics();
 
-		/* Compute the frequency of keywords. */
-		Map<KeywordUse, Integer> counts = new HashMap<KeywordUse, Integer>();
+		/* Compute the frequency of keyword ids. */
+		TIntIntHashMap idCounts = new TIntIntHashMap();
 		for(FeatureVector featureVector : this.featureVectors) {
 
 			/* Increment all the keywords that appear in this feature vector. */
-			for(KeywordUse keyword : featureVector.keywordMap.keySet()) {
-				Integer count = counts.get(keyword);
-				count = count == null ?  1 : count + 1;
-				counts.put(keyword, count);
-			}
+			featureVector.addKeywordIDs(idCounts);
 
 		}
 
 		/* Create the ordered set of keywords. */
-		for(KeywordUse keyword : counts.keySet()) {
-			metrics.addKeywordFrequency(keyword, counts.get(keyword));
+		for(TIntIntIterator it = idCounts.iterator(); it.hasNext();) {
+			it.advance();
+			metrics.addKeywordFrequency(KeywordUseDictionary.getKeyword(it.key()), it.value());
 		}
 
 
@@ -332,54 +391,37 @@ public class LearningDataSet implements DataSet<FeatureVector> {
 	 */
 	public void preProcess() {
 
-		/* Remove rows that do not reference the packages we are interested in. */
-
-		List<FeatureVector> toRemove = new LinkedList<FeatureVector>();
-		for(FeatureVector featureVector : this.featureVectors) {
-
-			/* Check if the feature vector references the any of the interesting packages. */
-			if(!includeRow(featureVector.keywordMap.keySet())) {
-
-				/* Schedule this FeatureVector for removal. */
-				toRemove.add(featureVector);
+		/* Remove rows that do not reference the packages we are interested in
+		 * or that do not fall within the desired change score. */
+		this.featureVectors.removeIf(featureVector -> !this.isPreProcessed(featureVector));
 
-			}
-
-		}
-
-		for(FeatureVector featureVector : toRemove) {
-			this.featureVectors.remove(featureVector);
-		}
-
-		/* Remove rows that do not fall within the desired change score. */
-
-		toRemove = new LinkedList<FeatureVector>();
-		for(FeatureVector featureVector : this.featureVectors) {
-
-			/* Check if the feature vector references the any of the interesting packages. */
-			if(getChangeScore(featureVector.keywordMap.keySet()) == 0) {
-
-				/* Schedule this FeatureVector for removal. */
-				toRemove.add(featureVector);
-
-			}
-
-		}
+		/* Get the set of keywords from all the feature vectors. */
+		this.addKeywords();
 
-		for(FeatureVector featureVector : toRemove) {
-			this.featureVectors.remove(featureVector);
-		}
+	}
 
-		/* Get the set of keywords from all the feature vectors. */
+	/**
+	 * @param featureVector A row from the data set.
+	 * @return True if the row is kept by pre-processing (i.e., it references
+	 * 		   the packages we are interested in and some of its keywords
+	 * 		   changed).
+	 */
+	private boolean isPreProcessed(FeatureVector featureVector) {
+		List<KeywordUse> keywords = featureVector.getKeywords();
+		return includeRow(keywords) && getChangeScore(keywords) != 0;
+	}
 
+	/**
+	 * Adds the keywords from all the feature vectors to the set of keywords.
+	 */
+	private void addKeywords() {
 		for(FeatureVector featureVector : this.featureVectors) {
-			for(KeywordDefinition keyword : featureVector.keywordMap.keySet()) keywords.add(keyword);
+			for(KeywordDefinition keyword : featureVector.getKeywords()) keywords.add(keyword);
 		}
-
 	}
 
 	/**
-	 * Converts this data set to a set of Weka Instances.
+	 * Converts this data set to a set of sparse Weka Instances.
 	 * @return The Weka data set.
 	 */
 	public Instances getWekaDataSet() {
@@ -389,8 +431,10 @@ public class LearningDataSet implements DataSet<FeatureVector> {
 		Instances dataSet = new Instances("DataSet", attributes, 0);
 		dataSet.setClassIndex(-1);
 
+		Map<KeywordDefinition, Integer> keywordIndex = this.getKeywordIndex();
+
 		for(FeatureVector featureVector : this.featureVectors) {
-			dataSet.add(featureVector.getWekaInstance(dataSet, attributes, this.keywords));
+			dataSet.add(featureVector.getWekaInstance(dataSet, attributes, keywordIndex));
 		}
 
 		return dataSet;
@@ -398,89 +442,77 @@ public class LearningDataSet implements DataSet<FeatureVector> {
 
 	/**
 	 * Generates the clusters for this data set using DBScan, epsilon = 0.01 and
-	 * min = 25.
+	 * min = 30. Clusters the changed API methods and properties.
 	 *
 	 * @return The number of instances in each cluster. The array index is the
 	 *         cluster number.
 	 * @throws Exception
 	 */
 	public int[] getWekaClusters() throws Exception {
+		return this.getWekaClusters(new ClusteringFilter());
+	}
+
+	/**
+	 * Generates the clusters for this data set using DBScan, epsilon = 0.01 and
+	 * min = 30.
+	 *
+	 * @param filter Selects the keywords (columns) to cluster.
+	 * @return The number of instances in each cluster. The array index is the
+	 *         cluster number.
+	 * @throws Exception
+	 */
+	public int[] getWekaClusters(ClusteringFilter filter) throws Exception {
 
 		/* Convert the data set to a Weka-usable format. */
 		wekaData = this.getWekaDataSet();
 
-		/* Filter out the columns we don't want. */
-		String[] removeOptions = new String[2];
-		removeOptions[0] = "-R";
-		removeOptions[1] = "1-9";
-		Remove remove = new Remove();
-		remove.setOptions(removeOptions);
-		remove.setInputFormat(wekaData);
-		Instances filteredData = Filter.useFilter(wekaData, remove);
-
-		/* Filter out the UNCHANGED columns. */
-		String[] removeByNameOptions = new String[2];
-		removeByNameOptions[0] = "-E";
-		removeByNameOptions[1] = ".*UNCHANGED.*";
-		RemoveByName removeByName = new RemoveByName();
-		removeByName.setOptions(removeByNameOptions);
-		removeByName.setInputFormat(filteredData);
-		filteredData = Filter.useFilter(filteredData, removeByName);
-
-		/* Filter out the statement columns. */
-		String[] removeKeywordOptions = new String[2];
-		removeKeywordOptions[0] = "-E";
-		/* Attribute filter for Context Group 0 (Statements) */
-//		removeKeywordOptions[1] = "(.*_falsey.*)|(.*_this.*)|(.*_STATEMENT_.*)|(.*_global_test)";
-		/* Attribute filter for Context Group 1 (Common Reserved Words and Operators) */
-//		removeKeywordOptions[1] = "(.*_global_test)";
-		/* Attribute filter for Context Group 2 (Reserved Words and Operators) */
-//		removeKeywordOptions[1] = "(.*_falsey.*)|(.*_this.*)|(.*_STATEMENT_.*)|(.*_global_test)";
-		/* Attribute filter for Context Group 3 (API Methods and Properties). */
-		removeKeywordOptions[1] = "(.*typeof.*)|(.*null.*)|(.*undefined.*)|(.*falsey.*)|(.*this.*)|(.*true.*)|(.*false.*)|(.*_STATEMENT.*)|(.*_global_test)";
-		RemoveByName removeKeyword = new RemoveByName();
-		removeKeyword.setOptions(removeKeywordOptions);
-		removeKeyword.setInputFormat(filteredData);
-		filteredData = Filter.useFilter(filteredData, removeKeyword);
-
-		/* Set up the distance function. We want Manhattan Distance. */
-		ManhattanDistance distanceFunction = new ManhattanDistance();
-		String[] distanceFunctionOptions = "-R first-last".split("\\s");
-		distanceFunction.setOptions(distanceFunctionOptions);
-
-		/* DBScan Clusterer. */
-		DBSCAN dbScan = new DBSCAN();
-		String[] dbScanClustererOptions = "-E 0.01 -M 30".split("\\s");
-		dbScan.setOptions(dbScanClustererOptions);
-		dbScan.setDistanceFunction(distanceFunction);
-		dbScan.buildClusterer(filteredData);
+		/* Select the columns we want. The columns keep the order they have in
+		 * the Weka data set. */
+		Map<KeywordDefinition, Integer> columns = new HashMap<KeywordDefinition, Integer>();
+		for(KeywordDefinition keyword : this.keywords) {
+			if(filter.include((KeywordUse) keyword)) columns.put(keyword, columns.size());
+		}
+
+		/* Build the clustering data set directly from the feature vectors. */
+		int[][] indices = new int[this.featureVectors.size()][];
+		int[][] values = new int[this.featureVectors.size()][];
+		int i = 0;
+		for(FeatureVector featureVector : this.featureVectors) {
+			int[][] counts = featureVector.getSparseCounts(columns);
+			indices[i] = counts[0];
+			values[i] = counts[1];
+			i++;
+		}
+
+		/* DBScan Clusterer (equivalent to Weka's DBSCAN with a Manhattan
+		 * distance function). */
+		SparseDBSCAN dbScan = new SparseDBSCAN(0.01, 30);
+		dbScan.buildClusterer(indices, values, columns.size());
 
 		/* Initialize the array for storing cluster metrics. */
 		int[] clusters = new int[dbScan.numberOfClusters()];
-		for(int i = 0; i < clusters.length; i++) clusters[i] = 0;
+		for(i = 0; i < clusters.length; i++) clusters[i] = 0;
 
 		/* Compute the metrics for the clustering. */
-		for (Instance instance : wekaData) {
-			try {
-				Integer cluster = dbScan.clusterInstance(instance);
-				instance.setValue(8, "cluster" + cluster.toString());
-				clusters[cluster]++;
-			} catch (Exception ignore) { }
+		for(i = 0; i < wekaData.numInstances(); i++) {
+			int cluster = dbScan.clusterLabel(i);
+			if(cluster == SparseDBSCAN.NOISE) continue;
+			wekaData.instance(i).setValue(8, "cluster" + cluster);
+			clusters[cluster]++;
 		}
 
 		return clusters;
 	}
 
-
 	/**
-	 * Print the data set to a file. The filtered data set will be in a CSV
-	 * format that can be imported directly into Weka.
+	 * Print the data set to a file. The filtered data set will be in a sparse
+	 * ARFF format that can be imported directly into Weka.
 	 * @param outFile The file to write the filtered data set to.
 	 */
 	public void writeFilteredDataSet(String outFile) {
 
 		/* Open the file stream for writing if a file has been given. */
-		PrintStream stream = System.out;
+		OutputStream stream = System.out;
 
 		if(outFile != null) {
 			try {
@@ -491,18 +523,37 @@ public class LearningDataSet implements DataSet<FeatureVector> {
 				File path = new File(outFile);
 				path.getParentFile().mkdirs();
 
-				stream = new PrintStream(new FileOutputStream(outFile));
+				stream = new FileOutputStream(outFile);
 			}
 			catch (IOException e) {
 				System.err.println(e.getMessage());
 			}
 		}
 
-		/* Write the header for the feature vector. */
-		stream.println(this.getFeatureVectorHeader());
+		Writer writer = new BufferedWriter(new OutputStreamWriter(stream));
 
-		/* Write the data set. */
-		stream.println(this.getFeatureVector());
+		try {
+
+			/* Write the header for the feature vector. */
+			writer.write(new Instances("DataSet", this.getWekaAttributes(), 0).toString());
+			writer.write("\n");
+
+			/* Write the data set one row at a time. Only the non-zero values
+			 * of each row are written. */
+			Map<KeywordDefinition, Integer> keywordIndex = this.getKeywordIndex();
+			for(FeatureVector featureVector : this.featureVectors) {
+				featureVector.writeSparseArff(writer, keywordIndex);
+				writer.write("\n");
+			}
+
+			/* Don't close System.out. */
+			if(stream == System.out) writer.flush();
+			else writer.close();
+
+		}
+		catch (IOException e) {
+			System.err.println(e.getMessage());
+		}
 
 	}
 
@@ -510,7 +561,7 @@ public class LearningDataSet implements DataSet<FeatureVector> {
 	 * @param keywords The keywords from a feature vector.
 	 * @return True if the keyword set matches an include filter.
 	 */
-	private boolean includeRow(Set<KeywordUse> keywords) {
+	private boolean includeRow(List<KeywordUse> keywords) {
 		return includeRow(keywords, this.filters);
 	}
 
@@ -519,7 +570,7 @@ public class LearningDataSet implements DataSet<FeatureVector> {
 	 * @param filers The filters to apply to the row.
 	 * @return True if the keyword set matches an include filter.
 	 */
-	private static boolean includeRow(Set<KeywordUse> keywords, List<KeywordFilter> filters) {
+	private static boolean includeRow(List<KeywordUse> keywords, List<KeywordFilter> filters) {
 		for(KeywordUse keyword : keywords) {
 			for(KeywordFilter filter : filters) {
 
@@ -547,7 +598,7 @@ public class LearningDataSet implements DataSet<FeatureVector> {
 	 * 		   respect to its keywords. A score of zero means no keywords
 	 * 		   changed.
 	 */
-	private int getChangeScore(Set<KeywordUse> keywords) {
+	private int getChangeScore(List<KeywordUse> keywords) {
 
 		int score = 0;
 
@@ -563,7 +614,8 @@ public class LearningDataSet implements DataSet<FeatureVector> {
 	}
 
 	/**
-	 * Writes the result of a clustering on an ARFF file
+	 * Writes the result of a clustering on an ARFF file. The instances are
+	 * sparse, so the file is written in the sparse ARFF format.
 	 *
 	 * @param outputFolder The folder were the ARFF files will be stored
 	 * @param filename The filename (usually keyword toString representation)
@@ -604,13 +656,14 @@ public class LearningDataSet implements DataSet<FeatureVector> {
 		try (PrintStream srcStream = new PrintStream(new FileOutputStream(src));
 			 PrintStream dstStream = new PrintStream(new FileOutputStream(dst));) {
 
-			srcStream.print(featureVector.buggyFunctionCode);
-			dstStream.print(featureVector.repairedFunctionCode);
+			/* The files are still being analyzed, so their text is in memory. */
+			srcStream.print(featureVector.buggyFunctionCode.getText(featureVector.ami));
+			dstStream.print(featureVector.repairedFunctionCode.getText(featureVector.ami));
 
 			srcStream.close();
 			dstStream.close();
 
-		} catch (FileNotFoundException e) {
+		} catch (IOException e) {
 			System.err.println(e.getMessage());
 		}
 
@@ -628,8 +681,7 @@ public class LearningDataSet implements DataSet<FeatureVector> {
 		outer:
 		for(FeatureVector featureVector : this.featureVectors) {
 			for(Pair<KeywordUse, Integer> keyword : keywords) {
-				if(keyword.getRight() > 0 && !featureVector.keywordMap.containsKey(keyword.getLeft())) continue outer;
-				if(keyword.getRight() > 0 && !featureVector.keywordMap.get(keyword.getLeft()).equals(keyword.getRight())) continue outer;
+				if(keyword.getRight() > 0 && featureVector.getCount(keyword.getLeft()) != keyword.getRight()) continue outer;
 			}
 			return true;
 		}
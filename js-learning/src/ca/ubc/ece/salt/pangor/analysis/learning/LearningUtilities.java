@@ -1,8 +1,5 @@
 package ca.ubc.ece.salt.pangor.analysis.learning;
 
-import java.util.Arrays;
-import java.util.List;
-
 import org.mozilla.javascript.Token;
 import org.mozilla.javascript.ast.Assignment;
 import org.mozilla.javascript.ast.AstNode;
@@ -24,6 +21,7 @@ import org.mozilla.javascript.ast.VariableDeclaration;
 import org.mozilla.javascript.ast.VariableInitializer;
 
 import ca.ubc.ece.salt.pangor.js.analysis.SpecialTypeAnalysisUtilities;
+import ca.ubc.ece.salt.pangor.learning.apis.JavaScriptKeywords;
 import ca.ubc.ece.salt.pangor.learning.apis.KeywordDefinition.KeywordType;
 import ca.ubc.ece.salt.pangor.learning.apis.KeywordUse.KeywordContext;
 
@@ -72,22 +70,9 @@ public class LearningUtilities {
 	 */
 	private static boolean isJavaScriptReservedLiteral(AstNode token) {
 
-		List<String> JAVASCRIPT_RESERVED_WORDS = Arrays.asList( "abstract",
-				"arguments", "boolean", "break", "byte", "case", "catch",
-				"char", "class", "const", "continue", "debugger", "default",
-				"delete", "do", "double", "else", "enum", "eval", "export",
-				"extends", "false", "final", "finally", "float", "for",
-				"function", "goto", "if", "implements", "import", "in",
-				"instanceof", "int", "interface", "let", "long", "native",
-				"new", "null", "package", "private", "protected", "public",
-				"return", "short", "static", "super", "switch", "synchronized",
-				"this", "undefined", "throw", "throws", "transient", "true",
-				"try", "typeof", "var", "void", "volatile", "while", "with",
-				"yield");
-
 		if(token instanceof Name) {
 			Name name = (Name) token;
-			if(JAVASCRIPT_RESERVED_WORDS.contains(name.getIdentifier())) {
+			if(JavaScriptKeywords.isReserved(name.getIdentifier())) {
 				return true;
 			}
 		}
@@ -119,7 +104,9 @@ public class LearningUtilities {
 		}
 		else if(token instanceof StringLiteral) {
 
-			if(((StringLiteral)token).toSource().equals("\"\"")) {
+			/* Only the double quoted blank string is reserved. */
+			StringLiteral literal = (StringLiteral) token;
+			if(literal.getValue().isEmpty() && literal.getQuoteCharacter() == '"') {
 				return KeywordType.RESERVED;
 			}
 		}
@@ -0,0 +1,82 @@
+package ca.ubc.ece.salt.pangor.analysis.learning;
+
+import java.io.IOException;
+
+import org.mozilla.javascript.ast.AstNode;
+
+import ca.ubc.ece.salt.pangor.batch.AnalysisMetaInformation;
+import ca.ubc.ece.salt.pangor.batch.SourceHandle;
+
+/**
+ * A fragment of a source file (e.g., a function), stored as a handle to the
+ * file and an offset and length into the file's text. The fragment's text is
+ * only created when it is needed (e.g., when supplementary files are
+ * written), so feature vectors do not keep the file's text in memory.
+ */
+public class SourceSlice {
+
+	/** An empty slice (for feature vectors without source code). **/
+	public static final SourceSlice EMPTY = new SourceSlice(SourceHandle.EMPTY, 0, 0);
+
+	/** The handle to the entire file. **/
+	private final SourceHandle source;
+
+	/** The position of the fragment in the file. **/
+	private final int offset;
+
+	/** The length of the fragment. **/
+	private final int length;
+
+	/**
+	 * @param source The handle to the entire file.
+	 * @param offset The position of the fragment in the file.
+	 * @param length The length of the fragment.
+	 */
+	public SourceSlice(SourceHandle source, int offset, int length) {
+		this.source = source;
+		this.offset = offset;
+		this.length = length;
+	}
+
+	/**
+	 * Creates a slice for the source code of an AST node.
+	 * @param source The handle to the file the node was parsed from.
+	 * @param code The text of the file the node was parsed from.
+	 * @param node The AST node.
+	 * @return The slice of {@code code} that the node was parsed from. If the
+	 * 		   node's position is not in {@code code} (e.g., the node was
+	 * 		   created by pre-processing), the slice contains the source code
+	 * 		   generated from the node.
+	 */
+	public static SourceSlice of(SourceHandle source, String code, AstNode node) {
+		int offset = node.getAbsolutePosition();
+		int length = node.getLength();
+
+		if(source == null || code == null || offset < 0 || length < 0 || offset + length > code.length()) {
+			String generated = node.toSource();
+			return new SourceSlice(new SourceHandle(generated), 0, generated.length());
+		}
+
+		return new SourceSlice(source, offset, length);
+	}
+
+	/**
+	 * @return The text of the fragment.
+	 * @throws IOException if the file cannot be read.
+	 */
+	public String getText() throws IOException {
+		return this.source.getCode().substring(this.offset, this.offset + this.length);
+	}
+
+	/**
+	 * Reads the text of the fragment from the analyzed file's text while it
+	 * is still in memory, so the repository is not read again.
+	 * @param ami The meta information of the analyzed files.
+	 * @return The text of the fragment.
+	 * @throws IOException if the file cannot be read.
+	 */
+	public String getText(AnalysisMetaInformation ami) throws IOException {
+		return ami.getCode(this.source).substring(this.offset, this.offset + this.length);
+	}
+
+}
@@ -0,0 +1,435 @@
+package ca.ubc.ece.salt.pangor.analysis.learning;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import gnu.trove.list.array.TIntArrayList;
+
+/**
+ * A DBSCAN clusterer for sparse keyword count vectors.
+ *
+ * Produces the same clusters as Weka's {@code DBSCAN} with a normalized
+ * {@code ManhattanDistance}, but avoids the brute-force neighbourhood search:
+ *
+ *	1. Identical vectors have identical neighbourhoods, so each distinct
+ *	   vector is only queried once.
+ *	2. An inverted index on keywords prunes the candidate neighbours. For a
+ *	   small epsilon, a neighbour must contain each keyword whose count alone
+ *	   would put it out of range.
+ *	3. The region queries are independent, so they are run in parallel.
+ */
+public class SparseDBSCAN {
+
+	/** The label of instances which have not been visited. **/
+	private static final int UNCLASSIFIED = -2;
+
+	/** The label of instances which do not belong to a cluster. **/
+	public static final int NOISE = -1;
+
+	/** The radius of the neighbourhood (exclusive). **/
+	private double epsilon;
+
+	/** The minimum number of instances in a core instance's neighbourhood. **/
+	private int minPoints;
+
+	/** The minimum value of each attribute. **/
+	private double[] min;
+
+	/** The range of each attribute (zero if the attribute is constant). **/
+	private double[] width;
+
+	/** The distinct vectors in the data set. **/
+	private List<Vector> vectors;
+
+	/** The instances which have each distinct vector. **/
+	private List<TIntArrayList> members;
+
+	/** The ids of the distinct vectors that contain each attribute. **/
+	private TIntArrayList[] postings;
+
+	/** The ids of the distinct vectors with no heavy attributes. **/
+	private TIntArrayList light;
+
+	/** The cluster (or {@code NOISE}) of each instance. **/
+	private int[] labels;
+
+	/** The number of clusters that were generated. **/
+	private int numberOfClusters;
+
+	/**
+	 * @param epsilon The radius of the neighbourhood (i.e., Weka's -E).
+	 * @param minPoints The minimum number of instances in a core instance's
+	 * 					neighbourhood (i.e., Weka's -M).
+	 */
+	public SparseDBSCAN(double epsilon, int minPoints) {
+		this.epsilon = epsilon;
+		this.minPoints = minPoints;
+	}
+
+	/**
+	 * Clusters the instances.
+	 * @param indices The attributes of each instance that are not zero (in
+	 * 				  ascending order).
+	 * @param values The values of the attributes in {@code indices}.
+	 * @param numAttributes The number of attributes (columns).
+	 */
+	public void buildClusterer(int[][] indices, int[][] values, int numAttributes) {
+
+		int n = indices.length;
+
+		this.computeRanges(indices, values, numAttributes);
+		this.indexVectors(indices, values, numAttributes);
+
+		/* Query the neighbourhood of each distinct vector. */
+		int[][] neighbourhoods = new int[this.vectors.size()][];
+		Arrays.parallelSetAll(neighbourhoods, this::regionQuery);
+
+		/* The number of instances in each distinct vector's neighbourhood. */
+		int[] neighbourhoodSizes = new int[neighbourhoods.length];
+		for(int i = 0; i < neighbourhoods.length; i++) {
+			for(int neighbour : neighbourhoods[i]) {
+				neighbourhoodSizes[i] += this.members.get(neighbour).size();
+			}
+		}
+
+		this.labels = new int[n];
+		Arrays.fill(this.labels, UNCLASSIFIED);
+		this.numberOfClusters = 0;
+
+		int[] vectorOf = new int[n];
+		for(int i = 0; i < this.members.size(); i++) {
+			for(int instance : this.members.get(i).toArray()) vectorOf[instance] = i;
+		}
+
+		/* True if the neighbourhood of the distinct vector has been added to
+		 * a cluster. */
+		boolean[] expanded = new boolean[this.vectors.size()];
+
+		for(int instance : getDatabaseOrder(n)) {
+
+			if(this.labels[instance] != UNCLASSIFIED) continue;
+
+			int vector = vectorOf[instance];
+
+			/* The instance is not a core instance. */
+			if(neighbourhoodSizes[vector] < this.minPoints) {
+				this.labels[instance] = NOISE;
+				continue;
+			}
+
+			/* The instance is a core instance. Everything in its
+			 * neighbourhood is (re-)assigned to the new cluster. */
+			int cluster = this.numberOfClusters;
+			Deque<Integer> seeds = new ArrayDeque<Integer>();
+			for(int neighbour : neighbourhoods[vector]) {
+				for(int member : this.members.get(neighbour).toArray()) this.labels[member] = cluster;
+				if(neighbour != vector) seeds.add(neighbour);
+			}
+			expanded[vector] = true;
+
+			/* Expand the cluster through the core instances in the
+			 * neighbourhood. */
+			while(!seeds.isEmpty()) {
+
+				int seed = seeds.poll();
+				if(expanded[seed] || neighbourhoodSizes[seed] < this.minPoints) continue;
+				expanded[seed] = true;
+
+				for(int neighbour : neighbourhoods[seed]) {
+					boolean unclassified = false;
+					for(int member : this.members.get(neighbour).toArray()) {
+						if(this.labels[member] == UNCLASSIFIED) unclassified = true;
+						if(this.labels[member] == UNCLASSIFIED || this.labels[member] == NOISE) {
+							this.labels[member] = cluster;
+						}
+					}
+					if(unclassified) seeds.add(neighbour);
+				}
+
+			}
+
+			this.numberOfClusters++;
+
+		}
+
+	}
+
+	/**
+	 * @return The number of clusters that were generated.
+	 */
+	public int numberOfClusters() {
+		return this.numberOfClusters;
+	}
+
+	/**
+	 * @param instance The index of an instance.
+	 * @return The cluster of the instance or {@code NOISE}.
+	 */
+	public int clusterLabel(int instance) {
+		return this.labels[instance];
+	}
+
+	/**
+	 * Computes the minimum value and range of each attribute. Attributes that
+	 * are not stored in an instance have a value of zero.
+	 */
+	private void computeRanges(int[][] indices, int[][] values, int numAttributes) {
+
+		int[] min = new int[numAttributes];
+		int[] max = new int[numAttributes];
+		int[] nonZero = new int[numAttributes];
+
+		for(int i = 0; i < indices.length; i++) {
+			for(int j = 0; j < indices[i].length; j++) {
+				int attribute = indices[i][j];
+				if(nonZero[attribute] == 0 || values[i][j] < min[attribute]) min[attribute] = values[i][j];
+				if(nonZero[attribute] == 0 || values[i][j] > max[attribute]) max[attribute] = values[i][j];
+				nonZero[attribute]++;
+			}
+		}
+
+		this.min = new double[numAttributes];
+		this.width = new double[numAttributes];
+		for(int attribute = 0; attribute < numAttributes; attribute++) {
+			if(nonZero[attribute] < indices.length) {
+				/* At least one instance has a value of zero. */
+				min[attribute] = Math.min(min[attribute], 0);
+				max[attribute] = Math.max(max[attribute], 0);
+			}
+			this.min[attribute] = min[attribute];
+			this.width[attribute] = (double)max[attribute] - (double)min[attribute];
+		}
+
+	}
+
+	/**
+	 * Groups the identical instances and builds the inverted index of the
+	 * distinct vectors.
+	 */
+	private void indexVectors(int[][] indices, int[][] values, int numAttributes) {
+
+		this.vectors = new ArrayList<Vector>();
+		this.members = new ArrayList<TIntArrayList>();
+
+		Map<Vector, Integer> ids = new HashMap<Vector, Integer>();
+		for(int i = 0; i < indices.length; i++) {
+			Vector vector = new Vector(indices[i], values[i]);
+			Integer id = ids.get(vector);
+			if(id == null) {
+				id = this.vectors.size();
+				ids.put(vector, id);
+				this.vectors.add(vector);
+				this.members.add(new TIntArrayList());
+			}
+			this.members.get(id).add(i);
+		}
+
+		this.postings = new TIntArrayList[numAttributes];
+		for(int attribute = 0; attribute < numAttributes; attribute++) {
+			this.postings[attribute] = new TIntArrayList();
+		}
+
+		this.light = new TIntArrayList();
+		for(int id = 0; id < this.vectors.size(); id++) {
+			Vector vector = this.vectors.get(id);
+			for(int attribute : vector.indices) this.postings[attribute].add(id);
+			if(this.getHeaviestAttribute(vector) < 0) this.light.add(id);
+		}
+
+	}
+
+	/**
+	 * An attribute is heavy in a vector if an instance which does not have
+	 * the attribute cannot be within epsilon of the vector.
+	 * @return The heavy attribute with the fewest postings, or -1 if the
+	 * 		   vector has no heavy attributes.
+	 */
+	private int getHeaviestAttribute(Vector vector) {
+
+		int heaviest = -1;
+		for(int i = 0; i < vector.indices.length; i++) {
+			int attribute = vector.indices[i];
+			if(this.width[attribute] == 0) continue;
+
+			/* Leave a margin for rounding, so that only instances which are
+			 * definitely out of range are pruned. */
+			double difference = Math.abs(vector.values[i]) / this.width[attribute];
+			if(difference <= this.epsilon * (1 + 1e-9)) continue;
+
+			if(heaviest < 0 || this.postings[attribute].size() < this.postings[heaviest].size()) {
+				heaviest = attribute;
+			}
+		}
+		return heaviest;
+
+	}
+
+	/**
+	 * Finds the distinct vectors within epsilon of a distinct vector.
+	 * @param id The id of the distinct vector.
+	 * @return The ids of the distinct vectors in the neighbourhood.
+	 */
+	private int[] regionQuery(int id) {
+
+		Vector vector = this.vectors.get(id);
+		TIntArrayList neighbourhood = new TIntArrayList();
+
+		int heaviest = this.getHeaviestAttribute(vector);
+		if(heaviest >= 0) {
+
+			/* Every neighbour must have the heavy attribute. */
+			TIntArrayList candidates = this.postings[heaviest];
+			for(int i = 0; i < candidates.size(); i++) {
+				int candidate = candidates.getQuick(i);
+				if(this.distance(vector, this.vectors.get(candidate)) < this.epsilon) neighbourhood.add(candidate);
+			}
+
+		}
+		else {
+
+			/* A neighbour's heavy attributes must all be in this vector. */
+			boolean[] visited = new boolean[this.vectors.size()];
+			for(int i = 0; i < this.light.size(); i++) {
+				visitCandidate(vector, this.light.getQuick(i), visited, neighbourhood);
+			}
+			for(int attribute : vector.indices) {
+				TIntArrayList candidates = this.postings[attribute];
+				for(int i = 0; i < candidates.size(); i++) {
+					visitCandidate(vector, candidates.getQuick(i), visited, neighbourhood);
+				}
+			}
+
+		}
+
+		return neighbourhood.toArray();
+
+	}
+
+	/**
+	 * Adds the candidate to the neighbourhood if it is within epsilon of the
+	 * vector and has not already been visited.
+	 */
+	private void visitCandidate(Vector vector, int candidate, boolean[] visited, TIntArrayList neighbourhood) {
+		if(visited[candidate]) return;
+		visited[candidate] = true;
+		if(this.distance(vector, this.vectors.get(candidate)) < this.epsilon) neighbourhood.add(candidate);
+	}
+
+	/**
+	 * Computes the normalized Manhattan distance between two vectors. The
+	 * attributes are visited in the same order as Weka's
+	 * {@code ManhattanDistance} so that the distances are identical.
+	 */
+	private double distance(Vector first, Vector second) {
+
+		double distance = 0;
+
+		int p1 = 0, p2 = 0;
+		while(p1 < first.indices.length || p2 < second.indices.length) {
+
+			int i1 = p1 < first.indices.length ? first.indices[p1] : Integer.MAX_VALUE;
+			int i2 = p2 < second.indices.length ? second.indices[p2] : Integer.MAX_VALUE;
+
+			double difference;
+			if(i1 == i2) {
+				difference = this.norm(first.values[p1++], i1) - this.norm(second.values[p2++], i2);
+			}
+			else if(i1 < i2) {
+				difference = this.norm(first.values[p1++], i1) - this.norm(0, i1);
+			}
+			else {
+				difference = this.norm(0, i2) - this.norm(second.values[p2++], i2);
+			}
+
+			distance += Math.abs(difference);
+
+		}
+
+		return distance;
+
+	}
+
+	/**
+	 * Normalizes a value to [0, 1] using the attribute's range.
+	 */
+	private double norm(double value, int attribute) {
+		if(this.width[attribute] == 0) return 0;
+		return (value - this.min[attribute]) / this.width[attribute];
+	}
+
+	/**
+	 * Weka's DBSCAN stores the instances in a map keyed by the instance
+	 * index as a string, so instances are visited in lexicographic order
+	 * (i.e., 0, 1, 10, 100, ...). Visiting the instances in the same order
+	 * gives the clusters the same numbers.
+	 * @param n The number of instances.
+	 * @return The instance indices in the order Weka visits them.
+	 */
+	private static int[] getDatabaseOrder(int n) {
+
+		String[] keys = new String[n];
+		for(int i = 0; i < n; i++) keys[i] = Integer.toString(i);
+		Arrays.sort(keys);
+
+		int[] order = new int[n];
+		for(int i = 0; i < n; i++) order[i] = Integer.parseInt(keys[i]);
+		return order;
+
+	}
+
+	/**
+	 * A sparse vector. Two vectors are equal if they have the same non-zero
+	 * values.
+	 */
+	private static class Vector {
+
+		private final int[] indices;
+		private final int[] values;
+		private final int hash;
+
+		public Vector(int[] indices, int[] values) {
+
+			/* Remove any zero values that were stored explicitly. */
+			int n = 0;
+			for(int value : values) if(value != 0) n++;
+
+			if(n == values.length) {
+				this.indices = indices;
+				this.values = values;
+			}
+			else {
+				this.indices = new int[n];
+				this.values = new int[n];
+				for(int i = 0, j = 0; i < values.length; i++) {
+					if(values[i] == 0) continue;
+					this.indices[j] = indices[i];
+					this.values[j++] = values[i];
+				}
+			}
+
+			this.hash = 31 * Arrays.hashCode(this.indices) + Arrays.hashCode(this.values);
+
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if(!(obj instanceof Vector)) return false;
+			Vector that = (Vector) obj;
+			return this.hash == that.hash
+					&& Arrays.equals(this.indices, that.indices)
+					&& Arrays.equals(this.values, that.values);
+		}
+
+		@Override
+		public int hashCode() {
+			return this.hash;
+		}
+
+	}
+
+}
@@ -1,5 +1,8 @@
 package ca.ubc.ece.salt.pangor.learning;
 
+import java.io.IOException;
+import java.io.StringWriter;
+import java.io.Writer;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Set;
@@ -53,24 +56,45 @@ public class ClusterMetrics {
 	 * @return
 	 */
 	public static String getLatexTable(Set<ClusterMetrics> metrics) {
-		String table = "\\begin{table*}\n";
-		table += "\t\\centering\n";
-		table += "\t\\caption{Clustering and Inspection Results}\n";
-		table += "\t\\label{tbl:clusteringResults}\n";
-		table += "{\\scriptsize\n";
-		table += "\t\\begin{tabular}{ | l | r | r | r | r | r | r | }\n";
-		table += "\t\t\\hline\n";
-		table += "\t\t\\textbf{Keyword} & \\textbf{TotC} & \\textbf{Clusters} & \\textbf{AvgI} & \\textbf{MdnI. Size} & \\textbf{BG} & \\textbf{RG} \\\\ \\hline\n";
+
+		StringWriter table = new StringWriter();
+
+		try {
+			writeLatexTable(metrics, table);
+		} catch (IOException e) {
+			/* StringWriter does not throw IOExceptions. */
+		}
+
+		return table.toString();
+
+	}
+
+	/**
+	 * Writes a LaTex table from an ordered set of {@code ClusterMetrics}, one
+	 * row at a time.
+	 * @param metrics
+	 * @param writer The writer to write the table to.
+	 * @throws IOException if the table cannot be written.
+	 */
+	public static void writeLatexTable(Set<ClusterMetrics> metrics, Writer writer) throws IOException {
+		writer.write("\\begin{table*}\n");
+		writer.write("\t\\centering\n");
+		writer.write("\t\\caption{Clustering and Inspection Results}\n");
+		writer.write("\t\\label{tbl:clusteringResults}\n");
+		writer.write("{\\scriptsize\n");
+		writer.write("\t\\begin{tabular}{ | l | r | r | r | r | r | r | }\n");
+		writer.write("\t\t\\hline\n");
+		writer.write("\t\t\\textbf{Keyword} & \\textbf{TotC} & \\textbf{Clusters} & \\textbf{AvgI} & \\textbf{MdnI. Size} & \\textbf{BG} & \\textbf{RG} \\\\ \\hline\n");
 
 		for(ClusterMetrics metric : metrics) {
-			table += "\t\t" + metric.keyword + " & " + metric.totalInstances + " & " + metric.clusters.size() + " & " + Math.round(metric.avgInstances) + " & " + metric.mdnInstances + " & & \\\\\n";
+			String row = "\t\t" + metric.keyword + " & " + metric.totalInstances + " & " + metric.clusters.size() + " & " + Math.round(metric.avgInstances) + " & " + metric.mdnInstances + " & & \\\\\n";
+			writer.write(row.replace("_", "\\_"));
 		}
 
-		table += "\t\t\\hline\n";
-		table += "\t\\end{tabular}\n";
-		table += "}\n";
-		table += "\\end{table*}\n";
-		return table.replace("_", "\\_");
+		writer.write("\t\t\\hline\n");
+		writer.write("\t\\end{tabular}\n");
+		writer.write("}\n");
+		writer.write("\\end{table*}\n");
 	}
 
 	@Override
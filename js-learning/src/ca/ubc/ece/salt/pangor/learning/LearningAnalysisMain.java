@@ -2,6 +2,7 @@ package ca.ubc.ece.salt.pangor.learning;
 
 import java.io.BufferedReader;
 import java.io.FileReader;
+import java.io.IOException;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.concurrent.CountDownLatch;
@@ -14,8 +15,10 @@ import org.apache.logging.log4j.Logger;
 import org.kohsuke.args4j.CmdLineException;
 import org.kohsuke.args4j.CmdLineParser;
 
+import ca.ubc.ece.salt.pangor.analysis.AlertIDGenerator;
 import ca.ubc.ece.salt.pangor.batch.GitProjectAnalysis;
 import ca.ubc.ece.salt.pangor.batch.GitProjectAnalysisTask;
+import ca.ubc.ece.salt.pangor.learning.apis.APIFactory;
 
 public class LearningAnalysisMain {
 
@@ -48,6 +51,23 @@ public class LearningAnalysisMain {
 			return;
 		}
 
+		/* Build the API model, including any packages from definition files. */
+		try {
+			APIFactory.loadTopLevelAPI(options.getAPIDefinitions());
+		} catch (IOException e) {
+			System.err.println("Error while loading API definitions: " + e.getMessage());
+			return;
+		}
+
+		/* Alerts that are appended to an existing data set start a new run,
+		 * so their IDs do not collide with the IDs already in the data set. */
+		try {
+			AlertIDGenerator.startRun(AlertIDGenerator.getNextRunID(options.getDataSetPath()));
+		} catch (IOException e) {
+			System.err.println("Error while reading the data set: " + e.getMessage());
+			return;
+		}
+
 		/* Create the runner that will run the analysis. */
 		LearningAnalysisRunner runner = new LearningAnalysisRunner(options.getDataSetPath(),
 				options.getSupplementaryFolder(), options.getMaxChangeComplexity());
@@ -60,6 +80,7 @@ public class LearningAnalysisMain {
 			try {
 
                 gitProjectAnalysis = GitProjectAnalysis.fromURI(options.getURI(), CHECKOUT_DIR, runner);
+                gitProjectAnalysis.setBugFixingPattern(options.getBugFixingPattern());
 				gitProjectAnalysis.analyze();
 
 			} catch (Exception e) {
@@ -105,6 +126,7 @@ public class LearningAnalysisMain {
 				try {
 					/* Build git repository object */
 					gitProjectAnalysis = GitProjectAnalysis.fromURI(uri, LearningAnalysisMain.CHECKOUT_DIR, runner);
+					gitProjectAnalysis.setBugFixingPattern(options.getBugFixingPattern());
 
 					/* Perform the analysis (this may take some time) */
 					executor.submit(new GitProjectAnalysisTask(gitProjectAnalysis, latch));
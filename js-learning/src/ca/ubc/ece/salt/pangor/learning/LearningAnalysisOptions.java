@@ -1,7 +1,12 @@
 package ca.ubc.ece.salt.pangor.learning;
 
+import java.util.LinkedList;
+import java.util.List;
+
 import org.kohsuke.args4j.Option;
 
+import ca.ubc.ece.salt.pangor.git.GitProject;
+
 public class LearningAnalysisOptions {
 
 	@Option(name="-u", aliases={"--uri"}, usage="The uri of the public repository (e.g., https://github.com/qhanam/JSRepairClass.git).")
@@ -28,6 +33,12 @@ public class LearningAnalysisOptions {
 	@Option(name = "-cc", aliases = { "--complexity" }, usage = "The maximum change complexity of a file to analyze.")
 	private Integer maxChangeComplexity = 10;
 
+	@Option(name = "-a", aliases = { "--api" }, usage = "A JSON file of package API definitions to load. May be given more than once.")
+	private List<String> apiDefinitions = new LinkedList<String>();
+
+	@Option(name = "-bf", aliases = { "--bug-fix-pattern" }, usage = "The regular expression that identifies bug fixing commit messages (e.g., \"fix|repair\"). By default, all commits are analyzed.")
+	private String bugFixingPattern = GitProject.DEFAULT_BUG_FIXING_PATTERN;
+
 	public Integer getNThreads() {
 		return this.nThreads;
 	}
@@ -60,4 +71,12 @@ public class LearningAnalysisOptions {
 		return this.maxChangeComplexity;
 	}
 
+	public List<String> getAPIDefinitions() {
+		return this.apiDefinitions;
+	}
+
+	public String getBugFixingPattern() {
+		return this.bugFixingPattern;
+	}
+
 }
\ No newline at end of file
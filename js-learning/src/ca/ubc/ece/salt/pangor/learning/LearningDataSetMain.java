@@ -94,17 +94,15 @@ public class LearningDataSetMain {
 						frequency.keyword.type, frequency.keyword.context, frequency.keyword.changeType,
 						frequency.keyword.apiString, frequency.keyword.keyword);
 
-				/* Re-construct the data set. */
-				LearningDataSet clusteringDataSet = new LearningDataSet(options.getDataSetPath(), Arrays.asList(clusterFilter));
-
-				/* Pre-process the file. */
-				clusteringDataSet.preProcess();
+				/* Re-construct and pre-process the data set. Rows that do not
+				 * match the filter are dropped as the file is read. */
+				LearningDataSet clusteringDataSet = new LearningDataSet(options.getDataSetPath(), Arrays.asList(clusterFilter), true);
 
 				/* Get the clusters. */
 				try {
 
 					ClusterMetrics clusterMetrics = new ClusterMetrics(frequency.keyword);
-					int[] c = clusteringDataSet.getWekaClusters();
+					int[] c = clusteringDataSet.getWekaClusters(options.getClusteringFilter());
 
 					for(int i = 0; i < c.length; i++) {
 						Cluster cluster = new Cluster(frequency.keyword, i, c[i]);
@@ -1,7 +1,14 @@
 package ca.ubc.ece.salt.pangor.learning;
 
+import java.util.Collections;
+import java.util.Set;
+
 import org.kohsuke.args4j.Option;
 
+import ca.ubc.ece.salt.gumtree.ast.ClassifiedASTNode.ChangeType;
+import ca.ubc.ece.salt.pangor.analysis.learning.ClusteringFilter;
+import ca.ubc.ece.salt.pangor.analysis.learning.ClusteringFilter.ContextGroup;
+
 public class LearningDataSetOptions {
 
 	@Option(name="-h", aliases={"--help"}, usage="Display the help file.")
@@ -22,6 +29,12 @@ public class LearningDataSetOptions {
 	@Option(name = "-a", aliases = { "--arff-path" }, usage = "Folder to write the ARFF files.")
 	private String arffFolder = null;
 
+	@Option(name="-g", aliases={"--group"}, usage="The context group of the keywords to cluster (STATEMENTS, COMMON_RESERVED, RESERVED or API).")
+	private ContextGroup contextGroup = ContextGroup.API;
+
+	@Option(name="-u", aliases={"--unchanged"}, usage="Also cluster the UNCHANGED keywords.")
+	private boolean clusterUnchanged = false;
+
 	public String getArffFolder() {
 		return this.arffFolder;
 	}
@@ -46,4 +59,14 @@ public class LearningDataSetOptions {
 		return this.printClusters;
 	}
 
+	/**
+	 * @return The filter that selects the keywords (columns) to cluster.
+	 */
+	public ClusteringFilter getClusteringFilter() {
+		Set<ChangeType> excluded = this.clusterUnchanged
+				? Collections.<ChangeType>emptySet()
+				: Collections.singleton(ChangeType.UNCHANGED);
+		return new ClusteringFilter(this.contextGroup, excluded);
+	}
+
 }
\ No newline at end of file
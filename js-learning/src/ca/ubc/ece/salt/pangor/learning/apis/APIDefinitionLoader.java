@@ -0,0 +1,367 @@
+package ca.ubc.ece.salt.pangor.learning.apis;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Loads Node.js package APIs from JSON definition files, so packages can be
+ * added without recompiling {@code APIFactory}.
+ *
+ * A definition file contains a list of packages. Each package or class has a
+ * name, lists of method, field, constant and event names and a list of
+ * classes:
+ *
+ * <pre>
+ * { "packages": [ { "name": "path",
+ *                   "methods": [ "join", "resolve" ],
+ *                   "fields": [ "sep" ],
+ *                   "classes": [ { "name": "Stats", "methods": [ "isFile" ] } ] } ] }
+ * </pre>
+ *
+ * The first time a definition file is loaded it is compiled to a binary
+ * snapshot ([file].bin). Later runs read the snapshot instead of parsing the
+ * JSON. The snapshot is rebuilt when the definition file changes. The
+ * packages are built into {@code PackageAPI}s either way, so the snapshot
+ * saves parsing time but not heap.
+ */
+public class APIDefinitionLoader {
+
+	protected static final Logger logger = LogManager.getLogger(APIDefinitionLoader.class);
+
+	/** Identifies a binary snapshot ("PAPI"). **/
+	private static final int MAGIC = 0x50415049;
+
+	/** The version of the binary snapshot format. **/
+	private static final int VERSION = 1;
+
+	/** The smallest number of bytes a definition takes in a snapshot (a
+	 * name length, four list counts and a class count). **/
+	private static final int MIN_DEFINITION_SIZE = 6 * 4;
+
+	/** The smallest number of bytes a string takes in a snapshot (its
+	 * length). **/
+	private static final int MIN_STRING_SIZE = 4;
+
+	/** Parses the JSON definition files. Thread safe once configured. **/
+	private static final ObjectMapper mapper = new ObjectMapper();
+
+	/** The extension of the binary snapshot. **/
+	public static final String SNAPSHOT_EXTENSION = ".bin";
+
+	private APIDefinitionLoader() { }
+
+	/**
+	 * Loads the packages in a definition file. Uses the binary snapshot of
+	 * the file if it is up to date, otherwise parses the file and writes a
+	 * new snapshot.
+	 * @param file The JSON definition file.
+	 * @return The packages defined in the file.
+	 * @throws IOException if the definition file cannot be read or parsed.
+	 */
+	public static List<PackageAPI> load(File file) throws IOException {
+
+		if(!file.isFile()) throw new IOException("API definition file not found: " + file.getPath());
+
+		File snapshot = new File(file.getPath() + SNAPSHOT_EXTENSION);
+		List<APIDefinition> definitions = null;
+
+		/* Try the binary snapshot first. */
+		if(snapshot.isFile()) {
+			definitions = readSnapshot(file, snapshot);
+		}
+
+		/* The snapshot is missing or out of date, so compile the definitions. */
+		if(definitions == null) {
+			String json = new String(Files.readAllBytes(file.toPath()), StandardCharsets.UTF_8);
+			definitions = parseDefinitions(json, file.getPath());
+
+			try {
+				writeSnapshot(file, snapshot, definitions);
+			}
+			catch(IOException e) {
+				logger.warn("Could not write the API snapshot {}: {}", snapshot.getPath(), e.getMessage());
+			}
+		}
+
+		List<PackageAPI> packages = new ArrayList<PackageAPI>(definitions.size());
+		for(APIDefinition definition : definitions) {
+			packages.add(definition.toPackageAPI());
+		}
+
+		return packages;
+
+	}
+
+	/**
+	 * Parses the package definitions from a JSON document.
+	 * @param json The JSON document.
+	 * @param source The name of the document (for error messages).
+	 * @return The package definitions.
+	 * @throws IOException if the document is not a valid definition file.
+	 */
+	protected static List<APIDefinition> parseDefinitions(String json, String source) throws IOException {
+
+		JsonNode root = mapper.readTree(json);
+
+		if(root == null || !root.isObject()) throw new IOException(source + ": expected an object with a 'packages' list.");
+
+		List<APIDefinition> definitions = new ArrayList<APIDefinition>();
+		for(JsonNode pkg : getList(root, "packages", source)) {
+			definitions.add(toDefinition(pkg, source));
+		}
+
+		return definitions;
+
+	}
+
+	/**
+	 * Converts a parsed JSON package or class object to an API definition.
+	 */
+	private static APIDefinition toDefinition(JsonNode object, String source) throws IOException {
+
+		if(!object.isObject()) throw new IOException(source + ": expected a package or class object.");
+
+		JsonNode name = object.get("name");
+		if(name == null || !name.isTextual()) throw new IOException(source + ": packages and classes must have a name.");
+
+		APIDefinition definition = new APIDefinition(name.asText());
+		definition.methods = getStrings(object, "methods", source);
+		definition.fields = getStrings(object, "fields", source);
+		definition.constants = getStrings(object, "constants", source);
+		definition.events = getStrings(object, "events", source);
+
+		for(JsonNode klass : getList(object, "classes", source)) {
+			definition.classes.add(toDefinition(klass, source));
+		}
+
+		return definition;
+
+	}
+
+	/**
+	 * @return the list stored at {@code key}, or an empty list if there is none.
+	 */
+	private static Iterable<JsonNode> getList(JsonNode object, String key, String source) throws IOException {
+		JsonNode value = object.get(key);
+		if(value == null || value.isNull()) return Collections.emptyList();
+		if(!value.isArray()) throw new IOException(source + ": '" + key + "' must be a list.");
+		return value;
+	}
+
+	/**
+	 * @return the list of strings stored at {@code key}.
+	 */
+	private static List<String> getStrings(JsonNode object, String key, String source) throws IOException {
+		List<String> strings = new ArrayList<String>();
+		for(JsonNode value : getList(object, key, source)) {
+			if(!value.isTextual()) throw new IOException(source + ": '" + key + "' must be a list of strings.");
+			strings.add(value.asText());
+		}
+		return strings;
+	}
+
+	/**
+	 * Reads the definitions from a binary snapshot.
+	 * @param file The definition file the snapshot was compiled from.
+	 * @param snapshot The binary snapshot.
+	 * @return The definitions, or null if the snapshot is out of date or
+	 * 		   cannot be read.
+	 */
+	private static List<APIDefinition> readSnapshot(File file, File snapshot) {
+
+		/* The snapshot is read into memory (it is small), so the lengths and
+		 * counts in it can be checked against the bytes that are left. */
+		try(DataInputStream in = new DataInputStream(new ByteArrayInputStream(Files.readAllBytes(snapshot.toPath())))) {
+
+			if(in.readInt() != MAGIC || in.readInt() != VERSION) return null;
+			if(in.readLong() != file.length() || in.readLong() != file.lastModified()) return null;
+
+			int count = readCount(in, MIN_DEFINITION_SIZE);
+			List<APIDefinition> definitions = new ArrayList<APIDefinition>(count);
+			for(int i = 0; i < count; i++) {
+				definitions.add(readDefinition(in));
+			}
+
+			return definitions;
+
+		}
+		catch(EOFException e) {
+			logger.warn("Could not read the API snapshot {}: the snapshot is truncated", snapshot.getPath());
+			return null;
+		}
+		catch(IOException e) {
+			logger.warn("Could not read the API snapshot {}: {}", snapshot.getPath(), e.getMessage());
+			return null;
+		}
+
+	}
+
+	private static APIDefinition readDefinition(DataInputStream in) throws IOException {
+
+		APIDefinition definition = new APIDefinition(readString(in));
+		definition.methods = readStrings(in);
+		definition.fields = readStrings(in);
+		definition.constants = readStrings(in);
+		definition.events = readStrings(in);
+
+		int classes = readCount(in, MIN_DEFINITION_SIZE);
+		for(int i = 0; i < classes; i++) {
+			definition.classes.add(readDefinition(in));
+		}
+
+		return definition;
+
+	}
+
+	private static List<String> readStrings(DataInputStream in) throws IOException {
+		int count = readCount(in, MIN_STRING_SIZE);
+		List<String> strings = new ArrayList<String>(count);
+		for(int i = 0; i < count; i++) {
+			strings.add(readString(in));
+		}
+		return strings;
+	}
+
+	private static String readString(DataInputStream in) throws IOException {
+		byte[] bytes = new byte[readCount(in, 1)];
+		in.readFully(bytes);
+		return new String(bytes, StandardCharsets.UTF_8);
+	}
+
+	/**
+	 * Reads a length or count from a snapshot.
+	 * @param in The snapshot, in memory.
+	 * @param size The smallest number of bytes each element takes.
+	 * @return The length or count.
+	 * @throws IOException if the elements cannot fit in the rest of the
+	 * 		   snapshot (i.e., the snapshot is corrupt).
+	 */
+	private static int readCount(DataInputStream in, int size) throws IOException {
+		int count = in.readInt();
+		if(count < 0 || (long) count * size > in.available())
+			throw new IOException("the snapshot is corrupt (count " + count + " is out of range)");
+		return count;
+	}
+
+	/**
+	 * Writes the definitions to a binary snapshot. The snapshot is written to
+	 * a temporary file first so a partially written snapshot is never read.
+	 * @param file The definition file the snapshot is compiled from.
+	 * @param snapshot The binary snapshot.
+	 * @param definitions The definitions to write.
+	 */
+	private static void writeSnapshot(File file, File snapshot, List<APIDefinition> definitions) throws IOException {
+
+		File temp = File.createTempFile(snapshot.getName(), ".tmp", snapshot.getAbsoluteFile().getParentFile());
+
+		try {
+
+			try(DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(temp)))) {
+				out.writeInt(MAGIC);
+				out.writeInt(VERSION);
+				out.writeLong(file.length());
+				out.writeLong(file.lastModified());
+				out.writeInt(definitions.size());
+				for(APIDefinition definition : definitions) {
+					writeDefinition(out, definition);
+				}
+			}
+
+			Files.move(temp.toPath(), snapshot.toPath(), StandardCopyOption.REPLACE_EXISTING);
+
+		}
+		finally {
+			temp.delete();
+		}
+
+	}
+
+	private static void writeDefinition(DataOutputStream out, APIDefinition definition) throws IOException {
+
+		writeString(out, definition.name);
+		writeStrings(out, definition.methods);
+		writeStrings(out, definition.fields);
+		writeStrings(out, definition.constants);
+		writeStrings(out, definition.events);
+
+		out.writeInt(definition.classes.size());
+		for(APIDefinition klass : definition.classes) {
+			writeDefinition(out, klass);
+		}
+
+	}
+
+	private static void writeStrings(DataOutputStream out, List<String> strings) throws IOException {
+		out.writeInt(strings.size());
+		for(String string : strings) {
+			writeString(out, string);
+		}
+	}
+
+	private static void writeString(DataOutputStream out, String string) throws IOException {
+		byte[] bytes = string.getBytes(StandardCharsets.UTF_8);
+		out.writeInt(bytes.length);
+		out.write(bytes);
+	}
+
+	/**
+	 * The definition of a package or class, before it is built into an
+	 * {@code AbstractAPI}.
+	 */
+	protected static class APIDefinition {
+
+		public String name;
+		public List<String> methods;
+		public List<String> fields;
+		public List<String> constants;
+		public List<String> events;
+		public List<APIDefinition> classes;
+
+		public APIDefinition(String name) {
+			this.name = name;
+			this.methods = Collections.emptyList();
+			this.fields = Collections.emptyList();
+			this.constants = Collections.emptyList();
+			this.events = Collections.emptyList();
+			this.classes = new ArrayList<APIDefinition>();
+		}
+
+		public PackageAPI toPackageAPI() {
+			return new PackageAPI(this.name, this.methods, this.fields,
+					this.constants, this.events, this.buildClasses());
+		}
+
+		public ClassAPI toClassAPI() {
+			return new ClassAPI(this.name, this.methods, this.fields,
+					this.constants, this.events, this.buildClasses());
+		}
+
+		private List<ClassAPI> buildClasses() {
+			List<ClassAPI> apis = new ArrayList<ClassAPI>(this.classes.size());
+			for(APIDefinition klass : this.classes) {
+				apis.add(klass.toClassAPI());
+			}
+			return apis;
+		}
+
+	}
+
+}
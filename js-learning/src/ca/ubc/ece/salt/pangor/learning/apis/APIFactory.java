@@ -1,15 +1,73 @@
 package ca.ubc.ece.salt.pangor.learning.apis;
 
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 
 /**
- * Builds the APIs. Right now APIs are hard coded into this class. In the
- * future we may want to automatically extract APIs from source code or
- * documentation.
+ * Builds the APIs. The JavaScript APIs are hard coded into this class.
+ * Node.js package APIs can be loaded from definition files (see
+ * {@code APIDefinitionLoader}).
  */
 public class APIFactory {
 
+	/** The top level API shared by the analyses (built on first use). **/
+	private static volatile TopLevelAPI topLevelAPI;
+
+	/**
+	 * Gets the abstract representation of the JavaScript keywords and API
+	 * that is shared by the analyses in this run. If no API has been loaded
+	 * with {@code loadTopLevelAPI}, the built-in API is used. The API is built
+	 * once and is safe to use from multiple threads.
+	 *
+	 * @return The root of the abstract API tree.
+	 */
+	public static TopLevelAPI getTopLevelAPI() {
+		TopLevelAPI api = topLevelAPI;
+
+		if(api == null) {
+			synchronized(APIFactory.class) {
+				api = topLevelAPI;
+				if(api == null) {
+					api = buildTopLevelAPI();
+					/* Build the keyword index before the API is shared. */
+					api.getIndex();
+					topLevelAPI = api;
+				}
+			}
+		}
+
+		return api;
+	}
+
+	/**
+	 * Builds the shared top level API from the built-in API and the packages
+	 * in the given definition files (see {@code APIDefinitionLoader}). This
+	 * should be called before the analyses start.
+	 *
+	 * @param definitionFiles The paths of the JSON API definition files.
+	 * @return The root of the abstract API tree.
+	 * @throws IOException if a definition file cannot be loaded.
+	 */
+	public static synchronized TopLevelAPI loadTopLevelAPI(List<String> definitionFiles) throws IOException {
+
+		List<PackageAPI> packages = new ArrayList<PackageAPI>();
+		for(String definitionFile : definitionFiles) {
+			packages.addAll(APIDefinitionLoader.load(new File(definitionFile)));
+		}
+
+		TopLevelAPI api = buildTopLevelAPI(packages);
+		/* Build the keyword index before the API is shared. */
+		api.getIndex();
+		topLevelAPI = api;
+
+		return api;
+
+	}
+
 	/**
 	 * Builds the abstract representation of the JavaScript keywords and API.
 	 * Also builds the abstract API representations of all the Node.js
@@ -22,21 +80,22 @@ public class APIFactory {
 	 * @return The root of the abstract API tree.
 	 */
 	public static TopLevelAPI buildTopLevelAPI() {
+		return buildTopLevelAPI(Collections.<PackageAPI>emptyList());
+	}
+
+	/**
+	 * Builds the abstract representation of the JavaScript keywords and API,
+	 * including the given packages.
+	 *
+	 * @param externalPackages Packages loaded from API definition files.
+	 * @return The root of the abstract API tree.
+	 */
+	public static TopLevelAPI buildTopLevelAPI(List<PackageAPI> externalPackages) {
+
+		List<String> keywords = JavaScriptKeywords.API_KEYWORDS;
 
-		List<String> keywords = Arrays.asList( "abstract",
-				"arguments", "boolean", "break", "byte", "case", "catch",
-				"char", "class", "const", "continue", "debugger", "default",
-				"delete", "do", "double", "else", "enum", "eval", "export",
-				"extends", "false", "final", "finally", "float", "for",
-				"function", "goto", "if", "implements", "import", "in",
-				"instanceof", "int", "interface", "let", "long", "native",
-				"new", "null", "package", "private", "protected", "public",
-				"return", "short", "static", "super", "switch", "synchronized",
-				"this", "undefined", "throw", "throws", "transient", "true",
-				"try", "typeof", "var", "void", "volatile", "while", "with",
-				"yield", "callback", "error", "undefined", "falsey");
-
-		List<PackageAPI> packages = buildTopLevelPackages();
+		List<PackageAPI> packages = new ArrayList<PackageAPI>(buildTopLevelPackages());
+		packages.addAll(externalPackages);
 
 		/* Methods of the Global class. */
 		List<String> methods = Arrays.asList("eval", "hasOwnProperty", "isFinite",
@@ -1,9 +1,13 @@
 package ca.ubc.ece.salt.pangor.learning.apis;
 
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 import ca.ubc.ece.salt.pangor.learning.apis.KeywordDefinition.KeywordType;
 
@@ -25,6 +29,12 @@ public abstract class AbstractAPI {
 	 */
 	protected AbstractAPI parent;
 
+	/** The name of the package this API belongs to (cached after the first lookup). **/
+	private String packageName;
+
+	/** The keywords in this API and its sub-APIs, indexed by type and name. **/
+	private volatile Map<KeywordType, Map<String, List<KeywordDefinition>>> index;
+
 	/**
 	 * @param includeName The keyword that imports the package in "include([package name keyword]);"
 	 * @param methodNames The methods in the API.
@@ -95,11 +105,92 @@ public abstract class AbstractAPI {
 	 *         if none is found, empty list is returned
 	 */
 	public List<KeywordDefinition> getAllKeywords(KeywordDefinition keyword) {
-		List<KeywordDefinition> keywordsList = new ArrayList<>();
+		Map<String, List<KeywordDefinition>> names = getIndex().get(keyword.type);
+		List<KeywordDefinition> keywordsList = names == null ? null : names.get(keyword.keyword);
+
+		/* Return a copy because callers filter the list. */
+		if (keywordsList == null)
+			return new ArrayList<>();
+		return new ArrayList<>(keywordsList);
+	}
 
-		recursiveKeywordSearch(this, keyword, keywordsList);
+	/**
+	 * Get the index of all the keywords in this API and its sub-APIs. The
+	 * index is built the first time it is needed (i.e., after the API tree
+	 * has been built) and is not modified afterwards.
+	 *
+	 * @return the keywords, indexed by type and name.
+	 */
+	protected Map<KeywordType, Map<String, List<KeywordDefinition>>> getIndex() {
+		Map<KeywordType, Map<String, List<KeywordDefinition>>> index = this.index;
+
+		if (index == null) {
+			synchronized (this) {
+				index = this.index;
+				if (index == null) {
+					index = buildIndex();
+					this.index = index;
+				}
+			}
+		}
+
+		return index;
+	}
+
+	/**
+	 * Builds the index of all the keywords in this API and its sub-APIs.
+	 * Keywords are stored in the order the API tree is searched (this API,
+	 * then its sub-APIs).
+	 */
+	private Map<KeywordType, Map<String, List<KeywordDefinition>>> buildIndex() {
+		List<KeywordDefinition> definitions = new ArrayList<>();
+		collectKeywords(definitions);
+
+		Map<KeywordType, Map<String, List<KeywordDefinition>>> index = new EnumMap<>(KeywordType.class);
+
+		for (KeywordDefinition definition : definitions) {
+			Map<String, List<KeywordDefinition>> names = index.get(definition.type);
+			if (names == null) {
+				names = new HashMap<>();
+				index.put(definition.type, names);
+			}
+
+			List<KeywordDefinition> keywordsList = names.get(definition.keyword);
+			if (keywordsList == null) {
+				keywordsList = new ArrayList<>(1);
+				names.put(definition.keyword, keywordsList);
+			}
+			keywordsList.add(definition);
+
+			/* Compute the package names now so lookups don't walk the tree. */
+			definition.getPackageName();
+		}
+
+		for (Map<String, List<KeywordDefinition>> names : index.values()) {
+			for (Map.Entry<String, List<KeywordDefinition>> entry : names.entrySet()) {
+				entry.setValue(Collections.unmodifiableList(entry.getValue()));
+			}
+		}
 
-		return keywordsList;
+		return index;
+	}
+
+	/**
+	 * Adds the keywords of this API and its sub-APIs to the output list. Only
+	 * the first occurrence of a keyword in an API's keyword list is added.
+	 *
+	 * @param outputList The list to add the keywords to.
+	 */
+	protected void collectKeywords(List<KeywordDefinition> outputList) {
+		Set<KeywordDefinition> found = new HashSet<>();
+		for (KeywordDefinition keyword : this.keywords) {
+			if (found.add(keyword))
+				outputList.add(keyword);
+		}
+
+		for (ClassAPI klass : this.classes) {
+			klass.collectKeywords(outputList);
+		}
 	}
 
 	/**
@@ -160,6 +251,9 @@ public abstract class AbstractAPI {
 	public abstract String getName();
 
 	public String getPackageName() {
+		if (this.packageName != null)
+			return this.packageName;
+
 		/*
 		 * Go up in the tree until we find a package. I know this is hard to
 		 * read, sorry. But it seems to work.
@@ -170,32 +264,8 @@ public abstract class AbstractAPI {
 			lastParent = lastParent.parent;
 		}
 
-		return lastParent.getPackageName();
-	}
-
-	/**
-	 * Recursively search for keyword on this API
-	 *
-	 * @param keyword The keyword we are looking for
-	 * @return Keyword if the keyword/type is present in the API, null otherwise
-	 */
-	protected void recursiveKeywordSearch(AbstractAPI api, KeywordDefinition keyword,
-			List<KeywordDefinition> outputList) {
-		/*
-		 * Check if keyword is present on the keywords list. If it is, add the
-		 * keyword we found on the list, which may contain more information
-		 */
-		int index = api.keywords.indexOf(keyword);
-		if (index != -1)
-			outputList.add(api.keywords.get(index));
-
-		/*
-		 * Otherwise, check if keyword is member of any of the classes of API,
-		 * which may have subclasses itself
-		 */
-		for (ClassAPI klass : api.classes) {
-			recursiveKeywordSearch(klass, keyword, outputList);
-		}
+		this.packageName = lastParent.getPackageName();
+		return this.packageName;
 	}
 
 	/**
@@ -0,0 +1,84 @@
+package ca.ubc.ece.salt.pangor.learning.apis;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * The dictionary of JavaScript keywords used by the keyword extraction and
+ * the top level API. The dictionary is built once and is immutable, so
+ * classifying a token is a hash lookup and does not allocate.
+ */
+public class JavaScriptKeywords {
+
+	/** The JavaScript reserved words. **/
+	private static final String[] RESERVED_WORDS = { "abstract",
+			"arguments", "boolean", "break", "byte", "case", "catch",
+			"char", "class", "const", "continue", "debugger", "default",
+			"delete", "do", "double", "else", "enum", "eval", "export",
+			"extends", "false", "final", "finally", "float", "for",
+			"function", "goto", "if", "implements", "import", "in",
+			"instanceof", "int", "interface", "let", "long", "native",
+			"new", "null", "package", "private", "protected", "public",
+			"return", "short", "static", "super", "switch", "synchronized",
+			"this", "undefined", "throw", "throws", "transient", "true",
+			"try", "typeof", "var", "void", "volatile", "while", "with",
+			"yield" };
+
+	/** Keywords that are not reserved words but are tracked by the top level API. **/
+	private static final String[] SPECIAL_KEYWORDS = { "callback", "error",
+			"undefined", "falsey" };
+
+	/** Identifiers that are abstracted to a special keyword. **/
+	private static final Map<String, String> ALIASES;
+
+	/** The set of reserved words. **/
+	public static final Set<String> RESERVED;
+
+	/** The keywords of the top level API (reserved words and special keywords). **/
+	public static final List<String> API_KEYWORDS;
+
+	static {
+
+		RESERVED = Collections.unmodifiableSet(new HashSet<String>(Arrays.asList(RESERVED_WORDS)));
+
+		List<String> apiKeywords = new ArrayList<String>(RESERVED_WORDS.length + SPECIAL_KEYWORDS.length);
+		apiKeywords.addAll(Arrays.asList(RESERVED_WORDS));
+		apiKeywords.addAll(Arrays.asList(SPECIAL_KEYWORDS));
+		API_KEYWORDS = Collections.unmodifiableList(apiKeywords);
+
+		Map<String, String> aliases = new HashMap<String, String>();
+		for(String alias : new String[] { "e", "err", "error", "exception" }) aliases.put(alias, "error");
+		for(String alias : new String[] { "cb", "callb", "callback" }) aliases.put(alias, "callback");
+		ALIASES = Collections.unmodifiableMap(aliases);
+
+	}
+
+	private JavaScriptKeywords() { }
+
+	/**
+	 * @param identifier The identifier to check.
+	 * @return True if the identifier is a JavaScript reserved word.
+	 */
+	public static boolean isReserved(String identifier) {
+		return RESERVED.contains(identifier);
+	}
+
+	/**
+	 * Some identifiers are conventionally used for errors (e.g., 'e', 'err')
+	 * and callbacks (e.g., 'cb'). These are abstracted to the 'error' and
+	 * 'callback' keywords.
+	 * @param identifier The identifier to check.
+	 * @return The special keyword the identifier is an alias for, or null if
+	 * 		   it is not an alias.
+	 */
+	public static String getAlias(String identifier) {
+		return ALIASES.get(identifier);
+	}
+
+}
@@ -6,39 +6,35 @@ package ca.ubc.ece.salt.pangor.learning.apis;
 public class KeywordDefinition {
 
 	/** The type of the keyword (i.e., package, method, field, constant or event). **/
-	public KeywordType type;
+	public final KeywordType type;
 
 	/** The keyword text. **/
-	public String keyword;
+	public final String keyword;
+
+	/** The hash code (computed once, since the type and keyword do not change). **/
+	private final int hash;
 
 	/** The AbstractAPI which contains this keyword. **/
-	public AbstractAPI api;
+	public final AbstractAPI api;
 
 	/**
 	 * @param type
 	 * @param keyword
 	 */
 	public KeywordDefinition(KeywordType type, String keyword) {
-		this.type = type;
-		this.keyword = keyword;
+		this(type, keyword, null);
 	}
 
 	/**
 	 * @param type
 	 * @param keyword
-	 */
-	public KeywordDefinition(KeywordType type, String keyword, AbstractAPI api) {
-		this(type, keyword);
-		this.api = api;
-	}
-
-	/**
-	 * Set the package artifact that this keyword points to.
-	 *
 	 * @param api The package this keyword points to.
 	 */
-	public void setAPI(AbstractAPI api) {
+	public KeywordDefinition(KeywordType type, String keyword, AbstractAPI api) {
+		this.type = type;
+		this.keyword = keyword;
 		this.api = api;
+		this.hash = (type.toString() + "_" + keyword).hashCode();
 	}
 
 	/**
@@ -56,10 +52,11 @@ public class KeywordDefinition {
 
 	@Override
 	public boolean equals(Object obj) {
+		if(this == obj) return true;
 		if(obj instanceof KeywordDefinition) {
 			KeywordDefinition that = (KeywordDefinition) obj;
 
-			if(this.type == that.type && this.keyword.equals(that.keyword))
+			if(this.hash == that.hash && this.type == that.type && this.keyword.equals(that.keyword))
 				return true;
 		}
 		return false;
@@ -67,7 +64,7 @@ public class KeywordDefinition {
 
 	@Override
 	public int hashCode() {
-		return (this.type.toString() + "_" + this.keyword).hashCode();
+		return this.hash;
 	}
 
 	@Override
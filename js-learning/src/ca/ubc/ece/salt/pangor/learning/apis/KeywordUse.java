@@ -15,16 +15,16 @@ import ca.ubc.ece.salt.gumtree.ast.ClassifiedASTNode.ChangeType;
 public class KeywordUse extends KeywordDefinition {
 
 	/** The context under which the keyword is used. **/
-	public KeywordContext context;
+	public final KeywordContext context;
 
 	/** How this keyword was modified from the source to the destination file. **/
-	public ChangeType changeType;
+	public final ChangeType changeType;
 
 	/**
 	 * Stores the api as a string if the AbstractAPI object is not available
 	 * (i.e., after de-serialization).
 	 */
-	public String apiString;
+	public final String apiString;
 
 	/**
 	 * To be used when investigating a single function.
@@ -35,11 +35,7 @@ public class KeywordUse extends KeywordDefinition {
 	 */
 	public KeywordUse(KeywordType type, KeywordContext context, String keyword,
 			ChangeType changeType, String apiString) {
-		super(type, keyword);
-
-		this.context = context;
-		this.changeType = changeType;
-		this.apiString = apiString;
+		this(type, context, keyword, changeType, null, apiString);
 	}
 
 	/**
@@ -51,11 +47,7 @@ public class KeywordUse extends KeywordDefinition {
 	 */
 	public KeywordUse(KeywordType type, KeywordContext context, String keyword,
 			ChangeType changeType) {
-		super(type, keyword);
-
-		this.context = context;
-		this.changeType = changeType;
-		this.apiString = "_unknownapi_";
+		this(type, context, keyword, changeType, null, "_unknownapi_");
 	}
 
 	/**
@@ -70,8 +62,16 @@ public class KeywordUse extends KeywordDefinition {
 
 	public KeywordUse(KeywordType type, KeywordContext context, String keyword, ChangeType changeType,
 			AbstractAPI path) {
-		this(type, context, keyword, changeType);
-		setAPI(path);
+		this(type, context, keyword, changeType, path, "_unknownapi_");
+	}
+
+	private KeywordUse(KeywordType type, KeywordContext context, String keyword, ChangeType changeType,
+			AbstractAPI api, String apiString) {
+		super(type, keyword, api);
+
+		this.context = context;
+		this.changeType = changeType;
+		this.apiString = apiString;
 	}
 
 	/**
@@ -90,6 +90,11 @@ public class KeywordUse extends KeywordDefinition {
 	@Override
 	public boolean equals(Object obj) {
 
+		if(this == obj) return true;
+
+		/* Equal keywords have equal hash codes, which are cached. */
+		if(obj instanceof KeywordDefinition && obj.hashCode() != this.hashCode()) return false;
+
 		if(obj instanceof KeywordUse) {
 			KeywordUse that = (KeywordUse) obj;
 
@@ -108,11 +113,6 @@ public class KeywordUse extends KeywordDefinition {
 		return false;
 	}
 
-	@Override
-	public int hashCode() {
-		return (this.type.toString() + "_" + this.keyword).hashCode();
-	}
-
 	@Override
 	public String toString() {
 
@@ -0,0 +1,151 @@
+package ca.ubc.ece.salt.pangor.learning.apis;
+
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+
+import ca.ubc.ece.salt.gumtree.ast.ClassifiedASTNode.ChangeType;
+import ca.ubc.ece.salt.pangor.learning.apis.KeywordDefinition.KeywordType;
+import ca.ubc.ece.salt.pangor.learning.apis.KeywordUse.KeywordContext;
+
+/**
+ * Assigns a dense integer id to each distinct {@code KeywordUse}, so feature
+ * vectors can store keyword counts in primitive int maps.
+ *
+ * Two keyword uses have the same id if they are equal (i.e., they have the
+ * same type, context, change type and keyword). Like {@code KeywordUse.equals},
+ * the id ignores the API, so the counts of a keyword that is used with
+ * several APIs (e.g., {@code Date.parse} and {@code JSON.parse}) are merged.
+ * The dictionary stores the first use it sees for each id.
+ *
+ * The ids are the canonical form of keyword uses: the hot paths (feature
+ * vectors and the data set metrics) compare ids instead of interning
+ * {@code KeywordUse} objects and comparing references, because a canonical
+ * object per id would drop the API of every use but the first. The
+ * dictionary is shared by all the analyses in a run and is safe to use from
+ * multiple threads.
+ */
+public class KeywordUseDictionary {
+
+	/** The ids of the keyword uses. **/
+	private static final ConcurrentHashMap<Key, Integer> ids = new ConcurrentHashMap<Key, Integer>();
+
+	/** The keyword uses, indexed by id. Replaced (not modified) when it grows. **/
+	private static volatile KeywordUse[] keywords = new KeywordUse[1024];
+
+	/** The number of ids that have been assigned. **/
+	private static int size = 0;
+
+	private KeywordUseDictionary() { }
+
+	/**
+	 * Gets the id of the keyword use, assigning a new id if the keyword use
+	 * has not been seen before.
+	 * @param keyword The keyword use.
+	 * @return The id of the keyword use.
+	 */
+	public static int getID(KeywordUse keyword) {
+
+		Key key = new Key(keyword);
+		Integer id = ids.get(key);
+		if(id != null) return id;
+
+		synchronized(KeywordUseDictionary.class) {
+			id = ids.get(key);
+			if(id != null) return id;
+
+			KeywordUse[] current = keywords;
+			if(size == current.length) {
+				current = Arrays.copyOf(current, current.length * 2);
+			}
+			current[size] = keyword;
+			keywords = current;
+
+			id = size++;
+			ids.put(key, id);
+		}
+
+		return id;
+
+	}
+
+	/**
+	 * @param id The id of a keyword use.
+	 * @return The keyword use with the id.
+	 */
+	public static KeywordUse getKeyword(int id) {
+		return keywords[id];
+	}
+
+	/**
+	 * @param id The id of a keyword use.
+	 * @param keyword A keyword use with the id.
+	 * @return true if {@code keyword} has the same API and package as the
+	 * 		   keyword use the dictionary stores for the id.
+	 */
+	public static boolean hasSameAPI(int id, KeywordUse keyword) {
+		KeywordUse stored = keywords[id];
+		return equals(getAPIName(stored), getAPIName(keyword))
+				&& equals(stored.getPackageName(), keyword.getPackageName());
+	}
+
+	/**
+	 * @return the name of the keyword's API.
+	 */
+	private static String getAPIName(KeywordUse keyword) {
+		return keyword.api != null ? keyword.api.getName() : keyword.apiString;
+	}
+
+	private static boolean equals(String a, String b) {
+		return a == null ? b == null : a.equals(b);
+	}
+
+	/**
+	 * @return The number of keyword uses in the dictionary.
+	 */
+	public static synchronized int size() {
+		return size;
+	}
+
+	/**
+	 * The attributes of a keyword use that {@code KeywordUse.equals} compares.
+	 */
+	private static class Key {
+
+		private KeywordType type;
+		private KeywordContext context;
+		private ChangeType changeType;
+		private String keyword;
+		private int hash;
+
+		public Key(KeywordUse keyword) {
+			this.type = keyword.type;
+			this.context = keyword.context;
+			this.changeType = keyword.changeType;
+			this.keyword = keyword.keyword;
+
+			int hash = this.type.hashCode();
+			hash = 31 * hash + this.context.hashCode();
+			hash = 31 * hash + this.changeType.hashCode();
+			hash = 31 * hash + this.keyword.hashCode();
+			this.hash = hash;
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if(!(obj instanceof Key)) return false;
+			Key that = (Key) obj;
+			return this.hash == that.hash
+					&& this.type == that.type
+					&& this.context == that.context
+					&& this.changeType == that.changeType
+					&& this.keyword.equals(that.keyword);
+		}
+
+		@Override
+		public int hashCode() {
+			return this.hash;
+		}
+
+	}
+
+}
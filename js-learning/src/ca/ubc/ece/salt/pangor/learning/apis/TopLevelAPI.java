@@ -1,6 +1,5 @@
 package ca.ubc.ece.salt.pangor.learning.apis;
 
-import java.util.ArrayList;
 import java.util.List;
 
 import ca.ubc.ece.salt.pangor.learning.apis.KeywordDefinition.KeywordType;
@@ -41,62 +40,17 @@ public class TopLevelAPI extends AbstractAPI {
 	}
 
 	/**
-	 * Get all occurrences of the given keyword on the API
+	 * Adds the keywords of this API, its classes and its packages to the
+	 * output list.
 	 *
-	 * @param keyword Keyword object
-	 * @return keywords a list with all occurrences of the keyword on the API.
-	 *         if none is found, empty list is returned
-	 */
-	/*
-	 * TODO: This code was copied and pasted from AbstractAPI and should be
-	 * refactored as soon as possible.
+	 * @param outputList The list to add the keywords to.
 	 */
 	@Override
-	public List<KeywordDefinition> getAllKeywords(KeywordDefinition keyword) {
-		List<KeywordDefinition> keywordsList = new ArrayList<>();
-
-		recursiveKeywordSearch(this, keyword, keywordsList);
-
-		return keywordsList;
-	}
-
-	/**
-	 * Recursively search for keyword on this API
-	 *
-	 * @param keyword The keyword we are looking for
-	 * @return Keyword if the keyword/type is present in the API, null otherwise
-	 */
-	/*
-	 * TODO: This code was copied and pasted from AbstractAPI and should be
-	 * refactored as soon as possible. I could not find a better way to solve
-	 * this at the time. recursiveKeywordSearch() should work the same for
-	 * AbstractAPI and TopLevelAPI, only difference is that TopLevelAPI also has
-	 * to include its own packages on the search
-	 */
-	protected void recursiveKeywordSearch(TopLevelAPI api, KeywordDefinition keyword,
-			List<KeywordDefinition> outputList) {
-		/*
-		 * Check if keyword is present on the keywords list. If it is, add the
-		 * keyword we found on the list, which may contain more information
-		 */
-		int index = api.keywords.indexOf(keyword);
-		if (index != -1)
-			outputList.add(api.keywords.get(index));
-
-		/*
-		 * Otherwise, check if keyword is member of any of the classes of API,
-		 * which may have subclasses itself
-		 */
-		for (ClassAPI klass : api.classes) {
-			recursiveKeywordSearch(klass, keyword, outputList);
-		}
+	protected void collectKeywords(List<KeywordDefinition> outputList) {
+		super.collectKeywords(outputList);
 
-		/*
-		 * Otherwise, check if keyword is member of any of the packages of API,
-		 * which may have subclasses itself
-		 */
-		for (PackageAPI pkg : api.packages) {
-			recursiveKeywordSearch(pkg, keyword, outputList);
+		for (PackageAPI pkg : this.packages) {
+			pkg.collectKeywords(outputList);
 		}
 	}
 
@@ -26,9 +26,19 @@ public class CSPredictor extends Predictor {
 	Map<AbstractAPI, Integer> supportMap = new HashMap<>();
 	Map<AbstractAPI, Integer> scoreMap = new HashMap<>();
 
+	/** The package names of the APIs in apisFound. **/
+	Set<String> packagesNamesFound = new HashSet<>();
+
+	/** The (type, keyword) pairs given on input, ignoring context and change type. **/
+	Set<KeywordDefinition> inputKeywords = new HashSet<>();
+
 	public CSPredictor(TopLevelAPI api, Map<KeywordUse, Integer> keywords) {
 		super(api, keywords);
 
+		for (KeywordUse keyword : keywords.keySet()) {
+			inputKeywords.add(new KeywordDefinition(keyword.type, keyword.keyword));
+		}
+
 		calculateScore();
 	}
 
@@ -65,12 +75,7 @@ public class CSPredictor extends Predictor {
 	 * @return
 	 */
 	private boolean isKeywordOnInput(KeywordUse keyword) {
-		for (KeywordUse k : keywords.keySet()) {
-			if (k.type == keyword.type && k.keyword.equals(keyword.keyword))
-				return true;
-		}
-
-		return false;
+		return inputKeywords.contains(new KeywordDefinition(keyword.type, keyword.keyword));
 	}
 
 	@Override
@@ -128,6 +133,7 @@ public class CSPredictor extends Predictor {
 			Integer score = scoreFormula(confidence, support);
 
 			scoreMap.put(api, score);
+			packagesNamesFound.add(api.getPackageName());
 		}
 	}
 
@@ -159,7 +165,7 @@ public class CSPredictor extends Predictor {
 		List<KeywordDefinition> keywordsFound = api.getAllKeywords(keyword);
 		Set<AbstractAPI> apis = new HashSet<>();
 
-		filterKeywordsByPackages(keywordsFound, apisFound);
+		filterKeywordsByPackagesNames(keywordsFound, packagesNamesFound);
 
 		for (KeywordDefinition k : keywordsFound)
 			apis.add(k.api);
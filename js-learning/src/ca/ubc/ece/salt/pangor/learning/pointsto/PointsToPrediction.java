@@ -35,12 +35,12 @@ public class PointsToPrediction {
 
 	/**
 	 * Try to predict to which API this keyword belongs to. If the prediction is
-	 * above LIKELIHOOD_THRESHOLD, the most likely API is stored in the
-	 * Keyword's api field and true is returned. Otherwise, false is returned.
+	 * above LIKELIHOOD_THRESHOLD, a keyword with the most likely API is
+	 * returned. Otherwise, null is returned.
 	 *
 	 * @param keyword the keyword used in the prediction
-	 * @return true if prediction is above confidence level and api is stored in
-	 *         keyword
+	 * @return the keyword with the most likely API if the prediction is above
+	 *         the confidence level, otherwise null
 	 **/
 	public KeywordUse getKeyword(KeywordType type, KeywordContext context,
 			String token, ChangeType changeType) {
@@ -57,8 +57,7 @@ public class PointsToPrediction {
 		PredictionResult result = results.poll();
 
 		if (result != null && result.likelihood > LIKELIHOOD_THRESHOLD) {
-			keyword.api = result.api;
-			return keyword;
+			return new KeywordUse(type, context, token, changeType, result.api);
 		}
 
 		return null;
@@ -0,0 +1,69 @@
+package ca.ubc.ece.salt.pangor.test.learning;
+
+import java.util.Collections;
+import java.util.Random;
+
+import ca.ubc.ece.salt.gumtree.ast.ClassifiedASTNode.ChangeType;
+import ca.ubc.ece.salt.pangor.analysis.learning.FeatureVector;
+import ca.ubc.ece.salt.pangor.analysis.learning.KeywordFilter;
+import ca.ubc.ece.salt.pangor.analysis.learning.LearningDataSet;
+import ca.ubc.ece.salt.pangor.analysis.learning.LearningMetrics;
+import ca.ubc.ece.salt.pangor.batch.AnalysisMetaInformation;
+import ca.ubc.ece.salt.pangor.learning.apis.KeywordDefinition.KeywordType;
+import ca.ubc.ece.salt.pangor.learning.apis.KeywordUse;
+import ca.ubc.ece.salt.pangor.learning.apis.KeywordUse.KeywordContext;
+
+/**
+ * Times {@code LearningDataSet.getMetrics} on a large, randomly generated
+ * data set.
+ *
+ * This is not a unit test (it is not run by the test suite). Run it with
+ * the test class path, e.g.,
+ * {@code java ... LearningMetricsBenchmark [rows] [keywords per row]}.
+ */
+public class LearningMetricsBenchmark {
+
+	private static final int DISTINCT_KEYWORDS = 2000;
+
+	private static final String[] APIS = { "global", "path", "fs", "Date", "JSON" };
+
+	private static final int RUNS = 5;
+
+	public static void main(String[] args) throws Exception {
+
+		int rows = args.length > 0 ? Integer.parseInt(args[0]) : 200000;
+		int keywordsPerRow = args.length > 1 ? Integer.parseInt(args[1]) : 20;
+
+		LearningDataSet dataSet = new LearningDataSet(Collections.<KeywordFilter>emptyList());
+		AnalysisMetaInformation ami = new AnalysisMetaInformation(0, 0, "benchmark",
+				"homepage", "src.js", "dst.js", "commit1", "commit2", null, null);
+
+		/* The same seed gives the same data set on every run. */
+		Random random = new Random(0);
+		ChangeType[] changeTypes = { ChangeType.INSERTED, ChangeType.REMOVED, ChangeType.UPDATED, ChangeType.UNCHANGED };
+		for(int i = 0; i < rows; i++) {
+			FeatureVector featureVector = new FeatureVector(ami, "~anonymous~", i);
+			for(int j = 0; j < keywordsPerRow; j++) {
+				featureVector.addKeyword(new KeywordUse(KeywordType.METHOD, KeywordContext.METHOD_CALL,
+						"keyword" + random.nextInt(DISTINCT_KEYWORDS),
+						changeTypes[random.nextInt(changeTypes.length)],
+						APIS[random.nextInt(APIS.length)]));
+			}
+			dataSet.registerAlert(featureVector);
+		}
+
+		/* The first run warms up. */
+		for(int run = 0; run <= RUNS; run++) {
+			long start = System.nanoTime();
+			LearningMetrics metrics = dataSet.getMetrics();
+			long elapsed = System.nanoTime() - start;
+
+			if(run > 0) {
+				System.out.println("getMetrics: " + (elapsed / 1000000) + " ms for " + rows + " rows (most common keyword in "
+						+ metrics.keywordFrequency.iterator().next().frequency + " rows).");
+			}
+		}
+
+	}
+
+}
@@ -0,0 +1,69 @@
+package ca.ubc.ece.salt.pangor.test.learning;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import ca.ubc.ece.salt.gumtree.ast.ClassifiedASTNode.ChangeType;
+import ca.ubc.ece.salt.pangor.learning.apis.APIFactory;
+import ca.ubc.ece.salt.pangor.learning.apis.KeywordDefinition.KeywordType;
+import ca.ubc.ece.salt.pangor.learning.apis.KeywordUse;
+import ca.ubc.ece.salt.pangor.learning.apis.KeywordUse.KeywordContext;
+import ca.ubc.ece.salt.pangor.learning.apis.TopLevelAPI;
+import ca.ubc.ece.salt.pangor.learning.pointsto.PointsToPrediction;
+
+/**
+ * Times points-to prediction on the {@code TestPointsToPrediction} fixtures.
+ * The API is built once, so the timings measure the keyword lookups.
+ *
+ * This is not a unit test (it is not run by the test suite). Run it with
+ * the test class path, e.g., {@code java ... PointsToPredictionBenchmark [iterations]}.
+ */
+public class PointsToPredictionBenchmark {
+
+	private static final int WARMUP = 1000;
+
+	public static void main(String[] args) {
+
+		int iterations = args.length > 0 ? Integer.parseInt(args[0]) : 10000;
+
+		TopLevelAPI api = APIFactory.buildTopLevelAPI();
+
+		Map<KeywordUse, Integer> ambiguous = new HashMap<>();
+		ambiguous.put(new KeywordUse(KeywordType.METHOD, KeywordContext.UNKNOWN, "parse", ChangeType.INSERTED), 1);
+		ambiguous.put(new KeywordUse(KeywordType.PACKAGE, KeywordContext.UNKNOWN, "path", ChangeType.INSERTED), 1);
+		ambiguous.put(new KeywordUse(KeywordType.METHOD, KeywordContext.UNKNOWN, "getMinutes", ChangeType.REMOVED), 1);
+		ambiguous.put(new KeywordUse(KeywordType.METHOD, KeywordContext.UNKNOWN, "getUTCSeconds", ChangeType.UPDATED), 1);
+
+		Map<KeywordUse, Integer> notImported = new HashMap<>();
+		notImported.put(new KeywordUse(KeywordType.FIELD, KeywordContext.UNKNOWN, "win32", ChangeType.INSERTED), 1);
+
+		int found = 0;
+		for(int i = 0; i < WARMUP; i++) {
+			found += predict(api, ambiguous, notImported);
+		}
+
+		long start = System.nanoTime();
+		for(int i = 0; i < iterations; i++) {
+			found += predict(api, ambiguous, notImported);
+		}
+		long elapsed = System.nanoTime() - start;
+
+		System.out.println("Points-to prediction: " + (elapsed / iterations) + " ns per fixture set ("
+				+ found + " keywords found).");
+
+	}
+
+	/**
+	 * Runs the predictions from {@code TestPointsToPrediction}.
+	 * @return The number of keywords that were found.
+	 */
+	private static int predict(TopLevelAPI api, Map<KeywordUse, Integer> ambiguous, Map<KeywordUse, Integer> notImported) {
+
+		int found = 0;
+		if(new PointsToPrediction(api, ambiguous).getKeyword(KeywordType.METHOD, "parse") != null) found++;
+		if(new PointsToPrediction(api, notImported).getKeyword(KeywordType.FIELD, "win32") != null) found++;
+		return found;
+
+	}
+
+}
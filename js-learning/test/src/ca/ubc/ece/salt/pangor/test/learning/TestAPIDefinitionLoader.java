@@ -0,0 +1,127 @@
+package ca.ubc.ece.salt.pangor.test.learning;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import ca.ubc.ece.salt.pangor.learning.apis.APIDefinitionLoader;
+import ca.ubc.ece.salt.pangor.learning.apis.APIFactory;
+import ca.ubc.ece.salt.pangor.learning.apis.KeywordDefinition;
+import ca.ubc.ece.salt.pangor.learning.apis.KeywordDefinition.KeywordType;
+import ca.ubc.ece.salt.pangor.learning.apis.PackageAPI;
+import ca.ubc.ece.salt.pangor.learning.apis.TopLevelAPI;
+
+public class TestAPIDefinitionLoader {
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	/**
+	 * Copies the Node.js definitions to a temporary folder so the snapshot
+	 * is not written to the source tree.
+	 */
+	private File copyDefinitions() throws Exception {
+		File definitions = new File(folder.getRoot(), "node.json");
+		Files.copy(new File("./apis/node.json").toPath(), definitions.toPath());
+		return definitions;
+	}
+
+	@Test
+	public void testLoadPackages() throws Exception {
+		File definitions = copyDefinitions();
+
+		List<PackageAPI> packages = APIDefinitionLoader.load(definitions);
+
+		assertEquals(2, packages.size());
+		assertEquals("path", packages.get(0).getName());
+		assertEquals("fs", packages.get(1).getName());
+	}
+
+	@Test
+	public void testLoadFromSnapshot() throws Exception {
+		File definitions = copyDefinitions();
+
+		/* The first load compiles the snapshot, the second reads it. */
+		List<PackageAPI> compiled = APIDefinitionLoader.load(definitions);
+		assertTrue(new File(definitions.getPath() + APIDefinitionLoader.SNAPSHOT_EXTENSION).isFile());
+		List<PackageAPI> loaded = APIDefinitionLoader.load(definitions);
+
+		assertEquals(compiled.size(), loaded.size());
+		for(int i = 0; i < compiled.size(); i++) {
+			assertEquals(compiled.get(i).getName(), loaded.get(i).getName());
+		}
+	}
+
+	@Test
+	public void testCorruptSnapshotFallsBackToDefinitions() throws Exception {
+		File definitions = copyDefinitions();
+		List<PackageAPI> compiled = APIDefinitionLoader.load(definitions);
+
+		/* Replace the package count with a count the snapshot cannot hold.
+		 * The count follows the magic number, version, length and
+		 * modification time. */
+		File snapshot = new File(definitions.getPath() + APIDefinitionLoader.SNAPSHOT_EXTENSION);
+		try(RandomAccessFile file = new RandomAccessFile(snapshot, "rw")) {
+			file.seek(4 + 4 + 8 + 8);
+			file.writeInt(Integer.MAX_VALUE);
+		}
+
+		List<PackageAPI> loaded = APIDefinitionLoader.load(definitions);
+		assertEquals(compiled.size(), loaded.size());
+
+		/* The corrupt snapshot is replaced. */
+		assertEquals(compiled.size(), APIDefinitionLoader.load(definitions).size());
+	}
+
+	@Test
+	public void testTruncatedSnapshotFallsBackToDefinitions() throws Exception {
+		File definitions = copyDefinitions();
+		List<PackageAPI> compiled = APIDefinitionLoader.load(definitions);
+
+		File snapshot = new File(definitions.getPath() + APIDefinitionLoader.SNAPSHOT_EXTENSION);
+		try(RandomAccessFile file = new RandomAccessFile(snapshot, "rw")) {
+			file.setLength(file.length() / 2);
+		}
+
+		assertEquals(compiled.size(), APIDefinitionLoader.load(definitions).size());
+	}
+
+	@Test
+	public void testLoadedKeywordsAreInTopLevelAPI() throws Exception {
+		File definitions = copyDefinitions();
+
+		TopLevelAPI api = APIFactory.buildTopLevelAPI(APIDefinitionLoader.load(definitions));
+
+		KeywordDefinition keyword = api.getFirstKeyword(KeywordType.FIELD, "bytesWritten");
+		assertNotNull(keyword);
+		assertEquals("WriteStream", keyword.api.getName());
+		assertEquals("fs", keyword.getPackageName());
+
+		keyword = api.getFirstKeyword(KeywordType.PACKAGE, "path");
+		assertNotNull(keyword);
+		assertEquals("path", keyword.getPackageName());
+
+		/* 'parse' is a method of Date, JSON and path. */
+		assertEquals(3, api.getAllKeywords(new KeywordDefinition(KeywordType.METHOD, "parse")).size());
+	}
+
+	@Test(expected = IOException.class)
+	public void testLoadInvalidDefinitions() throws Exception {
+		File definitions = new File(folder.getRoot(), "invalid.json");
+		Files.write(definitions.toPath(), Arrays.asList("{ \"packages\": [ { \"methods\": [] } ] }"));
+
+		APIDefinitionLoader.load(definitions);
+	}
+
+}
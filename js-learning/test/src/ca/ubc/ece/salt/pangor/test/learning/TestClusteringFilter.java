@@ -0,0 +1,96 @@
+package ca.ubc.ece.salt.pangor.test.learning;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.Test;
+
+import ca.ubc.ece.salt.gumtree.ast.ClassifiedASTNode.ChangeType;
+import ca.ubc.ece.salt.pangor.analysis.learning.ClusteringFilter;
+import ca.ubc.ece.salt.pangor.analysis.learning.ClusteringFilter.ContextGroup;
+import ca.ubc.ece.salt.pangor.learning.apis.KeywordDefinition.KeywordType;
+import ca.ubc.ece.salt.pangor.learning.apis.KeywordUse;
+import ca.ubc.ece.salt.pangor.learning.apis.KeywordUse.KeywordContext;
+
+public class TestClusteringFilter {
+
+	private static KeywordUse keyword(KeywordType type, KeywordContext context, ChangeType changeType, String api, String keyword) {
+		return new KeywordUse(type, context, keyword, changeType, api);
+	}
+
+	@Test
+	public void testDefaultFilter() {
+		ClusteringFilter filter = new ClusteringFilter();
+
+		assertTrue(filter.include(keyword(KeywordType.METHOD, KeywordContext.METHOD_CALL, ChangeType.INSERTED, "fs", "readFile")));
+		assertFalse(filter.include(keyword(KeywordType.METHOD, KeywordContext.METHOD_CALL, ChangeType.UNCHANGED, "fs", "readFile")));
+		assertFalse(filter.include(keyword(KeywordType.RESERVED, KeywordContext.CONDITION, ChangeType.INSERTED, "global", "typeof")));
+		assertFalse(filter.include(keyword(KeywordType.RESERVED, KeywordContext.CONDITION, ChangeType.INSERTED, "global", "falsey")));
+		assertFalse(filter.include(keyword(KeywordType.RESERVED, KeywordContext.STATEMENT, ChangeType.INSERTED, "global", "if")));
+		assertFalse(filter.include(keyword(KeywordType.METHOD, KeywordContext.METHOD_CALL, ChangeType.INSERTED, "global", "test")));
+		assertTrue(filter.include(keyword(KeywordType.METHOD, KeywordContext.METHOD_CALL, ChangeType.INSERTED, "RegExp", "test")));
+	}
+
+	@Test
+	public void testContextGroups() {
+		KeywordUse typeOf = keyword(KeywordType.RESERVED, KeywordContext.CONDITION, ChangeType.INSERTED, "global", "typeof");
+		KeywordUse statement = keyword(KeywordType.RESERVED, KeywordContext.STATEMENT, ChangeType.REMOVED, "global", "if");
+
+		ClusteringFilter reserved = new ClusteringFilter(ContextGroup.RESERVED, Collections.<ChangeType>emptySet());
+		assertTrue(reserved.include(typeOf));
+		assertFalse(reserved.include(statement));
+
+		ClusteringFilter common = new ClusteringFilter(ContextGroup.COMMON_RESERVED, Collections.<ChangeType>emptySet());
+		assertTrue(common.include(typeOf));
+		assertTrue(common.include(statement));
+		assertTrue(common.include(keyword(KeywordType.METHOD, KeywordContext.METHOD_CALL, ChangeType.UNCHANGED, "fs", "readFile")));
+	}
+
+	@Test
+	public void testSelectedColumns() {
+		/* Column names that contain a reserved word are removed, as they were
+		 * by the RemoveByName filters getWekaClusters used to apply. */
+		List<KeywordUse> columns = Arrays.asList(
+				keyword(KeywordType.METHOD, KeywordContext.METHOD_CALL, ChangeType.INSERTED, "fs", "readFile"),
+				keyword(KeywordType.PARAMETER, KeywordContext.ARGUMENT, ChangeType.INSERTED, "Array", "thisArg"),
+				keyword(KeywordType.METHOD, KeywordContext.METHOD_CALL, ChangeType.REMOVED, "global", "nullify"),
+				keyword(KeywordType.METHOD, KeywordContext.METHOD_CALL, ChangeType.UPDATED, "assert", "isTrue"),
+				keyword(KeywordType.FIELD, KeywordContext.EXPRESSION, ChangeType.INSERTED, "process", "env"),
+				keyword(KeywordType.RESERVED, KeywordContext.CONDITION, ChangeType.INSERTED, "global", "this"),
+				keyword(KeywordType.RESERVED, KeywordContext.STATEMENT, ChangeType.REMOVED, "global", "if"),
+				keyword(KeywordType.PACKAGE, KeywordContext.REQUIRE, ChangeType.INSERTED, "global", "test"),
+				keyword(KeywordType.METHOD, KeywordContext.METHOD_CALL, ChangeType.INSERTED, "global", "test"),
+				keyword(KeywordType.METHOD, KeywordContext.METHOD_CALL, ChangeType.UNCHANGED, "path", "join"));
+
+		assertEquals(Arrays.asList(
+				"METHOD_METHOD_CALL_INSERTED_fs_readFile",
+				"METHOD_METHOD_CALL_UPDATED_assert_isTrue",
+				"FIELD_EXPRESSION_INSERTED_process_env",
+				"PACKAGE_REQUIRE_INSERTED_test"),
+				select(new ClusteringFilter(), columns));
+
+		assertEquals(Arrays.asList(
+				"METHOD_METHOD_CALL_INSERTED_fs_readFile",
+				"METHOD_METHOD_CALL_REMOVED_global_nullify",
+				"METHOD_METHOD_CALL_UPDATED_assert_isTrue",
+				"FIELD_EXPRESSION_INSERTED_process_env",
+				"PACKAGE_REQUIRE_INSERTED_test",
+				"METHOD_METHOD_CALL_UNCHANGED_path_join"),
+				select(new ClusteringFilter(ContextGroup.RESERVED, Collections.<ChangeType>emptySet()), columns));
+	}
+
+	private static List<String> select(ClusteringFilter filter, List<KeywordUse> columns) {
+		List<String> selected = new ArrayList<String>();
+		for(KeywordUse column : columns) {
+			if(filter.include(column)) selected.add(column.toString());
+		}
+		return selected;
+	}
+
+}
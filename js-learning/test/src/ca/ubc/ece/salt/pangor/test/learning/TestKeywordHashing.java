@@ -0,0 +1,101 @@
+package ca.ubc.ece.salt.pangor.test.learning;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+
+import org.junit.Test;
+
+import ca.ubc.ece.salt.gumtree.ast.ClassifiedASTNode.ChangeType;
+import ca.ubc.ece.salt.pangor.analysis.learning.FeatureVector;
+import ca.ubc.ece.salt.pangor.batch.AnalysisMetaInformation;
+import ca.ubc.ece.salt.pangor.learning.apis.KeywordDefinition;
+import ca.ubc.ece.salt.pangor.learning.apis.KeywordDefinition.KeywordType;
+import ca.ubc.ece.salt.pangor.learning.apis.KeywordUse;
+import ca.ubc.ece.salt.pangor.learning.apis.KeywordUse.KeywordContext;
+import ca.ubc.ece.salt.pangor.learning.apis.KeywordUseDictionary;
+
+public class TestKeywordHashing {
+
+	@Test
+	public void testHashCodeIsUnchanged() {
+		KeywordUse keyword = new KeywordUse(KeywordType.METHOD, KeywordContext.UNKNOWN, "parse", ChangeType.INSERTED, "Date");
+
+		/* The hash code determines the order of the columns in the data set. */
+		assertEquals("METHOD_parse".hashCode(), keyword.hashCode());
+		assertEquals(keyword.hashCode(), new KeywordDefinition(KeywordType.METHOD, "parse").hashCode());
+	}
+
+	@Test
+	public void testEqualityIgnoresAPI() {
+		KeywordUse date = new KeywordUse(KeywordType.METHOD, KeywordContext.UNKNOWN, "parse", ChangeType.INSERTED, "Date");
+		KeywordUse json = new KeywordUse(KeywordType.METHOD, KeywordContext.UNKNOWN, "parse", ChangeType.INSERTED, "JSON");
+		KeywordUse removed = new KeywordUse(KeywordType.METHOD, KeywordContext.UNKNOWN, "parse", ChangeType.REMOVED, "Date");
+
+		assertEquals(date, json);
+		assertNotEquals(date, removed);
+		assertTrue(date.equals(new KeywordDefinition(KeywordType.METHOD, "parse")));
+
+		Set<KeywordUse> keywords = new HashSet<KeywordUse>();
+		keywords.add(date);
+		keywords.add(json);
+		keywords.add(removed);
+		assertEquals(2, keywords.size());
+	}
+
+	@Test
+	public void testDictionaryMergesAPIs() {
+		KeywordUse date = new KeywordUse(KeywordType.METHOD, KeywordContext.UNKNOWN, "parse", ChangeType.INSERTED, "Date");
+		KeywordUse json = new KeywordUse(KeywordType.METHOD, KeywordContext.UNKNOWN, "parse", ChangeType.INSERTED, "JSON");
+		KeywordUse removed = new KeywordUse(KeywordType.METHOD, KeywordContext.UNKNOWN, "parse", ChangeType.REMOVED, "Date");
+
+		/* Ids follow KeywordUse.equals, so they ignore the API. */
+		int dateID = KeywordUseDictionary.getID(date);
+		assertEquals(dateID, KeywordUseDictionary.getID(json));
+		assertNotEquals(dateID, KeywordUseDictionary.getID(removed));
+	}
+
+	@Test
+	public void testCountsMergeAPIs() {
+		KeywordUse object = new KeywordUse(KeywordType.METHOD, KeywordContext.METHOD_CALL, "keys", ChangeType.INSERTED, "Object");
+		KeywordUse map = new KeywordUse(KeywordType.METHOD, KeywordContext.METHOD_CALL, "keys", ChangeType.INSERTED, "Map");
+		KeywordDefinition keys = new KeywordDefinition(KeywordType.METHOD, "keys");
+
+		FeatureVector featureVector = createFeatureVector(1);
+		featureVector.addKeyword(object);
+		featureVector.addKeyword(object);
+		featureVector.addKeyword(map);
+
+		assertEquals(3, featureVector.getCount(keys));
+		assertEquals(1, featureVector.getKeywordMap().size());
+		assertEquals(Integer.valueOf(3), featureVector.getKeywordMap().get(object));
+		assertEquals(3, featureVector.getCounts(Collections.singletonMap(keys, 0))[0]);
+
+		int[][] sparse = featureVector.getSparseCounts(Collections.singletonMap(keys, 0));
+		assertEquals(1, sparse[0].length);
+		assertEquals(3, sparse[1][0]);
+
+		String[] serialized = featureVector.serialize().split(",");
+		assertEquals(8, serialized.length);
+		assertEquals("METHOD:METHOD_CALL:INSERTED:Object:keys:3", serialized[7]);
+
+		/* A feature vector keeps the API of its own first use. */
+		FeatureVector mapFirst = createFeatureVector(2);
+		mapFirst.addKeyword(map);
+		mapFirst.addKeyword(object);
+		assertEquals("Map", mapFirst.getKeywords().get(0).apiString);
+		assertEquals(2, mapFirst.getCount(keys));
+	}
+
+	private static FeatureVector createFeatureVector(int id) {
+		AnalysisMetaInformation ami = new AnalysisMetaInformation(0, 0,
+				"project", "homepage", "src.js", "dst.js", "commit1", "commit2",
+				null, null);
+		return new FeatureVector(ami, "~anonymous~", id);
+	}
+
+}
@@ -0,0 +1,171 @@
+package ca.ubc.ece.salt.pangor.test.learning;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Test;
+
+import weka.core.Instance;
+import weka.core.Instances;
+import weka.core.SparseInstance;
+import ca.ubc.ece.salt.gumtree.ast.ClassifiedASTNode.ChangeType;
+import ca.ubc.ece.salt.pangor.analysis.learning.FeatureVector;
+import ca.ubc.ece.salt.pangor.analysis.learning.KeywordFilter;
+import ca.ubc.ece.salt.pangor.analysis.learning.KeywordFilter.FilterType;
+import ca.ubc.ece.salt.pangor.analysis.learning.LearningDataSet;
+import ca.ubc.ece.salt.pangor.batch.AnalysisMetaInformation;
+import ca.ubc.ece.salt.pangor.learning.apis.KeywordDefinition.KeywordType;
+import ca.ubc.ece.salt.pangor.learning.apis.KeywordUse;
+import ca.ubc.ece.salt.pangor.learning.apis.KeywordUse.KeywordContext;
+
+public class TestLearningDataSetWeka {
+
+	@Test
+	public void testSparseInstances() throws Exception {
+
+		KeywordFilter filter = new KeywordFilter(FilterType.INCLUDE,
+				KeywordType.UNKNOWN, KeywordContext.UNKNOWN,
+				ChangeType.UNKNOWN, "", "");
+		LearningDataSet dataSet = new LearningDataSet(Arrays.asList(filter));
+
+		KeywordUse parse = new KeywordUse(KeywordType.METHOD, KeywordContext.METHOD_CALL, "parse", ChangeType.INSERTED, "JSON");
+		KeywordUse error = new KeywordUse(KeywordType.RESERVED, KeywordContext.EXCEPTION_CATCH, "error", ChangeType.REMOVED, "global");
+
+		FeatureVector first = createFeatureVector(1, "project1");
+		first.addKeyword(parse, 2);
+		dataSet.registerAlert(first);
+
+		FeatureVector second = createFeatureVector(2, "project2");
+		second.addKeyword(error);
+		dataSet.registerAlert(second);
+
+		dataSet.preProcess();
+		Instances instances = dataSet.getWekaDataSet();
+
+		assertEquals(2, instances.numInstances());
+		assertEquals(11, instances.numAttributes());
+
+		for(Instance instance : instances) {
+
+			/* The meta info (except the unassigned cluster) and one keyword are
+			 * stored in each instance. */
+			assertTrue(instance instanceof SparseInstance);
+			assertEquals(9, instance.numValues());
+
+		}
+
+		/* The first string value of each attribute must not be lost. */
+		assertEquals("project1", instances.get(0).stringValue(1));
+		assertEquals("project2", instances.get(1).stringValue(1));
+		assertEquals("?", instances.get(0).stringValue(8));
+
+		assertEquals(2.0, instances.get(0).value(instances.attribute(parse.toString())), 0.0);
+		assertEquals(0.0, instances.get(0).value(instances.attribute(error.toString())), 0.0);
+		assertEquals(1.0, instances.get(1).value(instances.attribute(error.toString())), 0.0);
+
+	}
+
+	@Test
+	public void testPreProcessDuringImport() throws Exception {
+
+		KeywordFilter filter = new KeywordFilter(FilterType.INCLUDE,
+				KeywordType.UNKNOWN, KeywordContext.UNKNOWN,
+				ChangeType.UNKNOWN, "", "");
+
+		FeatureVector first = createFeatureVector(1, "project1");
+		first.addKeyword(new KeywordUse(KeywordType.METHOD, KeywordContext.METHOD_CALL, "parse", ChangeType.INSERTED, "JSON"));
+
+		/* No keywords changed, so pre-processing removes this row. */
+		FeatureVector second = createFeatureVector(2, "project2");
+		second.addKeyword(new KeywordUse(KeywordType.METHOD, KeywordContext.METHOD_CALL, "stringify", ChangeType.UNCHANGED, "JSON"));
+
+		FeatureVector third = createFeatureVector(3, "project3");
+		third.addKeyword(new KeywordUse(KeywordType.RESERVED, KeywordContext.EXCEPTION_CATCH, "error", ChangeType.REMOVED, "global"));
+
+		File file = File.createTempFile("features", ".csv");
+		file.deleteOnExit();
+		try(PrintStream stream = new PrintStream(file)) {
+			stream.println(first.serialize());
+			stream.println(second.serialize());
+			stream.println(third.serialize());
+		}
+
+		LearningDataSet imported = new LearningDataSet(file.getPath(), Arrays.asList(filter));
+		imported.preProcess();
+
+		LearningDataSet streamed = new LearningDataSet(file.getPath(), Arrays.asList(filter), true);
+
+		assertEquals(2, imported.getFeatureVectors().size());
+		assertEquals(2, streamed.getFeatureVectors().size());
+		for(int i = 0; i < 2; i++) {
+			assertEquals(imported.getFeatureVectors().get(i).id, streamed.getFeatureVectors().get(i).id);
+		}
+		assertEquals(1, streamed.getFeatureVectors().get(0).id);
+		assertEquals(3, streamed.getFeatureVectors().get(1).id);
+
+		assertEquals(imported.getWekaDataSet().numAttributes(), streamed.getWekaDataSet().numAttributes());
+
+	}
+
+	@Test
+	public void testSparseArffMatchesWeka() throws Exception {
+
+		KeywordFilter filter = new KeywordFilter(FilterType.INCLUDE,
+				KeywordType.UNKNOWN, KeywordContext.UNKNOWN,
+				ChangeType.UNKNOWN, "", "");
+		LearningDataSet dataSet = new LearningDataSet(Arrays.asList(filter));
+
+		KeywordUse parse = new KeywordUse(KeywordType.METHOD, KeywordContext.METHOD_CALL, "parse", ChangeType.INSERTED, "JSON");
+		KeywordUse error = new KeywordUse(KeywordType.RESERVED, KeywordContext.EXCEPTION_CATCH, "error", ChangeType.REMOVED, "global");
+
+		FeatureVector first = createFeatureVector(1, "project1");
+		first.addKeyword(parse, 2);
+		first.addKeyword(error);
+		dataSet.registerAlert(first);
+
+		/* Meta info with spaces is quoted. */
+		FeatureVector second = new FeatureVector(new AnalysisMetaInformation(0, 0,
+				"project 2", "homepage", "src file.js", "dst file.js", "commit1", "commit2",
+				null, null), "~anonymous~", 2);
+		second.addKeyword(error);
+		dataSet.registerAlert(second);
+
+		/* A project without a homepage. */
+		FeatureVector third = new FeatureVector(new AnalysisMetaInformation(0, 0,
+				"project3", null, "src.js", "dst.js", "commit1", "commit2",
+				null, null), "~anonymous~", 3);
+		third.addKeyword(parse);
+		dataSet.registerAlert(third);
+
+		dataSet.preProcess();
+		Instances instances = dataSet.getWekaDataSet();
+
+		File file = File.createTempFile("dataset", ".arff");
+		file.deleteOnExit();
+		dataSet.writeFilteredDataSet(file.getPath());
+
+		/* The rows are the last lines of the file. */
+		List<String> lines = Files.readAllLines(file.toPath(), StandardCharsets.UTF_8);
+		List<String> rows = lines.subList(lines.size() - instances.numInstances(), lines.size());
+
+		for(int i = 0; i < instances.numInstances(); i++) {
+			assertEquals(instances.get(i).toString(), rows.get(i));
+		}
+
+	}
+
+	private static FeatureVector createFeatureVector(int id, String project) {
+		AnalysisMetaInformation ami = new AnalysisMetaInformation(0, 0,
+				project, "homepage", "src.js", "dst.js", "commit1", "commit2",
+				null, null);
+		return new FeatureVector(ami, "~anonymous~", id);
+	}
+
+}
@@ -124,6 +124,35 @@ public class TestPointsToPrediction {
 		assertNull(keyword);
 	}
 
+	/*
+	 * The API (and its keyword index) is built once per run and shared by
+	 * every prediction. Lookups must not change the results of later
+	 * predictions.
+	 */
+	@Test
+	public void testGetKeywordWithSharedAPI() {
+		Map<KeywordUse, Integer> ambiguous = new HashMap<>();
+		ambiguous.put(new KeywordUse(KeywordType.METHOD, KeywordContext.UNKNOWN, "parse", ChangeType.INSERTED), 1);
+		ambiguous.put(new KeywordUse(KeywordType.PACKAGE, KeywordContext.UNKNOWN, "path", ChangeType.INSERTED), 1);
+		ambiguous.put(new KeywordUse(KeywordType.METHOD, KeywordContext.UNKNOWN, "getMinutes", ChangeType.REMOVED), 1);
+		ambiguous.put(new KeywordUse(KeywordType.METHOD, KeywordContext.UNKNOWN, "getUTCSeconds", ChangeType.UPDATED), 1);
+
+		Map<KeywordUse, Integer> notImported = new HashMap<>();
+		notImported.put(new KeywordUse(KeywordType.FIELD, KeywordContext.UNKNOWN, "win32", ChangeType.INSERTED), 1);
+
+		TopLevelAPI api = APIFactory.buildTopLevelAPI();
+
+		KeywordUse keyword = new PointsToPrediction(api, ambiguous).getKeyword(KeywordType.METHOD, "parse");
+		assertNotNull(keyword);
+		assertEquals("Date", keyword.api.getName());
+
+		assertNull(new PointsToPrediction(api, notImported).getKeyword(KeywordType.FIELD, "win32"));
+
+		keyword = new PointsToPrediction(api, ambiguous).getKeyword(KeywordType.METHOD, "parse");
+		assertNotNull(keyword);
+		assertEquals("Date", keyword.api.getName());
+	}
+
 	/*
 	 * fooMethod was not given on the list of inserted/updated/removed/unchanged
 	 * keywords
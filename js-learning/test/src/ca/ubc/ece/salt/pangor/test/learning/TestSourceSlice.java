@@ -0,0 +1,105 @@
+package ca.ubc.ece.salt.pangor.test.learning;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import java.io.File;
+
+import org.eclipse.jgit.lib.Constants;
+import org.eclipse.jgit.lib.ObjectId;
+import org.eclipse.jgit.lib.ObjectInserter;
+import org.eclipse.jgit.lib.Repository;
+import org.eclipse.jgit.lib.RepositoryBuilder;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import ca.ubc.ece.salt.pangor.analysis.learning.SourceSlice;
+import ca.ubc.ece.salt.pangor.batch.AnalysisMetaInformation;
+import ca.ubc.ece.salt.pangor.batch.SourceHandle;
+
+public class TestSourceSlice {
+
+	private static final String SOURCE = "var a = 1;\nfunction f() { return a; }\n";
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	@Test
+	public void testSliceReadsBlob() throws Exception {
+		File gitDirectory = folder.newFolder("test.git");
+		ObjectId blob = insertBlob(gitDirectory, SOURCE);
+
+		/* The slice only stores the blob id and the offsets. The repository
+		 * is closed, so the handle has to open it again. */
+		int offset = SOURCE.indexOf("function");
+		SourceSlice slice = new SourceSlice(new SourceHandle(gitDirectory, blob), offset, SOURCE.length() - offset - 1);
+
+		assertEquals("function f() { return a; }", slice.getText());
+	}
+
+	@Test
+	public void testSliceReadsAnalyzedCode() throws Exception {
+		File gitDirectory = folder.newFolder("test.git");
+		ObjectId blob = insertBlob(gitDirectory, SOURCE);
+
+		AnalysisMetaInformation ami = new AnalysisMetaInformation(0, 0, "test",
+				"homepage", "src file", "dst file", "src commit", "dst commit",
+				SOURCE, SOURCE);
+		ami.buggySource = new SourceHandle(gitDirectory, blob);
+
+		/* The repaired file's repository does not exist, so its slice can
+		 * only be read from memory. */
+		ami.repairedSource = new SourceHandle(new File(gitDirectory, "missing.git"), blob);
+
+		int offset = SOURCE.indexOf("function");
+		SourceSlice buggy = new SourceSlice(ami.buggySource, offset, SOURCE.length() - offset - 1);
+		SourceSlice repaired = new SourceSlice(ami.repairedSource, offset, SOURCE.length() - offset - 1);
+		assertEquals("function f() { return a; }", buggy.getText(ami));
+		assertEquals("function f() { return a; }", repaired.getText(ami));
+
+		/* Once the text is released, the slice is read from the blob. */
+		ami.releaseCode();
+		assertEquals("function f() { return a; }", buggy.getText(ami));
+	}
+
+	@Test
+	public void testReleasedCodeIsReadThroughHandle() throws Exception {
+		File gitDirectory = folder.newFolder("test.git");
+		ObjectId blob = insertBlob(gitDirectory, SOURCE);
+
+		AnalysisMetaInformation ami = new AnalysisMetaInformation(0, 0, "test",
+				"homepage", "src file", "dst file", "src commit", "dst commit",
+				SOURCE, "");
+		ami.buggySource = new SourceHandle(gitDirectory, blob);
+
+		ami.releaseCode();
+
+		/* Only the file with a handle is released. */
+		assertNull(ami.buggyCode);
+		assertEquals(SOURCE, ami.getBuggyCode());
+		assertEquals("", ami.repairedCode);
+		assertEquals("", ami.getRepairedCode());
+	}
+
+	private static ObjectId insertBlob(File gitDirectory, String text) throws Exception {
+		Repository repository = new RepositoryBuilder().setGitDir(gitDirectory).build();
+		try {
+			repository.create(true);
+
+			ObjectInserter inserter = repository.newObjectInserter();
+			try {
+				ObjectId blob = inserter.insert(Constants.OBJ_BLOB, Constants.encode(text));
+				inserter.flush();
+				return blob;
+			}
+			finally {
+				inserter.release();
+			}
+		}
+		finally {
+			repository.close();
+		}
+	}
+
+}
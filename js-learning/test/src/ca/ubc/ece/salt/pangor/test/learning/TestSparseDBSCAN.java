@@ -0,0 +1,123 @@
+package ca.ubc.ece.salt.pangor.test.learning;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.ArrayList;
+import java.util.Random;
+
+import org.junit.Test;
+
+import weka.clusterers.DBSCAN;
+import weka.core.Attribute;
+import weka.core.DenseInstance;
+import weka.core.Instances;
+import weka.core.ManhattanDistance;
+import ca.ubc.ece.salt.pangor.analysis.learning.SparseDBSCAN;
+
+/**
+ * Checks that {@code SparseDBSCAN} produces the same clusters as Weka's
+ * {@code DBSCAN} with a {@code ManhattanDistance}.
+ */
+public class TestSparseDBSCAN {
+
+	/**
+	 * Generates keyword count vectors around a few prototypes. Many of the
+	 * vectors are duplicates, which is typical of the learning data sets.
+	 */
+	private static int[][] generate(long seed, int instances, int attributes, int prototypes) {
+
+		Random random = new Random(seed);
+
+		int[][] centers = new int[prototypes][attributes];
+		for(int[] center : centers) {
+			for(int i = 0; i < attributes; i++) {
+				if(random.nextInt(3) == 0) center[i] = random.nextInt(random.nextBoolean() ? 3 : 300);
+			}
+		}
+
+		int[][] data = new int[instances][];
+		for(int k = 0; k < instances; k++) {
+			data[k] = centers[random.nextInt(prototypes)].clone();
+			for(int i = 0; i < attributes; i++) {
+				if(random.nextInt(10) == 0) data[k][i] = Math.max(0, data[k][i] + random.nextInt(5) - 2);
+			}
+		}
+
+		return data;
+
+	}
+
+	private static void runTest(int[][] data, double epsilon, int minPoints) throws Exception {
+
+		int attributes = data[0].length;
+
+		/* Weka. */
+		ArrayList<Attribute> attributeList = new ArrayList<Attribute>();
+		for(int i = 0; i < attributes; i++) attributeList.add(new Attribute("K" + i, i));
+		Instances instances = new Instances("DataSet", attributeList, data.length);
+		for(int[] row : data) {
+			double[] values = new double[attributes];
+			for(int i = 0; i < attributes; i++) values[i] = row[i];
+			instances.add(new DenseInstance(1.0, values));
+		}
+
+		ManhattanDistance distanceFunction = new ManhattanDistance();
+		distanceFunction.setOptions("-R first-last".split("\\s"));
+		DBSCAN dbScan = new DBSCAN();
+		dbScan.setOptions(("-E " + epsilon + " -M " + minPoints).split("\\s"));
+		dbScan.setDistanceFunction(distanceFunction);
+		dbScan.buildClusterer(instances);
+
+		/* Sparse. */
+		int[][] indices = new int[data.length][];
+		int[][] values = new int[data.length][];
+		for(int k = 0; k < data.length; k++) {
+			int n = 0;
+			for(int value : data[k]) if(value != 0) n++;
+			indices[k] = new int[n];
+			values[k] = new int[n];
+			n = 0;
+			for(int i = 0; i < attributes; i++) {
+				if(data[k][i] == 0) continue;
+				indices[k][n] = i;
+				values[k][n++] = data[k][i];
+			}
+		}
+
+		SparseDBSCAN sparseDBScan = new SparseDBSCAN(epsilon, minPoints);
+		sparseDBScan.buildClusterer(indices, values, attributes);
+
+		assertEquals(dbScan.numberOfClusters(), sparseDBScan.numberOfClusters());
+		for(int k = 0; k < data.length; k++) {
+			int expected;
+			try {
+				expected = dbScan.clusterInstance(instances.instance(k));
+			} catch (Exception noise) {
+				expected = SparseDBSCAN.NOISE;
+			}
+			assertEquals("Instance " + k, expected, sparseDBScan.clusterLabel(k));
+		}
+
+	}
+
+	@Test
+	public void testLearningParameters() throws Exception {
+		runTest(generate(1, 400, 12, 5), 0.01, 30);
+	}
+
+	@Test
+	public void testLargeEpsilon() throws Exception {
+		runTest(generate(2, 250, 8, 4), 0.2, 10);
+	}
+
+	@Test
+	public void testBorderInstances() throws Exception {
+		runTest(generate(3, 300, 15, 8), 0.5, 5);
+	}
+
+	@Test
+	public void testAllNoise() throws Exception {
+		runTest(generate(4, 60, 10, 6), 0.01, 30);
+	}
+
+}
@@ -7,6 +7,7 @@ import org.mozilla.javascript.ast.ScriptNode;
 
 import ca.ubc.ece.salt.gumtree.ast.ClassifiedASTNode;
 import ca.ubc.ece.salt.pangor.analysis.Alert;
+import ca.ubc.ece.salt.pangor.analysis.AnalysisArtifact;
 import ca.ubc.ece.salt.pangor.analysis.DataSet;
 import ca.ubc.ece.salt.pangor.analysis.scope.Scope;
 import ca.ubc.ece.salt.pangor.batch.AnalysisMetaInformation;
@@ -32,6 +33,11 @@ public abstract class FlowAnalysis<U extends Alert, T extends DataSet<U>, LE ext
 		super(dataSet, ami);
 	}
 
+	@Override
+	public AnalysisArtifact getRequiredArtifact() {
+		return AnalysisArtifact.CFG_CHANGES;
+	}
+
 	/**
 	 * Performs a flow analysis.
 	 *
@@ -0,0 +1,202 @@
+package ca.ubc.ece.salt.pangor.js.analysis;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.mozilla.javascript.ast.AstNode;
+import org.mozilla.javascript.ast.NodeVisitor;
+
+/**
+ * Runs several visitors over an AST in a single traversal. Each visitor
+ * registers the node types it is interested in and is only called for nodes
+ * of those types.
+ *
+ * A visitor that returns false for a node does not visit the node's
+ * descendants, but the traversal continues into the subtree for the other
+ * visitors.
+ *
+ * NOTE: This class only works with the Mozilla Rhino AST.
+ */
+public class FusedTreeVisitor implements NodeVisitor {
+
+	/** The visitors that have been registered but have not traversed the AST. **/
+	private List<Registration> pending;
+
+	/** The visitors used by the current traversal. **/
+	private List<Registration> active;
+
+	/** All the visitors that have been registered (so they are only registered once). **/
+	private Map<NodeVisitor, Registration> registered;
+
+	/** Caches the registrations that match each node class during a traversal. **/
+	private Map<Class<?>, List<Registration>> dispatch;
+
+	/** The number of active visitors that are not visiting the current subtree. **/
+	private int prunedCount;
+
+	public FusedTreeVisitor() {
+		this.pending = new ArrayList<Registration>();
+		this.registered = new IdentityHashMap<NodeVisitor, Registration>();
+	}
+
+	/**
+	 * Registers a visitor for the next traversal. Registering a visitor that
+	 * is already registered has no effect.
+	 * @param visitor The visitor to run.
+	 * @param types The node types the visitor is interested in. The visitor is
+	 * 				called for nodes of these types and their sub-types. If no
+	 * 				types are given, the visitor is called for every node.
+	 */
+	@SafeVarargs
+	public final void register(NodeVisitor visitor, Class<? extends AstNode>... types) {
+
+		if(this.registered.containsKey(visitor)) return;
+
+		Registration registration = new Registration(visitor, types.length == 0 ? new Class<?>[] { AstNode.class } : types);
+		this.registered.put(visitor, registration);
+		this.pending.add(registration);
+
+	}
+
+	/**
+	 * Registers the visitors that are waiting in another fused visitor for
+	 * the next traversal of this visitor's AST.
+	 * @param visitors The visitors to run.
+	 */
+	public void registerAll(FusedTreeVisitor visitors) {
+
+		for(Registration registration : visitors.pending) {
+			if(this.registered.containsKey(registration.visitor)) continue;
+
+			Registration copy = new Registration(registration.visitor, registration.types);
+			this.registered.put(registration.visitor, copy);
+			this.pending.add(copy);
+		}
+
+	}
+
+	/**
+	 * Removes the visitors that are waiting in another fused visitor from
+	 * the next traversal. Visitors that have already traversed the AST are
+	 * not affected.
+	 * @param visitors The visitors to remove.
+	 */
+	public void cancelAll(FusedTreeVisitor visitors) {
+
+		for(Registration registration : visitors.pending) {
+			Registration registered = this.registered.get(registration.visitor);
+			if(registered != null && this.pending.remove(registered)) {
+				this.registered.remove(registration.visitor);
+			}
+		}
+
+	}
+
+	/**
+	 * Visits the AST with all the visitors that were registered since the
+	 * last traversal. Does nothing if no visitors are waiting.
+	 * @param root The root of the AST to visit.
+	 */
+	public void traverse(AstNode root) {
+
+		if(this.pending.isEmpty()) return;
+
+		this.active = this.pending;
+		this.pending = new ArrayList<Registration>();
+		this.dispatch = new HashMap<Class<?>, List<Registration>>();
+		this.prunedCount = 0;
+
+		root.visit(this);
+
+		this.active = null;
+		this.dispatch = null;
+
+	}
+
+	@Override
+	public boolean visit(AstNode node) {
+
+		/* Re-activate visitors whose pruned subtree the traversal has left. */
+		if(this.prunedCount > 0) {
+			for(Registration registration : this.active) {
+				if(registration.pruned != null && !isDescendant(node, registration.pruned)) {
+					registration.pruned = null;
+					this.prunedCount--;
+				}
+			}
+		}
+
+		/* Fan out to the visitors that are interested in this node type. */
+		for(Registration registration : this.getRegistrations(node.getClass())) {
+			if(registration.pruned != null) continue;
+			if(!registration.visitor.visit(node)) {
+				registration.pruned = node;
+				this.prunedCount++;
+			}
+		}
+
+		/* Only skip the subtree if no visitor wants to visit it. */
+		return this.prunedCount < this.active.size();
+
+	}
+
+	/**
+	 * @param type The class of the node being visited.
+	 * @return the registrations that are interested in nodes of this class.
+	 */
+	private List<Registration> getRegistrations(Class<?> type) {
+
+		List<Registration> registrations = this.dispatch.get(type);
+
+		if(registrations == null) {
+			registrations = new ArrayList<Registration>();
+			for(Registration registration : this.active) {
+				if(registration.accepts(type)) registrations.add(registration);
+			}
+			this.dispatch.put(type, registrations);
+		}
+
+		return registrations;
+
+	}
+
+	/**
+	 * @return true if {@code node} is {@code ancestor} or one of its descendants.
+	 */
+	private static boolean isDescendant(AstNode node, AstNode ancestor) {
+		for(AstNode current = node; current != null; current = current.getParent()) {
+			if(current == ancestor) return true;
+		}
+		return false;
+	}
+
+	/**
+	 * A visitor and the node types it is interested in.
+	 */
+	private static class Registration {
+
+		public NodeVisitor visitor;
+		public Class<?>[] types;
+
+		/** The root of the subtree the visitor chose not to visit (or null). **/
+		public AstNode pruned;
+
+		public Registration(NodeVisitor visitor, Class<?>[] types) {
+			this.visitor = visitor;
+			this.types = types;
+			this.pruned = null;
+		}
+
+		public boolean accepts(Class<?> type) {
+			for(Class<?> accepted : this.types) {
+				if(accepted.isAssignableFrom(type)) return true;
+			}
+			return false;
+		}
+
+	}
+
+}
@@ -1,5 +1,6 @@
 package ca.ubc.ece.salt.pangor.js.analysis.scope;
 
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.LinkedList;
 import java.util.List;
@@ -7,17 +8,18 @@ import java.util.Map;
 
 import org.mozilla.javascript.ast.AstNode;
 import org.mozilla.javascript.ast.AstRoot;
-import org.mozilla.javascript.ast.FunctionNode;
 import org.mozilla.javascript.ast.ScriptNode;
 
 import ca.ubc.ece.salt.gumtree.ast.ClassifiedASTNode;
 import ca.ubc.ece.salt.pangor.analysis.Alert;
 import ca.ubc.ece.salt.pangor.analysis.Analysis;
+import ca.ubc.ece.salt.pangor.analysis.AnalysisArtifact;
 import ca.ubc.ece.salt.pangor.analysis.DataSet;
-import ca.ubc.ece.salt.pangor.analysis.flow.FunctionTreeVisitor;
 import ca.ubc.ece.salt.pangor.batch.AnalysisMetaInformation;
+import ca.ubc.ece.salt.pangor.cfd.CFDContext;
 import ca.ubc.ece.salt.pangor.cfg.CFG;
 import ca.ubc.ece.salt.pangor.classify.alert.ClassifierAlert;
+import ca.ubc.ece.salt.pangor.js.analysis.FusedTreeVisitor;
 
 /**
  * Builds a scope tree for the source and destination ASTs. This is used
@@ -36,11 +38,6 @@ public class ScopeAnalysis<U extends Alert, T extends DataSet<U>> extends Analys
 	 */
 	private Map<AstNode, List<ClassifierAlert>> alerts;
 
-	/**
-	 * Used to generate unique IDs for anonymous functions.
-	 */
-	private int anonymousIDGen;
-
 	/**
 	 * Keep track of the identity of the current CFG being analyzed (useful
 	 * for the analysis functions of analyses that extend ScopeAnalysis.
@@ -59,11 +56,24 @@ public class ScopeAnalysis<U extends Alert, T extends DataSet<U>> extends Analys
 	/** Maps function nodes to their scopes. */
 	protected Map<ScriptNode, JavaScriptScope> dstScopeMap;
 
+	/** Maps identifiers to the scopes that declare them. */
+	protected Map<String, List<JavaScriptScope>> srcDeclarations;
+
+	/** Maps identifiers to the scopes that declare them. */
+	protected Map<String, List<JavaScriptScope>> dstDeclarations;
+
+	/**
+	 * The script this analysis' visitors are registered to traverse together
+	 * with the visitors of the other analyses on the context, or null if the
+	 * visitors are not registered.
+	 */
+	private AstRoot fusedRoot;
+
 	public ScopeAnalysis(T dataSet, AnalysisMetaInformation ami) {
 		super(dataSet, ami);
 		this.alerts = new HashMap<AstNode, List<ClassifierAlert>>();
-		this.anonymousIDGen = 0;
 		this.currentCFGIdentity = null;
+		this.fusedRoot = null;
 	}
 
 	/**
@@ -96,6 +106,54 @@ public class ScopeAnalysis<U extends Alert, T extends DataSet<U>> extends Analys
 		return this.dstScopeMap.get(node);
 	}
 
+	/**
+	 * @param identifier The name of a variable or function.
+	 * @return the source scopes that declare the identifier.
+	 */
+	public List<JavaScriptScope> getSrcDeclarations(String identifier) {
+		List<JavaScriptScope> scopes = this.srcDeclarations.get(identifier);
+		return scopes == null ? Collections.<JavaScriptScope>emptyList() : scopes;
+	}
+
+	/**
+	 * @param identifier The name of a variable or function.
+	 * @return the destination scopes that declare the identifier.
+	 */
+	public List<JavaScriptScope> getDstDeclarations(String identifier) {
+		List<JavaScriptScope> scopes = this.dstDeclarations.get(identifier);
+		return scopes == null ? Collections.<JavaScriptScope>emptyList() : scopes;
+	}
+
+	/**
+	 * Registers this analysis' script visitors with the traversal of
+	 * {@code root} that is shared by all the analyses run on the context.
+	 */
+	@Override
+	public void setContext(CFDContext context, ClassifiedASTNode root) {
+		super.setContext(context, root);
+
+		this.fusedRoot = null;
+		if(context == null || !(root instanceof AstRoot) || this.skipDstScript()) return;
+
+		FusedTreeVisitor fusedVisitor = context.getSharedArtifact(FusedTreeVisitor.class, root);
+		if(fusedVisitor == null) {
+			fusedVisitor = new FusedTreeVisitor();
+			context.putSharedArtifact(FusedTreeVisitor.class, fusedVisitor, root);
+		}
+
+		fusedVisitor.registerAll(this.getDstScriptVisitors());
+		this.fusedRoot = (AstRoot) root;
+	}
+
+	/**
+	 * The scope tree is built from the AST, so scope analyses do not need
+	 * CFGs unless they override this.
+	 */
+	@Override
+	public AnalysisArtifact getRequiredArtifact() {
+		return AnalysisArtifact.AST;
+	}
+
 	@Override
 	public void analyze(ClassifiedASTNode root, List<CFG> cfgs) throws Exception {
 
@@ -103,9 +161,19 @@ public class ScopeAnalysis<U extends Alert, T extends DataSet<U>> extends Analys
 		if(!(root instanceof AstRoot)) throw new IllegalArgumentException("The AST must be parsed from Apache Rhino.");
 		AstRoot script = (AstRoot) root;
 
-		this.dstScopeMap = new HashMap<ScriptNode, JavaScriptScope>();
+		/* The scope tree only depends on the AST, so it is shared by all the
+		 * analyses that analyze the same script (e.g., the destination
+		 * analyses of every meta analysis run on the context). */
+		ScopeTrees scopeTrees = this.context == null ? null : this.context.getSharedArtifact(ScopeTrees.class, script);
+		if(scopeTrees == null) {
+			scopeTrees = new ScopeTrees(null, script);
+			if(this.context != null) this.context.putSharedArtifact(ScopeTrees.class, scopeTrees, script);
+		}
+
+		this.dstScopeMap = scopeTrees.dstScopeMap;
+		this.dstDeclarations = scopeTrees.dstDeclarations;
 		this.dstCFGs = cfgs;
-		this.dstScope = this.buildScopeTree(script, null, this.dstScopeMap, null);
+		this.dstScope = scopeTrees.dstScope;
 
 	}
 
@@ -118,46 +186,73 @@ public class ScopeAnalysis<U extends Alert, T extends DataSet<U>> extends Analys
 		AstRoot srcScript = (AstRoot) srcRoot;
 		AstRoot dstScript = (AstRoot) dstRoot;
 
-		this.srcScopeMap = new HashMap<ScriptNode, JavaScriptScope>();
-		this.dstScopeMap = new HashMap<ScriptNode, JavaScriptScope>();
+		/* The scope trees only depend on the ASTs, so they are shared by all
+		 * the analyses run on the same context. */
+		ScopeTrees scopeTrees = this.context == null ? null : this.context.getSharedArtifact(ScopeTrees.class, srcScript, dstScript);
+		if(scopeTrees == null) {
+			scopeTrees = new ScopeTrees(srcScript, dstScript);
+			if(this.context != null) this.context.putSharedArtifact(ScopeTrees.class, scopeTrees, srcScript, dstScript);
+		}
+
+		this.srcScopeMap = scopeTrees.srcScopeMap;
+		this.dstScopeMap = scopeTrees.dstScopeMap;
+		this.srcDeclarations = scopeTrees.srcDeclarations;
+		this.dstDeclarations = scopeTrees.dstDeclarations;
 		this.srcCFGs = srcCFGs;
 		this.dstCFGs = dstCFGs;
-		this.srcScope = this.buildScopeTree(srcScript, null, this.srcScopeMap, null);
-		this.dstScope = this.buildScopeTree(dstScript, null, this.dstScopeMap, null);
+		this.srcScope = scopeTrees.srcScope;
+		this.dstScope = scopeTrees.dstScope;
 
 	}
 
 	/**
-	 * Builds the scope tree.
-	 * @return the root of the scope tree.
-	 * @throws Exception
+	 * Analyses that visit the entire destination script override this to
+	 * register their visitors (and the node types the visitors inspect).
+	 * The visitors are run by {@code visitDstScript}.
+	 * @param fusedVisitor The traversal to register the visitors with.
 	 */
-	private JavaScriptScope buildScopeTree(ScriptNode function, JavaScriptScope parent, Map<ScriptNode, JavaScriptScope> scopeMap, String parentIdentity) throws Exception {
+	protected void registerDstScriptVisitors(FusedTreeVisitor fusedVisitor) { }
 
-		/* Create a unique identity for the function. */
-		String identity = "Script";
-		if(parentIdentity != null) {
-			assert(function instanceof FunctionNode);
-			String functionName = this.getFunctionName((FunctionNode) function);
-			identity = parentIdentity + "." + functionName;
-		}
+	/**
+	 * Analyses that do not visit some files (e.g., minified files) override
+	 * this. The visitors of an analysis that skips the file are not
+	 * registered, so other analyses do not run them.
+	 * @return true if the analysis does not visit the destination script.
+	 */
+	protected boolean skipDstScript() {
+		return false;
+	}
 
-        /* Create a new scope for this script or function and add it to the
-         * scope tree. */
-		JavaScriptScope scope = new JavaScriptScope(parent, function, identity);
-		if(parent != null) parent.children.add(scope);
-		ScopeVisitor.getLocalScope(scope);
+	/**
+	 * @return a traversal that runs this analysis' visitors.
+	 */
+	private FusedTreeVisitor getDstScriptVisitors() {
+		FusedTreeVisitor visitors = new FusedTreeVisitor();
+		this.registerDstScriptVisitors(visitors);
+		return visitors;
+	}
 
-		/* Put the scope in the scope map. */
-		scopeMap.put(function, scope);
+	/**
+	 * Runs the visitors from {@code registerDstScriptVisitors} over the
+	 * destination script. When analyses are run on the same context, the
+	 * script is traversed once for the visitors of all the analyses that
+	 * visit it. The first analysis to call this runs the traversal.
+	 */
+	protected void visitDstScript() {
+
+		if(this.fusedRoot != null && this.dstScope.scope == this.fusedRoot) {
+			this.context.getSharedArtifact(FusedTreeVisitor.class, this.fusedRoot).traverse(this.fusedRoot);
+			return;
+		}
 
-        /* Analyze the methods of the function. */
-        List<FunctionNode> methods = FunctionTreeVisitor.getFunctions(function);
-        for(FunctionNode method : methods) {
-        	buildScopeTree(method, scope, scopeMap, identity);
-        }
+		/* The analysis is not visiting the script it registered for, so it
+		 * can't share the traversal. */
+		if(this.fusedRoot != null) {
+			this.context.getSharedArtifact(FusedTreeVisitor.class, this.fusedRoot).cancelAll(this.getDstScriptVisitors());
+			this.fusedRoot = null;
+		}
 
-        return scope;
+		this.getDstScriptVisitors().traverse(this.dstScope.scope);
 
 	}
 
@@ -195,25 +290,4 @@ public class ScopeAnalysis<U extends Alert, T extends DataSet<U>> extends Analys
 		this.currentCFGIdentity = currentCFGIdentity;
 	}
 
-	/**
-	 * @param function The function to generate a name for.
-	 * @return the function name (if is a named function) or a unique ID if it
-	 * 		   is an anonymous function.
-	 */
-	private String getFunctionName(FunctionNode function) {
-		String functionName = function.getName();
-		if(functionName.isEmpty()) {
-			functionName = "~A" + this.getAnonymousFunctionID() + "~";
-		}
-		return functionName;
-	}
-
-	/**
-	 * @return A unique ID for anonymous functions.
-	 */
-	private int getAnonymousFunctionID() {
-		this.anonymousIDGen = this.anonymousIDGen + 1;
-		return this.anonymousIDGen;
-	}
-
 }
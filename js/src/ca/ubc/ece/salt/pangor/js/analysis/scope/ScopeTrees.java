@@ -0,0 +1,131 @@
+package ca.ubc.ece.salt.pangor.js.analysis.scope;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.mozilla.javascript.ast.AstRoot;
+import org.mozilla.javascript.ast.FunctionNode;
+import org.mozilla.javascript.ast.ScriptNode;
+
+import ca.ubc.ece.salt.pangor.analysis.flow.FunctionTreeVisitor;
+
+/**
+ * The scope trees for the source and destination ASTs, and an index of the
+ * scopes that declare each identifier. The scope trees are not modified by
+ * the analyses that use them, so one instance is built for each script (or
+ * pair of scripts) in a {@code CFDContext} and shared by all the analyses run
+ * on it.
+ *
+ * NOTE: This class only works with the Mozilla Rhino AST.
+ */
+public class ScopeTrees {
+
+	/** The source scope tree (null if only the destination was analyzed). **/
+	public final JavaScriptScope srcScope;
+
+	/** The destination scope tree. **/
+	public final JavaScriptScope dstScope;
+
+	/** Maps source function nodes to their scopes. */
+	public final Map<ScriptNode, JavaScriptScope> srcScopeMap;
+
+	/** Maps destination function nodes to their scopes. */
+	public final Map<ScriptNode, JavaScriptScope> dstScopeMap;
+
+	/** Maps identifiers to the source scopes that declare them. */
+	public final Map<String, List<JavaScriptScope>> srcDeclarations;
+
+	/** Maps identifiers to the destination scopes that declare them. */
+	public final Map<String, List<JavaScriptScope>> dstDeclarations;
+
+	/**
+	 * Used to generate unique IDs for anonymous functions.
+	 */
+	private int anonymousIDGen;
+
+	/**
+	 * Builds the scope trees for the source and destination scripts.
+	 * @param srcScript The source script, or null to only build the
+	 * 					destination scope tree.
+	 * @param dstScript The destination script.
+	 * @throws Exception
+	 */
+	public ScopeTrees(AstRoot srcScript, AstRoot dstScript) throws Exception {
+		this.anonymousIDGen = 0;
+		this.srcScopeMap = new HashMap<ScriptNode, JavaScriptScope>();
+		this.dstScopeMap = new HashMap<ScriptNode, JavaScriptScope>();
+		this.srcDeclarations = new HashMap<String, List<JavaScriptScope>>();
+		this.dstDeclarations = new HashMap<String, List<JavaScriptScope>>();
+		this.srcScope = srcScript == null ? null : this.buildScopeTree(srcScript, null, this.srcScopeMap, this.srcDeclarations, null);
+		this.dstScope = this.buildScopeTree(dstScript, null, this.dstScopeMap, this.dstDeclarations, null);
+	}
+
+	/**
+	 * Builds the scope tree.
+	 * @return the root of the scope tree.
+	 * @throws Exception
+	 */
+	private JavaScriptScope buildScopeTree(ScriptNode function, JavaScriptScope parent, Map<ScriptNode, JavaScriptScope> scopeMap,
+			Map<String, List<JavaScriptScope>> declarations, String parentIdentity) throws Exception {
+
+		/* Create a unique identity for the function. */
+		String identity = "Script";
+		if(parentIdentity != null) {
+			assert(function instanceof FunctionNode);
+			String functionName = this.getFunctionName((FunctionNode) function);
+			identity = parentIdentity + "." + functionName;
+		}
+
+        /* Create a new scope for this script or function and add it to the
+         * scope tree. */
+		JavaScriptScope scope = new JavaScriptScope(parent, function, identity);
+		if(parent != null) parent.children.add(scope);
+		ScopeVisitor.getLocalScope(scope);
+
+		/* Put the scope in the scope map. */
+		scopeMap.put(function, scope);
+
+		/* Index the identifiers declared in the scope. */
+		for(String variable : scope.variables.keySet()) {
+			List<JavaScriptScope> scopes = declarations.get(variable);
+			if(scopes == null) {
+				scopes = new ArrayList<JavaScriptScope>();
+				declarations.put(variable, scopes);
+			}
+			scopes.add(scope);
+		}
+
+        /* Analyze the methods of the function. */
+        List<FunctionNode> methods = FunctionTreeVisitor.getFunctions(function);
+        for(FunctionNode method : methods) {
+        	buildScopeTree(method, scope, scopeMap, declarations, identity);
+        }
+
+        return scope;
+
+	}
+
+	/**
+	 * @param function The function to generate a name for.
+	 * @return the function name (if is a named function) or a unique ID if it
+	 * 		   is an anonymous function.
+	 */
+	private String getFunctionName(FunctionNode function) {
+		String functionName = function.getName();
+		if(functionName.isEmpty()) {
+			functionName = "~A" + this.getAnonymousFunctionID() + "~";
+		}
+		return functionName;
+	}
+
+	/**
+	 * @return A unique ID for anonymous functions.
+	 */
+	private int getAnonymousFunctionID() {
+		this.anonymousIDGen = this.anonymousIDGen + 1;
+		return this.anonymousIDGen;
+	}
+
+}